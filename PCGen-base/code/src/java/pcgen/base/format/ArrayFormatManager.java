@@ -20,14 +20,23 @@ package pcgen.base.format;
 import static pcgen.base.lang.StringUtil.joining;
 import static pcgen.base.util.ArrayUtilities.buildOfClass;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.stream.Stream;
 
 import pcgen.base.lang.StringUtil;
+import pcgen.base.lang.UnreachableError;
 import pcgen.base.util.ArrayUtilities;
+import pcgen.base.util.BasicIndirect;
 import pcgen.base.util.FormatManager;
 import pcgen.base.util.Indirect;
 import pcgen.base.util.Converter;
@@ -97,32 +106,48 @@ public class ArrayFormatManager<T> implements FormatManager<T[]>
 	 * to in the instructions should be separated by the separator provided at
 	 * construction of this ArrayFormatManager.
 	 */
-	@SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
 	@Override
 	public T[] convert(String instructions)
 	{
-		if ((instructions == null) || instructions.isEmpty())
+		Class<T> managedClass = componentManager.getManagedClass();
+		if (componentManager instanceof DispatchingFormatManager)
 		{
-			return ArrayUtilities.buildEmpty(componentManager.getManagedClass());
+			return convertViaDispatch(getDispatchingManager(),
+				reusing(this::buildDerived), instructions, managedClass);
 		}
+		return convertDirect(componentManager::convertInto, instructions,
+			buildOfClass(managedClass));
+	}
+
+	/**
+	 * Converts each of the instructions into an array of objects, placing them into the
+	 * given array. The setup (identifying the managed class, checking for dispatch, and
+	 * building the array constructor) is performed once for the entire batch.
+	 */
+	@Override
+	public void convertInto(String[] instructions, T[][] output)
+	{
 		Class<T> managedClass = componentManager.getManagedClass();
 		if (componentManager instanceof DispatchingFormatManager)
 		{
-			@SuppressWarnings("unchecked")
-			DispatchingFormatManager<T> dfm =
-					(DispatchingFormatManager<T>) componentManager;
-			String[] groups = splitInstructions(instructions, groupSeparator);
-			T[] returnValue = null;
-			for (String group : groups)
+			DispatchingFormatManager<T> dfm = getDispatchingManager();
+			Function<FormatManager<T>, Converter<T[]>> processor =
+					reusing(this::buildDerived);
+			for (int i = 0; i < instructions.length; i++)
+			{
+				output[i] =
+						convertViaDispatch(dfm, processor, instructions[i], managedClass);
+			}
+		}
+		else
+		{
+			BiConsumer<String[], T[]> mapper = componentManager::convertInto;
+			IntFunction<T[]> arrayBuilder = buildOfClass(managedClass);
+			for (int i = 0; i < instructions.length; i++)
 			{
-				T[] converted = dfm.convertViaDispatch(
-					fm -> new ArrayFormatManager<>(fm, groupSeparator, listSeparator), group);
-				returnValue =
-						ArrayUtilities.mergeArray(managedClass, returnValue, converted);
+				output[i] = convertDirect(mapper, instructions[i], arrayBuilder);
 			}
-			return returnValue;
 		}
-		return convertInternal(componentManager::convert, instructions, managedClass);
 	}
 
 	/**
@@ -130,43 +155,122 @@ public class ArrayFormatManager<T> implements FormatManager<T[]>
 	 * referred to in the instructions should be separated by the separator
 	 * provided at construction of this ArrayFormatManager.
 	 */
-	@SuppressWarnings("PMD.AvoidInstantiatingObjectsInLoops")
 	@Override
 	public Indirect<T[]> convertIndirect(String instructions)
 	{
-		if ((instructions == null) || instructions.isEmpty())
+		Class<Indirect<T>> managedClass = getIndirectClass();
+		if (componentManager instanceof DispatchingFormatManager)
 		{
-			return new ArrayIndirect(ArrayUtilities.buildEmpty(getIndirectClass()));
+			return buildIndirect(convertViaDispatch(getDispatchingManager(),
+				reusing(Derived::new), instructions, managedClass));
 		}
+		return buildIndirect(convertDirect(componentManager::convertIndirectInto,
+			instructions, buildOfClass(managedClass)));
+	}
+
+	/**
+	 * Converts each of the instructions into an Indirect array of objects, placing them
+	 * into the given array. The setup (checking for dispatch and building the array
+	 * constructor) is performed once for the entire batch.
+	 */
+	@Override
+	public void convertIndirectInto(String[] instructions, Indirect<T[]>[] output)
+	{
 		Class<Indirect<T>> managedClass = getIndirectClass();
-		Indirect<T>[] array = null;
 		if (componentManager instanceof DispatchingFormatManager)
 		{
-			@SuppressWarnings("unchecked")
-			DispatchingFormatManager<T> dfm =
-					(DispatchingFormatManager<T>) componentManager;
-			String[] groups = splitInstructions(instructions, groupSeparator);
-			for (String group : groups)
+			DispatchingFormatManager<T> dfm = getDispatchingManager();
+			Function<FormatManager<T>, Converter<Indirect<T>[]>> processor =
+					reusing(Derived::new);
+			for (int i = 0; i < instructions.length; i++)
 			{
-				Indirect<T>[] converted =
-						dfm.convertViaDispatch(fm -> new Derived(fm), group);
-				array = ArrayUtilities.mergeArray(managedClass, array, converted);
+				output[i] = buildIndirect(
+					convertViaDispatch(dfm, processor, instructions[i], managedClass));
 			}
 		}
 		else
 		{
-			array = convertInternal(componentManager::convertIndirect, instructions,
-				managedClass);
+			BiConsumer<String[], Indirect<T>[]> mapper =
+					componentManager::convertIndirectInto;
+			IntFunction<Indirect<T>[]> arrayBuilder = buildOfClass(managedClass);
+			for (int i = 0; i < instructions.length; i++)
+			{
+				output[i] =
+						buildIndirect(convertDirect(mapper, instructions[i], arrayBuilder));
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private DispatchingFormatManager<T> getDispatchingManager()
+	{
+		return (DispatchingFormatManager<T>) componentManager;
+	}
+
+	private ArrayFormatManager<T> buildDerived(FormatManager<T> fm)
+	{
+		return new ArrayFormatManager<>(fm, groupSeparator, listSeparator);
+	}
+
+	/**
+	 * Wraps the given processor so that the Converter it builds for a given (prepared)
+	 * FormatManager is built only once and then reused for any equal FormatManager.
+	 */
+	private <R> Function<FormatManager<T>, Converter<R[]>> reusing(
+		Function<FormatManager<T>, Converter<R[]>> processor)
+	{
+		Map<FormatManager<T>, Converter<R[]>> prepared = new HashMap<>();
+		return fm -> prepared.computeIfAbsent(fm, processor);
+	}
+
+	/**
+	 * Converts the instructions into an array by dispatching each group in the
+	 * instructions through the given DispatchingFormatManager. The results of each group
+	 * are appended into a single buffer, so that the array is only built once.
+	 */
+	private <R> R[] convertViaDispatch(DispatchingFormatManager<T> dfm,
+		Function<FormatManager<T>, Converter<R[]>> processor, String instructions,
+		Class<R> managedClass)
+	{
+		if ((instructions == null) || instructions.isEmpty())
+		{
+			return ArrayUtilities.buildEmpty(managedClass);
+		}
+		String[] groups = splitInstructions(instructions, groupSeparator);
+		if (groups.length == 1)
+		{
+			return dfm.convertViaDispatch(processor, groups[0]);
+		}
+		List<R> buffer = new ArrayList<>(groups.length);
+		for (String group : groups)
+		{
+			Collections.addAll(buffer, dfm.convertViaDispatch(processor, group));
+		}
+		return buffer.toArray(buildOfClass(managedClass).apply(buffer.size()));
+	}
+
+	private <R> R[] convertDirect(BiConsumer<String[], R[]> mapper,
+		String instructions, IntFunction<R[]> arrayBuilder)
+	{
+		if ((instructions == null) || instructions.isEmpty())
+		{
+			return arrayBuilder.apply(0);
 		}
-		return buildIndirect(array);
+		return convertInternal(mapper, instructions, arrayBuilder);
 	}
 
-	private <R> R[] convertInternal(Function<? super String, R> mapper,
-		String instructions, Class<R> managedClass)
+	/**
+	 * Converts the items in the instructions with a single bulk conversion, so that
+	 * component FormatManagers (such as those backed by an ObjectDatabase) can batch the
+	 * conversion of the items.
+	 */
+	private <R> R[] convertInternal(BiConsumer<String[], R[]> mapper,
+		String instructions, IntFunction<R[]> arrayBuilder)
 	{
-		return Arrays.stream(splitInstructions(instructions, listSeparator))
-					 .map(mapper)
-					 .toArray(buildOfClass(managedClass));
+		String[] items = splitInstructions(instructions, listSeparator);
+		R[] result = arrayBuilder.apply(items.length);
+		mapper.accept(items, result);
+		return result;
 	}
 
 	/**
@@ -181,6 +285,24 @@ public class ArrayFormatManager<T> implements FormatManager<T[]>
 		return new ArrayIndirect(array);
 	}
 
+	/**
+	 * Builds an Indirect of an array containing the given objects, which have already
+	 * been converted by the component FormatManager.
+	 * 
+	 * @param values
+	 *            The objects to be contained in the returned Indirect
+	 * @return An Indirect of an array containing the given objects
+	 */
+	protected Indirect<T[]> buildIndirect(T[] values)
+	{
+		Indirect<T>[] array = buildOfClass(getIndirectClass()).apply(values.length);
+		for (int i = 0; i < values.length; i++)
+		{
+			array[i] = new BasicIndirect<>(componentManager, values[i]);
+		}
+		return new ArrayIndirect(array);
+	}
+
 	private String[] splitInstructions(String instructions, char separator)
 	{
 		if (!StringUtil.hasValidSeparators(instructions, separator))
@@ -192,6 +314,28 @@ public class ArrayFormatManager<T> implements FormatManager<T[]>
 		return StringUtil.split(instructions, separator);
 	}
 
+	/**
+	 * Returns the FormatManager representing objects contained within the array, with
+	 * its full type available to subclasses.
+	 * 
+	 * @return The FormatManager representing objects contained within the array
+	 */
+	protected FormatManager<T> getUnderlying()
+	{
+		return componentManager;
+	}
+
+	/**
+	 * Returns the list separator character used to separate list items that are part of
+	 * the array.
+	 * 
+	 * @return The list separator character of this ArrayFormatManager
+	 */
+	protected char getListSeparator()
+	{
+		return listSeparator;
+	}
+
 	/**
 	 * Returns the FormatManager for the class of object within the array
 	 * managed by this ArrayFormatManager.
@@ -229,20 +373,80 @@ public class ArrayFormatManager<T> implements FormatManager<T[]>
 	{
 		if (componentManager instanceof DispatchingFormatManager)
 		{
-			@SuppressWarnings("unchecked")
-			DispatchingFormatManager<T> dfm =
-					(DispatchingFormatManager<T>) componentManager;
-			Stream<Tuple<String, String>> unconverted =
-					Arrays.stream(array).map(dfm::unconvertSeparated);
-			List<String> results =
-					TupleUtil.arrayLeftAndCombine(unconverted, listSeparator);
-			return StringUtil.join(results, groupSeparator);
+			StringBuilder sb = new StringBuilder();
+			try
+			{
+				unconvertDispatchedTo(getDispatchingManager(), array, sb);
+			}
+			catch (IOException e)
+			{
+				throw new UnreachableError("StringBuilder does not throw IOException", e);
+			}
+			return sb.toString();
 		}
 		return Arrays.stream(array)
 				 .map(componentManager::unconvert)
 				 .collect(joining(listSeparator));
 	}
 
+	/**
+	 * Appends the unconverted form of the given array to the given Appendable. Each item
+	 * is appended directly by the component FormatManager, without joining intermediate
+	 * Strings.
+	 */
+	@Override
+	public void unconvertTo(T[] array, Appendable out) throws IOException
+	{
+		if (componentManager instanceof DispatchingFormatManager)
+		{
+			unconvertDispatchedTo(getDispatchingManager(), array, out);
+			return;
+		}
+		for (int i = 0; i < array.length; i++)
+		{
+			if (i > 0)
+			{
+				out.append(listSeparator);
+			}
+			componentManager.unconvertTo(array[i], out);
+		}
+	}
+
+	/**
+	 * Appends the unconverted form of the given array, where the component
+	 * FormatManager is a DispatchingFormatManager, to the given Appendable. Items with
+	 * the same trailing information are grouped (in the order in which each group first
+	 * appears in the array), comparing the items directly rather than building the
+	 * separated Strings for each item.
+	 */
+	private void unconvertDispatchedTo(DispatchingFormatManager<T> dfm, T[] array,
+		Appendable out) throws IOException
+	{
+		boolean[] written = new boolean[array.length];
+		for (int i = 0; i < array.length; i++)
+		{
+			if (written[i])
+			{
+				continue;
+			}
+			if (i > 0)
+			{
+				out.append(groupSeparator);
+			}
+			dfm.unconvertPrimaryTo(array[i], out);
+			for (int j = i + 1; j < array.length; j++)
+			{
+				if (!written[j] && dfm.hasSameTrailing(array[i], array[j]))
+				{
+					written[j] = true;
+					out.append(listSeparator);
+					dfm.unconvertPrimaryTo(array[j], out);
+				}
+			}
+			dfm.unconvertTrailingTo(array[i], out);
+		}
+	}
+
 	@Override
 	public int hashCode()
 	{
@@ -364,7 +568,8 @@ public class ArrayFormatManager<T> implements FormatManager<T[]>
 		public Indirect<T>[] convert(String inputStr)
 		{
 			return ArrayFormatManager.this.convertInternal(
-				derivedComponentMgr::convertIndirect, inputStr, getIndirectClass());
+				derivedComponentMgr::convertIndirectInto, inputStr,
+				buildOfClass(getIndirectClass()));
 		}
 	}
 }
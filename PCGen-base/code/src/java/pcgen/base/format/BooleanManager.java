@@ -17,9 +17,12 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
+
 import pcgen.base.util.BasicIndirect;
 import pcgen.base.util.FormatManager;
 import pcgen.base.util.Indirect;
+import pcgen.base.util.IndirectCache;
 
 /**
  * A BooleanManager is a FormatManager that provides services for Boolean
@@ -28,6 +31,33 @@ import pcgen.base.util.Indirect;
 public class BooleanManager implements FormatManager<Boolean>
 {
 
+	/**
+	 * The IndirectCache used to intern the Indirect objects produced by this
+	 * BooleanManager, or null if Indirect objects are not interned.
+	 */
+	private final IndirectCache indirectCache;
+
+	/**
+	 * Constructs a new BooleanManager that does not intern Indirect objects.
+	 */
+	public BooleanManager()
+	{
+		this(null);
+	}
+
+	/**
+	 * Constructs a new BooleanManager that interns the Indirect objects it produces in
+	 * the given IndirectCache.
+	 * 
+	 * @param indirectCache
+	 *            The IndirectCache used to intern the Indirect objects produced by
+	 *            this BooleanManager (may be null to indicate no interning)
+	 */
+	public BooleanManager(IndirectCache indirectCache)
+	{
+		this.indirectCache = indirectCache;
+	}
+
 	/**
 	 * Converts the given String to an object of the type processed by this
 	 * FormatManager.
@@ -54,7 +84,17 @@ public class BooleanManager implements FormatManager<Boolean>
 	@Override
 	public Indirect<Boolean> convertIndirect(String s)
 	{
-		return new BasicIndirect<>(this, convert(s));
+		return toIndirect(convert(s));
+	}
+
+	/**
+	 * Returns an Indirect containing the given Boolean, interned in the IndirectCache
+	 * of this BooleanManager if one is present.
+	 */
+	private Indirect<Boolean> toIndirect(Boolean value)
+	{
+		return (indirectCache == null) ? new BasicIndirect<>(this, value)
+			: indirectCache.intern(this, value);
 	}
 
 	/**
@@ -67,6 +107,15 @@ public class BooleanManager implements FormatManager<Boolean>
 		return s.toString();
 	}
 
+	/**
+	 * Appends the "unconverted" form of the object to the given Appendable.
+	 */
+	@Override
+	public void unconvertTo(Boolean s, Appendable out) throws IOException
+	{
+		out.append(s.toString());
+	}
+
 	/**
 	 * The Class that this FormatManager can convert or unconvert.
 	 */
@@ -15,6 +15,7 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
 import java.util.function.Function;
 
 import pcgen.base.util.Converter;
@@ -61,4 +62,59 @@ public interface DispatchingFormatManager<T> extends FormatManager<T>
 	 *         given Object.
 	 */
 	public Tuple<String, String> unconvertSeparated(T object);
+
+	/**
+	 * Appends the String representing the primary Object (the first String returned by
+	 * unconvertSeparated) for the given Object to the given Appendable.
+	 * 
+	 * Implementations are encouraged to override this method (along with
+	 * unconvertTrailingTo and hasSameTrailing) to avoid building the Tuple returned by
+	 * unconvertSeparated.
+	 * 
+	 * @param object
+	 *            The Object to be unconverted by this DispatchingFormatManager
+	 * @param out
+	 *            The Appendable to which the primary String should be appended
+	 * @throws IOException
+	 *             if the given Appendable throws an IOException
+	 */
+	public default void unconvertPrimaryTo(T object, Appendable out) throws IOException
+	{
+		out.append(unconvertSeparated(object).getFirst());
+	}
+
+	/**
+	 * Appends the String representing any trailing (right-associative) information (the
+	 * second String returned by unconvertSeparated) for the given Object to the given
+	 * Appendable.
+	 * 
+	 * @param object
+	 *            The Object to be unconverted by this DispatchingFormatManager
+	 * @param out
+	 *            The Appendable to which the trailing String should be appended
+	 * @throws IOException
+	 *             if the given Appendable throws an IOException
+	 */
+	public default void unconvertTrailingTo(T object, Appendable out) throws IOException
+	{
+		out.append(unconvertSeparated(object).getSecond());
+	}
+
+	/**
+	 * Returns true if the given Objects have the same trailing (right-associative)
+	 * information, meaning the second Strings returned by unconvertSeparated for the
+	 * two Objects are equal.
+	 * 
+	 * @param first
+	 *            The first Object to be compared
+	 * @param second
+	 *            The second Object to be compared
+	 * @return true if the given Objects have the same trailing information; false
+	 *         otherwise
+	 */
+	public default boolean hasSameTrailing(T first, T second)
+	{
+		return unconvertSeparated(first).getSecond()
+			.equals(unconvertSeparated(second).getSecond());
+	}
 }
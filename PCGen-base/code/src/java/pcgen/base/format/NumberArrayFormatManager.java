@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.format;
+
+import java.lang.ref.SoftReference;
+
+import pcgen.base.util.FormatManager;
+import pcgen.base.util.Indirect;
+import pcgen.base.util.PackedNumberArray;
+
+/**
+ * A NumberArrayFormatManager is an ArrayFormatManager for arrays of Number objects
+ * (ARRAY[NUMBER]). It behaves identically to an ArrayFormatManager, except that the
+ * Indirect objects it produces store the values in a PackedNumberArray (an int[] or
+ * double[]) rather than as an array of Indirect objects each containing a boxed Number.
+ * The Indirect objects still return a Number[] from get(), so existing consumers are
+ * not affected.
+ */
+public class NumberArrayFormatManager extends ArrayFormatManager<Number>
+{
+
+	/**
+	 * Constructs a new NumberArrayFormatManager with the given underlying component
+	 * FormatManager and separators.
+	 * 
+	 * @param underlying
+	 *            The FormatManager representing objects contained within the array
+	 * @param groupSeparator
+	 *            The group separator character used to parse instructions and separate
+	 *            groups of lists that will be part of the array
+	 * @param listSeparator
+	 *            The separator character used to parse lists in the instructions and
+	 *            separate list items that will be part of the array
+	 */
+	public NumberArrayFormatManager(FormatManager<Number> underlying,
+		char groupSeparator, char listSeparator)
+	{
+		super(underlying, groupSeparator, listSeparator);
+	}
+
+	/**
+	 * Converts the instructions into a PackedNumberArray.
+	 * 
+	 * @param instructions
+	 *            The instructions to be converted into a PackedNumberArray
+	 * @return A PackedNumberArray containing the values in the given instructions
+	 * @throws IllegalArgumentException
+	 *             if the instructions are not valid, or contain a value that is not an
+	 *             Integer or Double
+	 */
+	public PackedNumberArray convertPacked(String instructions)
+	{
+		return PackedNumberArray.valueOf(convert(instructions));
+	}
+
+	/**
+	 * Converts the instructions into an Indirect array of objects. The values are stored
+	 * in a PackedNumberArray if possible.
+	 */
+	@Override
+	public Indirect<Number[]> convertIndirect(String instructions)
+	{
+		Number[] values = convert(instructions);
+		if (PackedNumberArray.isPackable(values))
+		{
+			return new PackedIndirect(PackedNumberArray.valueOf(values));
+		}
+		return buildIndirect(values);
+	}
+
+	@Override
+	public void convertIndirectInto(String[] instructions, Indirect<Number[]>[] output)
+	{
+		for (int i = 0; i < instructions.length; i++)
+		{
+			output[i] = convertIndirect(instructions[i]);
+		}
+	}
+
+	/**
+	 * A PackedIndirect is an Indirect of a Number[] backed by a PackedNumberArray.
+	 */
+	private final class PackedIndirect implements Indirect<Number[]>
+	{
+		private final PackedNumberArray packed;
+
+		/**
+		 * The boxed array last returned by get(), retained only while memory allows so
+		 * that repeated calls do not each box every value again.
+		 */
+		private volatile SoftReference<Number[]> boxed = new SoftReference<>(null);
+
+		private PackedIndirect(PackedNumberArray packed)
+		{
+			this.packed = packed;
+		}
+
+		/**
+		 * Returns a new array containing the values in this PackedIndirect. The boxed
+		 * values are cached behind a SoftReference, so only the array copy is allocated
+		 * on repeated calls unless the cache has been cleared by the garbage collector.
+		 */
+		@Override
+		public Number[] get()
+		{
+			Number[] array = boxed.get();
+			if (array == null)
+			{
+				array = packed.toArray();
+				boxed = new SoftReference<>(array);
+			}
+			return array.clone();
+		}
+
+		@Override
+		public String getUnconverted()
+		{
+			StringBuilder sb = new StringBuilder();
+			int size = packed.size();
+			for (int i = 0; i < size; i++)
+			{
+				if (i > 0)
+				{
+					sb.append(getListSeparator());
+				}
+				sb.append(getUnderlying().unconvert(packed.get(i)));
+			}
+			return sb.toString();
+		}
+	}
+}
@@ -17,6 +17,7 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
 import java.util.Comparator;
 
 import pcgen.base.lang.NumberUtilities;
@@ -24,6 +25,7 @@ import pcgen.base.util.BasicIndirect;
 import pcgen.base.util.ComparableManager;
 import pcgen.base.util.FormatManager;
 import pcgen.base.util.Indirect;
+import pcgen.base.util.IndirectCache;
 
 /**
  * A NumberManager is a FormatManager that provides services for Numbers
@@ -32,6 +34,33 @@ import pcgen.base.util.Indirect;
 public class NumberManager implements FormatManager<Number>, ComparableManager<Number>
 {
 
+	/**
+	 * The IndirectCache used to intern the Indirect objects produced by this
+	 * NumberManager, or null if Indirect objects are not interned.
+	 */
+	private final IndirectCache indirectCache;
+
+	/**
+	 * Constructs a new NumberManager that does not intern Indirect objects.
+	 */
+	public NumberManager()
+	{
+		this(null);
+	}
+
+	/**
+	 * Constructs a new NumberManager that interns the Indirect objects it produces in
+	 * the given IndirectCache.
+	 * 
+	 * @param indirectCache
+	 *            The IndirectCache used to intern the Indirect objects produced by
+	 *            this NumberManager (may be null to indicate no interning)
+	 */
+	public NumberManager(IndirectCache indirectCache)
+	{
+		this.indirectCache = indirectCache;
+	}
+
 	/**
 	 * Converts the given String to an object of the type processed by this
 	 * FormatManager.
@@ -49,7 +78,17 @@ public class NumberManager implements FormatManager<Number>, ComparableManager<N
 	@Override
 	public Indirect<Number> convertIndirect(String s)
 	{
-		return new BasicIndirect<>(this, convert(s));
+		return toIndirect(convert(s));
+	}
+
+	/**
+	 * Returns an Indirect containing the given Number, interned in the IndirectCache
+	 * of this NumberManager if one is present.
+	 */
+	private Indirect<Number> toIndirect(Number value)
+	{
+		return (indirectCache == null) ? new BasicIndirect<>(this, value)
+			: indirectCache.intern(this, value);
 	}
 
 	/**
@@ -62,6 +101,47 @@ public class NumberManager implements FormatManager<Number>, ComparableManager<N
 		return s.toString();
 	}
 
+	/**
+	 * Appends the "unconverted" form of the object to the given Appendable, without
+	 * building an intermediate String when the Appendable is a StringBuilder.
+	 */
+	@Override
+	public void unconvertTo(Number s, Appendable out) throws IOException
+	{
+		appendNumber(s, out);
+	}
+
+	/**
+	 * Appends the String representation of the given Number (identical to
+	 * Number.toString()) to the given Appendable. Integer and Double values are appended
+	 * directly to a StringBuilder, avoiding an intermediate String.
+	 * 
+	 * @param n
+	 *            The Number to be appended to the given Appendable
+	 * @param out
+	 *            The Appendable to which the given Number will be appended
+	 * @throws IOException
+	 *             if the given Appendable throws an IOException
+	 */
+	static void appendNumber(Number n, Appendable out) throws IOException
+	{
+		if (out instanceof StringBuilder)
+		{
+			StringBuilder sb = (StringBuilder) out;
+			if (n instanceof Integer)
+			{
+				sb.append(n.intValue());
+				return;
+			}
+			if (n instanceof Double)
+			{
+				sb.append(n.doubleValue());
+				return;
+			}
+		}
+		out.append(n.toString());
+	}
+
 	/**
 	 * The Class that this FormatManager can convert or unconvert.
 	 */
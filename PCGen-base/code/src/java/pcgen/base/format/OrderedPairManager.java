@@ -17,10 +17,13 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
+
 import pcgen.base.math.OrderedPair;
 import pcgen.base.util.BasicIndirect;
 import pcgen.base.util.FormatManager;
 import pcgen.base.util.Indirect;
+import pcgen.base.util.IndirectCache;
 
 /**
  * A OrderedPairManager is a FormatManager that provides services for
@@ -29,6 +32,33 @@ import pcgen.base.util.Indirect;
 public class OrderedPairManager implements FormatManager<OrderedPair>
 {
 
+	/**
+	 * The IndirectCache used to intern the Indirect objects produced by this
+	 * OrderedPairManager, or null if Indirect objects are not interned.
+	 */
+	private final IndirectCache indirectCache;
+
+	/**
+	 * Constructs a new OrderedPairManager that does not intern Indirect objects.
+	 */
+	public OrderedPairManager()
+	{
+		this(null);
+	}
+
+	/**
+	 * Constructs a new OrderedPairManager that interns the Indirect objects it produces in
+	 * the given IndirectCache.
+	 * 
+	 * @param indirectCache
+	 *            The IndirectCache used to intern the Indirect objects produced by
+	 *            this OrderedPairManager (may be null to indicate no interning)
+	 */
+	public OrderedPairManager(IndirectCache indirectCache)
+	{
+		this.indirectCache = indirectCache;
+	}
+
 	/**
 	 * Converts the given String to an object of the type processed by this
 	 * FormatManager.
@@ -46,7 +76,17 @@ public class OrderedPairManager implements FormatManager<OrderedPair>
 	@Override
 	public Indirect<OrderedPair> convertIndirect(String s)
 	{
-		return new BasicIndirect<>(this, convert(s));
+		return toIndirect(convert(s));
+	}
+
+	/**
+	 * Returns an Indirect containing the given OrderedPair, interned in the IndirectCache
+	 * of this OrderedPairManager if one is present.
+	 */
+	private Indirect<OrderedPair> toIndirect(OrderedPair value)
+	{
+		return (indirectCache == null) ? new BasicIndirect<>(this, value)
+			: indirectCache.intern(this, value);
 	}
 
 	/**
@@ -59,6 +99,18 @@ public class OrderedPairManager implements FormatManager<OrderedPair>
 		return op.getPreciseX() + "," + op.getPreciseY();
 	}
 
+	/**
+	 * Appends the "unconverted" form of the object to the given Appendable, without
+	 * building an intermediate String when the Appendable is a StringBuilder.
+	 */
+	@Override
+	public void unconvertTo(OrderedPair op, Appendable out) throws IOException
+	{
+		NumberManager.appendNumber(op.getPreciseX(), out);
+		out.append(',');
+		NumberManager.appendNumber(op.getPreciseY(), out);
+	}
+
 	/**
 	 * The Class that this FormatManager can convert or unconvert.
 	 */
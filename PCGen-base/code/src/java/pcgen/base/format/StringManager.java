@@ -17,6 +17,7 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
 import java.util.Comparator;
 import java.util.Objects;
 
@@ -24,6 +25,7 @@ import pcgen.base.util.BasicIndirect;
 import pcgen.base.util.ComparableManager;
 import pcgen.base.util.FormatManager;
 import pcgen.base.util.Indirect;
+import pcgen.base.util.IndirectCache;
 
 /**
  * A StringManager is a FormatManager for dealing with String objects.
@@ -31,6 +33,33 @@ import pcgen.base.util.Indirect;
 public class StringManager implements FormatManager<String>, ComparableManager<String>
 {
 
+	/**
+	 * The IndirectCache used to intern the Indirect objects produced by this
+	 * StringManager, or null if Indirect objects are not interned.
+	 */
+	private final IndirectCache indirectCache;
+
+	/**
+	 * Constructs a new StringManager that does not intern Indirect objects.
+	 */
+	public StringManager()
+	{
+		this(null);
+	}
+
+	/**
+	 * Constructs a new StringManager that interns the Indirect objects it produces in
+	 * the given IndirectCache.
+	 * 
+	 * @param indirectCache
+	 *            The IndirectCache used to intern the Indirect objects produced by
+	 *            this StringManager (may be null to indicate no interning)
+	 */
+	public StringManager(IndirectCache indirectCache)
+	{
+		this.indirectCache = indirectCache;
+	}
+
 	/**
 	 * Converts the given String to an object of the type processed by this
 	 * FormatManager.
@@ -41,6 +70,15 @@ public class StringManager implements FormatManager<String>, ComparableManager<S
 		return Objects.requireNonNull(s);
 	}
 
+	/**
+	 * Appends the given String to the given Appendable.
+	 */
+	@Override
+	public void unconvertTo(String s, Appendable out) throws IOException
+	{
+		out.append(Objects.requireNonNull(s));
+	}
+
 	/**
 	 * Converts the given String to an Indirect containing an object of the type
 	 * processed by this FormatManager.
@@ -48,7 +86,17 @@ public class StringManager implements FormatManager<String>, ComparableManager<S
 	@Override
 	public Indirect<String> convertIndirect(String s)
 	{
-		return new BasicIndirect<>(this, Objects.requireNonNull(s));
+		return toIndirect(Objects.requireNonNull(s));
+	}
+
+	/**
+	 * Returns an Indirect containing the given String, interned in the IndirectCache
+	 * of this StringManager if one is present.
+	 */
+	private Indirect<String> toIndirect(String value)
+	{
+		return (indirectCache == null) ? new BasicIndirect<>(this, value)
+			: indirectCache.intern(this, value);
 	}
 
 	/**
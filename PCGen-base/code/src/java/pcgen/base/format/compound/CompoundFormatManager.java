@@ -15,9 +15,15 @@
  */
 package pcgen.base.format.compound;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import pcgen.base.format.DispatchingFormatManager;
@@ -61,6 +67,19 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 	 */
 	private final char separator;
 
+	/**
+	 * Indicates whether this CompoundFormatManager is immutable (meaning secondary
+	 * definitions cannot be added).
+	 */
+	private final boolean immutable;
+
+	/**
+	 * The CompiledDefinitions for the current secondary definitions of this
+	 * CompoundFormatManager. This is built lazily and discarded whenever a secondary
+	 * definition is added.
+	 */
+	private volatile CompiledDefinitions compiled;
+
 	/**
 	 * Constructs a new CompoundFormatManager with the given FormatManager and separator.
 	 * 
@@ -77,6 +96,36 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 	{
 		formatManager = Objects.requireNonNull(fmtManager);
 		this.separator = separator;
+		immutable = false;
+	}
+
+	/**
+	 * Constructs a new, immutable CompoundFormatManager with the given FormatManager,
+	 * separator and secondary definitions. Since the CompoundFormatManager is immutable,
+	 * it can be safely shared, and any attempt to add a secondary definition will fail.
+	 * 
+	 * @param fmtManager
+	 *            The FormatManager used to handle the primary value of Compound objects
+	 *            managed by this CompoundFormatManager
+	 * @param separator
+	 *            The separator character used to separate the primary object from the
+	 *            secondary values and the secondary values from each other, in the String
+	 *            representation of Compound objects managed by this
+	 *            CompoundFormatManager.
+	 * @param definitions
+	 *            The secondary definitions defining the legal secondary values on the
+	 *            Compound objects managed by this CompoundFormatManager
+	 */
+	public CompoundFormatManager(FormatManager<T> fmtManager, char separator,
+		Collection<SecondaryDefinition> definitions)
+	{
+		formatManager = Objects.requireNonNull(fmtManager);
+		this.separator = separator;
+		for (SecondaryDefinition definition : definitions)
+		{
+			secondaryDefs.put(definition.getName(), Objects.requireNonNull(definition));
+		}
+		immutable = true;
 	}
 
 	/**
@@ -91,12 +140,13 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 	 *            The name of the secondary value to be added
 	 * @param required
 	 *            Indicates whether the secondary value is required
+	 * @throws UnsupportedOperationException
+	 *             if this CompoundFormatManager is immutable
 	 */
 	public void addSecondary(FormatManager<?> subManager, String varName,
 		boolean required)
 	{
-		secondaryDefs.put(varName,
-			new SecondaryDefinition(subManager, varName, required));
+		addSecondary(new SecondaryDefinition(subManager, varName, required));
 	}
 
 	/**
@@ -106,30 +156,93 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 	 * 
 	 * @param definition
 	 *            The secondary definition to be added to this CompoundFormatManager
+	 * @throws UnsupportedOperationException
+	 *             if this CompoundFormatManager is immutable
 	 */
 	public void addSecondary(SecondaryDefinition definition)
 	{
+		if (immutable)
+		{
+			throw new UnsupportedOperationException(
+				"Cannot add a secondary definition to an immutable "
+					+ "CompoundFormatManager");
+		}
 		secondaryDefs.put(definition.getName(), definition);
+		compiled = null;
 	}
 
 	@Override
 	public Compound convert(String inputStr)
+	{
+		return convertDirect(inputStr, getCompiled());
+	}
+
+	/**
+	 * Converts each of the given Strings into a Compound, placing them into the given
+	 * array. The secondary definitions are compiled once for the entire batch.
+	 */
+	@Override
+	public void convertInto(String[] inputStr, Compound[] output)
+	{
+		CompiledDefinitions definitions = getCompiled();
+		for (int i = 0; i < inputStr.length; i++)
+		{
+			output[i] = convertDirect(inputStr[i], definitions);
+		}
+	}
+
+	private Compound convertDirect(String inputStr, CompiledDefinitions definitions)
 	{
 		String[] parts = splitCompound(inputStr);
 		DirectCompound c = new DirectCompound(parts[0], this);
-		compileSecondaryItems(parts).forEach(c::addSecondary);
+		definitions.compileSecondaryItems(parts).forEach(c::addSecondary);
 		return c;
 	}
 
 	@Override
 	public Indirect<Compound> convertIndirect(String inputStr)
+	{
+		return convertIndirect(inputStr, getCompiled());
+	}
+
+	/**
+	 * Converts each of the given Strings into an Indirect Compound, placing them into the
+	 * given array. The secondary definitions are compiled once for the entire batch.
+	 */
+	@Override
+	public void convertIndirectInto(String[] inputStr, Indirect<Compound>[] output)
+	{
+		CompiledDefinitions definitions = getCompiled();
+		for (int i = 0; i < inputStr.length; i++)
+		{
+			output[i] = convertIndirect(inputStr[i], definitions);
+		}
+	}
+
+	private Indirect<Compound> convertIndirect(String inputStr,
+		CompiledDefinitions definitions)
 	{
 		String[] parts = splitCompound(inputStr);
 		IndirectCompound c = new IndirectCompound(parts[0], this);
-		compileSecondaryItems(parts).forEach(c::addSecondary);
+		definitions.compileSecondaryItems(parts).forEach(c::addSecondary);
 		return c;
 	}
 
+	/**
+	 * Returns the CompiledDefinitions for the current secondary definitions of this
+	 * CompoundFormatManager.
+	 */
+	private CompiledDefinitions getCompiled()
+	{
+		CompiledDefinitions current = compiled;
+		if (current == null)
+		{
+			current = new CompiledDefinitions(secondaryDefs.values());
+			compiled = current;
+		}
+		return current;
+	}
+
 	private String[] splitCompound(String inputStr)
 	{
 		if ((inputStr == null) || inputStr.isEmpty())
@@ -145,45 +258,46 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 		return StringUtil.split(inputStr, separator);
 	}
 
-	private List<NamedIndirect<?>> compileSecondaryItems(String[] parts)
+	@Override
+	public String unconvert(Compound c)
 	{
-		List<SecondaryDefinition> found = new ArrayList<>();
-		List<NamedIndirect<?>> assocs = new ArrayList<>();
-		for (int i = 1; i < parts.length; i++)
+		if (!c.isCompatible(this))
 		{
-			Tuple<SecondaryDefinition, NamedIndirect<?>> valueOf =
-					CompoundFormatManager.getSecondary(secondaryDefs::get, parts[i]);
-			found.add(valueOf.getFirst());
-			assocs.add(valueOf.getSecond());
+			throw new IllegalArgumentException(
+				"Attempt to unconvert an incompatible Compound");
 		}
-		for (SecondaryDefinition cc : secondaryDefs.values())
+		StringBuilder sb = new StringBuilder();
+		sb.append(c.getPrimaryUnconverted());
+		for (String name : c.getSecondaryNames())
 		{
-			if (cc.isRequired() && !found.contains(cc))
-			{
-				throw new IllegalArgumentException(
-					"Unable to construct Compound because " + cc.getName()
-						+ " is a required secondary value, but was not provided");
-			}
+			sb.append('|');
+			sb.append(c.getSecondary(name).toString());
 		}
-		return assocs;
+		return sb.toString();
 	}
 
+	/**
+	 * Appends the unconverted form of the given Compound to the given Appendable. The
+	 * secondary values are appended directly, without building an intermediate String
+	 * for each secondary value.
+	 */
 	@Override
-	public String unconvert(Compound c)
+	public void unconvertTo(Compound c, Appendable out) throws IOException
 	{
 		if (!c.isCompatible(this))
 		{
 			throw new IllegalArgumentException(
 				"Attempt to unconvert an incompatible Compound");
 		}
-		StringBuilder sb = new StringBuilder();
-		sb.append(c.getPrimaryUnconverted());
+		out.append(c.getPrimaryUnconverted());
 		for (String name : c.getSecondaryNames())
 		{
-			sb.append('|');
-			sb.append(c.getSecondary(name).toString());
+			NamedIndirect<?> secondary = c.getSecondary(name);
+			out.append('|');
+			out.append(secondary.getName());
+			out.append('=');
+			out.append(secondary.getUnconverted());
 		}
-		return sb.toString();
 	}
 
 	@Override
@@ -202,6 +316,76 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 		return new Tuple<>(c.getPrimaryUnconverted(), separator + secondaryFormats);
 	}
 
+	@Override
+	public void unconvertPrimaryTo(Compound c, Appendable out) throws IOException
+	{
+		if (!c.isCompatible(this))
+		{
+			throw new IllegalArgumentException(
+				"Attempt to unconvert an incompatible Compound");
+		}
+		out.append(c.getPrimaryUnconverted());
+	}
+
+	@Override
+	public void unconvertTrailingTo(Compound c, Appendable out) throws IOException
+	{
+		if (!c.isCompatible(this))
+		{
+			throw new IllegalArgumentException(
+				"Attempt to unconvert an incompatible Compound");
+		}
+		out.append(separator);
+		boolean needsSeparator = false;
+		for (String name : c.getSecondaryNames())
+		{
+			if (needsSeparator)
+			{
+				out.append(separator);
+			}
+			needsSeparator = true;
+			NamedIndirect<?> secondary = c.getSecondary(name);
+			out.append(secondary.getName());
+			out.append('=');
+			out.append(secondary.getUnconverted());
+		}
+	}
+
+	/**
+	 * Returns true if the given Compound objects have the same secondary values, by
+	 * comparing the secondary values directly rather than building the trailing
+	 * Strings.
+	 */
+	@Override
+	public boolean hasSameTrailing(Compound first, Compound second)
+	{
+		if (!first.isCompatible(this) || !second.isCompatible(this))
+		{
+			throw new IllegalArgumentException(
+				"Attempt to compare an incompatible Compound");
+		}
+		Collection<String> firstNames = first.getSecondaryNames();
+		Collection<String> secondNames = second.getSecondaryNames();
+		if (firstNames.size() != secondNames.size())
+		{
+			return false;
+		}
+		Iterator<String> secondIterator = secondNames.iterator();
+		for (String name : firstNames)
+		{
+			NamedIndirect<?> firstSecondary = first.getSecondary(name);
+			NamedIndirect<?> secondSecondary = second.getSecondary(secondIterator.next());
+			if ((firstSecondary != secondSecondary)
+				&& (!firstSecondary.getName().equals(secondSecondary.getName())
+					|| !firstSecondary.getUnconverted()
+						.equals(secondSecondary.getUnconverted())))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public Class<Compound> getManagedClass()
 	{
@@ -259,38 +443,138 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 		Function<FormatManager<Compound>, Converter<OUT>> myProcessor, String inputStr)
 	{
 		String[] parts = splitCompound(inputStr);
-		List<NamedIndirect<?>> assocs = compileSecondaryItems(parts);
-		FormatManager<Compound> fm = new PreparedCompoundManager(assocs);
+		FormatManager<Compound> fm =
+				getCompiled().getPrepared(getSecondarySignature(inputStr), parts);
 		return myProcessor.apply(fm).convert(parts[0]);
 	}
 
 	/**
-	 * Returns a Tuple of the SecondaryDefinition and the NamedIndirect based on the
-	 * provided Function and String.
+	 * Returns the portion of the given (valid) instructions that defines the secondary
+	 * values, or an empty String if the instructions do not define secondary values.
+	 */
+	private String getSecondarySignature(String inputStr)
+	{
+		int sepLoc = inputStr.indexOf(separator);
+		return (sepLoc == -1) ? "" : inputStr.substring(sepLoc + 1);
+	}
+
+	/**
+	 * CompiledDefinitions is a compiled form of the secondary definitions of a
+	 * CompoundFormatManager. Each SecondaryDefinition is assigned an ordinal, so that the
+	 * presence of required secondary values can be validated with a bit mask, and the
+	 * PreparedCompoundManager for each distinct set of secondary values (the signature)
+	 * is cached.
 	 * 
-	 * @param lookupDef
-	 *            The Function used to look up the SecondaryDefinition based on its name
-	 * @param instructions
-	 *            The String representation of the NamedIndirect (which has the
-	 *            SecondaryDefinition name embedded within it)
-	 * @return A Tuple of the SecondaryDefinition and the NamedIndirect based on the
-	 *         provided Function and String
+	 * A CompiledDefinitions is immutable other than the cache of PreparedCompoundManager
+	 * objects, which is thread-safe.
 	 */
-	private static Tuple<SecondaryDefinition, NamedIndirect<?>> getSecondary(
-		Function<String, SecondaryDefinition> lookupDef, String instructions)
+	private final class CompiledDefinitions
 	{
-		int equalLoc = instructions.indexOf('=');
-		String secondaryName = instructions.substring(0, equalLoc);
-		SecondaryDefinition definition = lookupDef.apply(secondaryName);
-		if (definition == null)
-		{
-			throw new IllegalArgumentException("Unable to construct Compound because "
-				+ secondaryName + " is not a recognized secondary value name");
-		}
-		String assocInstructions = instructions.substring(equalLoc + 1);
-		NamedIndirect<?> assoc = new NamedIndirect<>(secondaryName,
-			definition.getFormatManager(), assocInstructions);
-		return new Tuple<>(definition, assoc);
+		/**
+		 * The maximum number of PreparedCompoundManager objects cached, to avoid
+		 * unbounded growth when secondary values rarely repeat.
+		 */
+		private static final int MAX_PREPARED = 1024;
+
+		/**
+		 * The SecondaryDefinition objects, indexed by ordinal.
+		 */
+		private final SecondaryDefinition[] definitions;
+
+		/**
+		 * The ordinal of each SecondaryDefinition, indexed by name.
+		 */
+		private final CaseInsensitiveMap<Integer> ordinals = new CaseInsensitiveMap<>();
+
+		/**
+		 * The ordinals of the required SecondaryDefinition objects.
+		 */
+		private final BitSet requiredMask = new BitSet();
+
+		/**
+		 * The PreparedCompoundManager objects already built, indexed by signature.
+		 */
+		private final Map<String, PreparedCompoundManager> prepared =
+				new ConcurrentHashMap<>();
+
+		private CompiledDefinitions(Collection<SecondaryDefinition> defs)
+		{
+			definitions = defs.toArray(new SecondaryDefinition[0]);
+			for (int i = 0; i < definitions.length; i++)
+			{
+				ordinals.put(definitions[i].getName(), i);
+				if (definitions[i].isRequired())
+				{
+					requiredMask.set(i);
+				}
+			}
+		}
+
+		/**
+		 * Returns the PreparedCompoundManager for the given signature, building it from
+		 * the given parts if it has not been built.
+		 */
+		private PreparedCompoundManager getPrepared(String signature, String[] parts)
+		{
+			PreparedCompoundManager fm = prepared.get(signature);
+			if (fm == null)
+			{
+				fm = new PreparedCompoundManager(signature, compileSecondaryItems(parts));
+				if (prepared.size() < MAX_PREPARED)
+				{
+					PreparedCompoundManager existing =
+							prepared.putIfAbsent(signature, fm);
+					if (existing != null)
+					{
+						fm = existing;
+					}
+				}
+			}
+			return fm;
+		}
+
+		/**
+		 * Builds the NamedIndirect objects for the secondary values in the given parts
+		 * (all parts other than the first), ensuring that all required secondary values
+		 * are present.
+		 */
+		private List<NamedIndirect<?>> compileSecondaryItems(String[] parts)
+		{
+			BitSet found = new BitSet(definitions.length);
+			List<NamedIndirect<?>> assocs = new ArrayList<>(parts.length - 1);
+			for (int i = 1; i < parts.length; i++)
+			{
+				String instructions = parts[i];
+				int equalLoc = instructions.indexOf('=');
+				if (equalLoc == -1)
+				{
+					throw new IllegalArgumentException("Unable to construct Compound "
+						+ "because secondary value must be NAME=VALUE, found: "
+						+ instructions);
+				}
+				String secondaryName = instructions.substring(0, equalLoc);
+				Integer ordinal = ordinals.get(secondaryName);
+				if (ordinal == null)
+				{
+					throw new IllegalArgumentException(
+						"Unable to construct Compound because " + secondaryName
+							+ " is not a recognized secondary value name");
+				}
+				found.set(ordinal);
+				assocs.add(new NamedIndirect<>(secondaryName,
+					definitions[ordinal].getFormatManager(),
+					instructions.substring(equalLoc + 1)));
+			}
+			BitSet missing = (BitSet) requiredMask.clone();
+			missing.andNot(found);
+			if (!missing.isEmpty())
+			{
+				throw new IllegalArgumentException("Unable to construct Compound because "
+					+ definitions[missing.nextSetBit(0)].getName()
+					+ " is a required secondary value, but was not provided");
+			}
+			return assocs;
+		}
 	}
 
 	/**
@@ -303,13 +587,19 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 	 * the secondary values). If this is moved to a separate non-embedded class, then
 	 * there is a risk that the items passed to the constructor of this class could not be
 	 * valid.
+	 * 
+	 * Two PreparedCompoundManager objects are equal if they share the same parent
+	 * CompoundFormatManager and were prepared from the same secondary instructions (the
+	 * signature), since they will then apply equivalent secondary values.
 	 */
 	private final class PreparedCompoundManager implements FormatManager<Compound>
 	{
+		private final String signature;
 		private final List<NamedIndirect<?>> assocs;
 
-		private PreparedCompoundManager(List<NamedIndirect<?>> assocs)
+		private PreparedCompoundManager(String signature, List<NamedIndirect<?>> assocs)
 		{
+			this.signature = Objects.requireNonNull(signature);
 			this.assocs = Objects.requireNonNull(assocs);
 		}
 
@@ -375,7 +665,7 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 		@Override
 		public int hashCode()
 		{
-			return 31 * getOuterType().hashCode() + assocs.hashCode();
+			return 31 * getOuterType().hashCode() + signature.hashCode();
 		}
 
 		@Override
@@ -386,7 +676,7 @@ public class CompoundFormatManager<T> implements DispatchingFormatManager<Compou
 				CompoundFormatManager<?>.PreparedCompoundManager other =
 						(CompoundFormatManager<?>.PreparedCompoundManager) obj;
 				return (getOuterType().equals(other.getOuterType()))
-					&& assocs.equals(other.assocs);
+					&& signature.equals(other.signature);
 			}
 			return false;
 		}
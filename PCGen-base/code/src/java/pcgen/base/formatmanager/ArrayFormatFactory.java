@@ -21,11 +21,16 @@ import java.util.Objects;
 import java.util.regex.Pattern;
 
 import pcgen.base.format.ArrayFormatManager;
+import pcgen.base.format.BooleanArrayFormatManager;
+import pcgen.base.format.BooleanManager;
+import pcgen.base.format.NumberArrayFormatManager;
+import pcgen.base.format.NumberManager;
 import pcgen.base.util.FormatManager;
 
 /**
  * An ArrayFormatFactory builds a FormatManager supporting Arrays from the name
- * of the format of the component of the Array
+ * of the format of the component of the Array. Arrays of NUMBER and BOOLEAN use
+ * the specialized NumberArrayFormatManager and BooleanArrayFormatManager.
  */
 public class ArrayFormatFactory implements FormatManagerFactory
 {
@@ -83,8 +88,22 @@ public class ArrayFormatFactory implements FormatManagerFactory
 				"Multidimensional Array format not supported: " + subFormatName
 					+ " may not contain brackets");
 		}
-		return new ArrayFormatManager<>(
-			library.getFormatManager(subFormatName), groupSep, listSep);
+		FormatManager<?> componentManager = library.getFormatManager(subFormatName);
+		/*
+		 * NUMBER and BOOLEAN arrays are common in large tables, so they have
+		 * specialized managers that store values as primitives
+		 */
+		if (componentManager instanceof NumberManager)
+		{
+			return new NumberArrayFormatManager((NumberManager) componentManager,
+				groupSep, listSep);
+		}
+		if (componentManager instanceof BooleanManager)
+		{
+			return new BooleanArrayFormatManager((BooleanManager) componentManager,
+				groupSep, listSep);
+		}
+		return new ArrayFormatManager<>(componentManager, groupSep, listSep);
 	}
 
 	@Override
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formatmanager;
+
+import java.lang.reflect.Array;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import pcgen.base.util.Indirect;
+
+/**
+ * A CachingObjectDatabase is a decorator for an ObjectDatabase that remembers the results
+ * of get (name to object) and getName (object to name), so that repeated requests do
+ * not reach the underlying ObjectDatabase. This is intended for use when the underlying
+ * ObjectDatabase is backed by a slow store. Since a CachingObjectDatabase is an
+ * ObjectDatabase, it can be provided to a GenericFormatFactory (or GenericFormatManager)
+ * in place of the underlying ObjectDatabase.
+ * 
+ * The caches are held separately for each Class, and each cache holds at most the
+ * maximum size provided at construction, evicting the least recently used entry when
+ * full. Results of null (an object not present in the underlying ObjectDatabase) are not
+ * cached. getIndirect is not cached, as the underlying ObjectDatabase may require setup
+ * before an Indirect can be dereferenced.
+ * 
+ * If the contents of the underlying ObjectDatabase change, the invalidate methods must be
+ * called so the CachingObjectDatabase does not return stale results.
+ * 
+ * CachingObjectDatabase is thread-safe if the underlying ObjectDatabase is thread-safe.
+ */
+public class CachingObjectDatabase implements ObjectDatabase
+{
+
+	/**
+	 * The underlying ObjectDatabase.
+	 */
+	private final ObjectDatabase database;
+
+	/**
+	 * The maximum number of entries in each cache.
+	 */
+	private final int maxSize;
+
+	/**
+	 * The caches of objects by name, for each Class.
+	 */
+	private final Map<Class<?>, Map<String, Object>> objectCache = new HashMap<>();
+
+	/**
+	 * The caches of names by object, for each Class of object.
+	 */
+	private final Map<Class<?>, Map<Object, String>> nameCache = new HashMap<>();
+
+	/**
+	 * The number of requests served from a cache.
+	 */
+	private long hitCount;
+
+	/**
+	 * The number of requests (or items in a bulk request) that were passed to the
+	 * underlying ObjectDatabase.
+	 */
+	private long missCount;
+
+	/**
+	 * The number of entries evicted from the caches.
+	 */
+	private long evictionCount;
+
+	/**
+	 * Constructs a new CachingObjectDatabase for the given underlying ObjectDatabase,
+	 * which will hold at most the given number of entries in each cache.
+	 * 
+	 * @param objDatabase
+	 *            The underlying ObjectDatabase
+	 * @param maxSize
+	 *            The maximum number of entries in each cache (each Class has separate
+	 *            caches for name to object and object to name)
+	 * @throws IllegalArgumentException
+	 *             if the given maximum size is less than one
+	 */
+	public CachingObjectDatabase(ObjectDatabase objDatabase, int maxSize)
+	{
+		database = Objects.requireNonNull(objDatabase);
+		if (maxSize < 1)
+		{
+			throw new IllegalArgumentException(
+				"CachingObjectDatabase maximum size must be positive, was: " + maxSize);
+		}
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public <T> T get(Class<T> cl, String name)
+	{
+		synchronized (this)
+		{
+			Object cached = getObjectCache(cl).get(name);
+			if (cached != null)
+			{
+				hitCount++;
+				return cl.cast(cached);
+			}
+			missCount++;
+		}
+		T result = database.get(cl, name);
+		if (result != null)
+		{
+			store(cl, name, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves the objects of the given names of the given class. Names present in the
+	 * cache are served from the cache, and the remaining names are retrieved with a
+	 * single bulk request to the underlying ObjectDatabase.
+	 */
+	@Override
+	public <T> void getAll(Class<T> cl, String[] names, T[] output)
+	{
+		int[] missing = new int[names.length];
+		int missingCount = 0;
+		synchronized (this)
+		{
+			Map<String, Object> cache = getObjectCache(cl);
+			for (int i = 0; i < names.length; i++)
+			{
+				Object cached = cache.get(names[i]);
+				if (cached == null)
+				{
+					missing[missingCount++] = i;
+				}
+				else
+				{
+					output[i] = cl.cast(cached);
+				}
+			}
+			hitCount += names.length - missingCount;
+			missCount += missingCount;
+		}
+		if (missingCount == 0)
+		{
+			return;
+		}
+		String[] missingNames = new String[missingCount];
+		for (int i = 0; i < missingCount; i++)
+		{
+			missingNames[i] = names[missing[i]];
+		}
+		//Must start empty, since the underlying ObjectDatabase may not write every slot
+		@SuppressWarnings("unchecked")
+		T[] results = (T[]) Array.newInstance(output.getClass().getComponentType(),
+			missingCount);
+		database.getAll(cl, missingNames, results);
+		for (int i = 0; i < missingCount; i++)
+		{
+			output[missing[i]] = results[i];
+			if (results[i] != null)
+			{
+				store(cl, missingNames[i], results[i]);
+			}
+		}
+	}
+
+	@Override
+	public <T> Indirect<T> getIndirect(Class<T> cl, String name)
+	{
+		return database.getIndirect(cl, name);
+	}
+
+	@Override
+	public <T> void getIndirectAll(Class<T> cl, String[] names, Indirect<T>[] output)
+	{
+		database.getIndirectAll(cl, names, output);
+	}
+
+	@Override
+	public String getName(Object o)
+	{
+		synchronized (this)
+		{
+			String cached = getNameCache(o.getClass()).get(o);
+			if (cached != null)
+			{
+				hitCount++;
+				return cached;
+			}
+			missCount++;
+		}
+		String name = database.getName(o);
+		if (name != null)
+		{
+			synchronized (this)
+			{
+				getNameCache(o.getClass()).put(o, name);
+			}
+		}
+		return name;
+	}
+
+	@Override
+	public boolean isDirect()
+	{
+		return database.isDirect();
+	}
+
+	private synchronized void store(Class<?> cl, String name, Object result)
+	{
+		getObjectCache(cl).put(name, result);
+		getNameCache(result.getClass()).put(result, name);
+	}
+
+	private Map<String, Object> getObjectCache(Class<?> cl)
+	{
+		return objectCache.computeIfAbsent(cl, c -> new LruMap<>());
+	}
+
+	private Map<Object, String> getNameCache(Class<?> cl)
+	{
+		return nameCache.computeIfAbsent(cl, c -> new LruMap<>());
+	}
+
+	/**
+	 * Removes the object of the given name of the given Class from the caches of this
+	 * CachingObjectDatabase.
+	 * 
+	 * @param cl
+	 *            The Class of the object to be removed from the caches
+	 * @param name
+	 *            The name of the object to be removed from the caches
+	 */
+	public synchronized void invalidate(Class<?> cl, String name)
+	{
+		Map<String, Object> cache = objectCache.get(cl);
+		if (cache != null)
+		{
+			cache.remove(name);
+		}
+		//Names may also have been cached by getName, without an entry in objectCache
+		for (Map.Entry<Class<?>, Map<Object, String>> entry : nameCache.entrySet())
+		{
+			if (cl.isAssignableFrom(entry.getKey()))
+			{
+				entry.getValue().values().removeIf(name::equals);
+			}
+		}
+	}
+
+	/**
+	 * Removes all objects of the given Class from the caches of this
+	 * CachingObjectDatabase.
+	 * 
+	 * @param cl
+	 *            The Class of the objects to be removed from the caches
+	 */
+	public synchronized void invalidateAll(Class<?> cl)
+	{
+		objectCache.remove(cl);
+		//Objects of the given Class may be instances of a subclass
+		nameCache.keySet().removeIf(cl::isAssignableFrom);
+	}
+
+	/**
+	 * Removes all objects from the caches of this CachingObjectDatabase.
+	 */
+	public synchronized void invalidateAll()
+	{
+		objectCache.clear();
+		nameCache.clear();
+	}
+
+	/**
+	 * Returns the number of requests served from the caches of this
+	 * CachingObjectDatabase. Each name in a bulk request is counted separately.
+	 * 
+	 * @return The number of requests served from the caches of this
+	 *         CachingObjectDatabase
+	 */
+	public synchronized long getHitCount()
+	{
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of requests passed to the underlying ObjectDatabase. Each name
+	 * in a bulk request is counted separately.
+	 * 
+	 * @return The number of requests passed to the underlying ObjectDatabase
+	 */
+	public synchronized long getMissCount()
+	{
+		return missCount;
+	}
+
+	/**
+	 * Returns the number of entries evicted from the caches of this CachingObjectDatabase
+	 * because a cache reached the maximum size.
+	 * 
+	 * @return The number of entries evicted from the caches of this
+	 *         CachingObjectDatabase
+	 */
+	public synchronized long getEvictionCount()
+	{
+		return evictionCount;
+	}
+
+	/**
+	 * An access-ordered LinkedHashMap that evicts the least recently used entry when it
+	 * exceeds the maximum size of the CachingObjectDatabase.
+	 */
+	private final class LruMap<K, V> extends LinkedHashMap<K, V>
+	{
+		private LruMap()
+		{
+			super(16, 0.75f, true);
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<K, V> eldest)
+		{
+			if (size() > maxSize)
+			{
+				evictionCount++;
+				return true;
+			}
+			return false;
+		}
+	}
+}
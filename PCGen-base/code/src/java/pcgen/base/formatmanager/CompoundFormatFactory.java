@@ -15,14 +15,27 @@
  */
 package pcgen.base.formatmanager;
 
-import pcgen.base.format.compound.SecondaryDefinition;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
 import pcgen.base.format.compound.CompoundFormatManager;
+import pcgen.base.format.compound.SecondaryDefinition;
 import pcgen.base.lang.StringUtil;
 import pcgen.base.util.FormatManager;
 
 /**
- * An ArrayFormatFactory builds a FormatManager supporting Arrays from the name of the
- * format of the component of the Array
+ * A CompoundFormatFactory builds a FormatManager supporting Compound objects from the
+ * name of the format of the primary value and the definitions of the secondary values.
+ * 
+ * The CompoundFormatManager built for a given format name and FormatManagerLibrary is
+ * cached, so repeated requests for the same format share a single, immutable
+ * CompoundFormatManager rather than re-parsing the definitions and resolving each
+ * secondary format again.
  */
 public class CompoundFormatFactory implements FormatManagerFactory
 {
@@ -41,6 +54,29 @@ public class CompoundFormatFactory implements FormatManagerFactory
 	 */
 	private final char applicationSeparator;
 
+	/**
+	 * The CompoundFormatManager objects already built by this CompoundFormatFactory,
+	 * indexed by the FormatManagerLibrary used to build them and then by the raw format
+	 * name.
+	 */
+	private final Map<FormatManagerLibrary, Map<String, CompoundFormatManager<?>>> cache =
+			Collections.synchronizedMap(new WeakHashMap<>());
+
+	/**
+	 * The number of requests served from the cache.
+	 */
+	private final AtomicLong cacheHits = new AtomicLong();
+
+	/**
+	 * The number of requests that required a CompoundFormatManager to be compiled.
+	 */
+	private final AtomicLong cacheMisses = new AtomicLong();
+
+	/**
+	 * The total time (in nanoseconds) spent compiling CompoundFormatManager objects.
+	 */
+	private final AtomicLong compileNanos = new AtomicLong();
+
 	/**
 	 * Constructs a new CompoundFormatFactory using the given separator characters.
 	 * 
@@ -61,6 +97,26 @@ public class CompoundFormatFactory implements FormatManagerFactory
 
 	@Override
 	public FormatManager<?> build(String subFormatName, FormatManagerLibrary library)
+	{
+		Map<String, CompoundFormatManager<?>> libraryCache =
+				cache.computeIfAbsent(library, l -> new ConcurrentHashMap<>());
+		CompoundFormatManager<?> manager = libraryCache.get(subFormatName);
+		if (manager != null)
+		{
+			cacheHits.incrementAndGet();
+			return manager;
+		}
+		long start = System.nanoTime();
+		manager = compile(subFormatName, library);
+		compileNanos.addAndGet(System.nanoTime() - start);
+		cacheMisses.incrementAndGet();
+		CompoundFormatManager<?> existing =
+				libraryCache.putIfAbsent(subFormatName, manager);
+		return (existing == null) ? manager : existing;
+	}
+
+	private CompoundFormatManager<?> compile(String subFormatName,
+		FormatManagerLibrary library)
 	{
 		if (!StringUtil.hasValidSeparators(subFormatName, definitionSeparator))
 		{
@@ -70,14 +126,60 @@ public class CompoundFormatFactory implements FormatManagerFactory
 		}
 		String[] instructions = StringUtil.split(subFormatName, definitionSeparator);
 		FormatManager<?> primaryFM = library.getFormatManager(instructions[0]);
-		CompoundFormatManager<?> manager =
-				new CompoundFormatManager<>(primaryFM, applicationSeparator);
+		List<SecondaryDefinition> definitions = new ArrayList<>(instructions.length - 1);
 		for (int i = 1; i < instructions.length; i++)
 		{
-			manager
-				.addSecondary(SecondaryDefinition.valueOf(library, instructions[i]));
+			definitions.add(SecondaryDefinition.valueOf(library, instructions[i]));
 		}
-		return manager;
+		return new CompoundFormatManager<>(primaryFM, applicationSeparator,
+			definitions);
+	}
+
+	/**
+	 * Returns the number of requests to build a FormatManager that were served by a
+	 * previously built (cached) CompoundFormatManager.
+	 * 
+	 * @return The number of requests served by a cached CompoundFormatManager
+	 */
+	public long getCacheHits()
+	{
+		return cacheHits.get();
+	}
+
+	/**
+	 * Returns the number of requests to build a FormatManager that required a new
+	 * CompoundFormatManager to be compiled.
+	 * 
+	 * @return The number of requests that required a new CompoundFormatManager to be
+	 *         compiled
+	 */
+	public long getCacheMisses()
+	{
+		return cacheMisses.get();
+	}
+
+	/**
+	 * Returns the total time (in nanoseconds) spent compiling CompoundFormatManager
+	 * objects.
+	 * 
+	 * @return The total time (in nanoseconds) spent compiling CompoundFormatManager
+	 *         objects
+	 */
+	public long getCompileNanos()
+	{
+		return compileNanos.get();
+	}
+
+	/**
+	 * Returns an estimate of the time (in nanoseconds) saved by the cache, based on the
+	 * average compile time multiplied by the number of cache hits.
+	 * 
+	 * @return An estimate of the time (in nanoseconds) saved by the cache
+	 */
+	public long getEstimatedNanosSaved()
+	{
+		long misses = cacheMisses.get();
+		return (misses == 0) ? 0 : (compileNanos.get() / misses) * cacheHits.get();
 	}
 
 	@Override
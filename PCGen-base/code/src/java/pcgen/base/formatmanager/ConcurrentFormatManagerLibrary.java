@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formatmanager;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import pcgen.base.lang.CaseInsensitiveString;
+import pcgen.base.util.FormatManager;
+
+/**
+ * A ConcurrentFormatManagerLibrary is a thread-safe version of
+ * SimpleFormatManagerLibrary. It stores FormatManagers that can be used and can
+ * build compound formats by using FormatManagerFactory objects. Formats are
+ * stored by their (case-insensitive) identifier String (e.g. "STRING" for
+ * StringManager).
+ * 
+ * Lookups do not lock, and may be performed concurrently with registration of
+ * new FormatManager or FormatManagerFactory objects. Registration is atomic: if
+ * two different FormatManagerFactory objects are registered concurrently for
+ * the same identifier, exactly one will succeed and the other will receive an
+ * IllegalArgumentException.
+ */
+public final class ConcurrentFormatManagerLibrary implements FormatManagerLibrary
+{
+
+	/**
+	 * A Map storing the FormatManagerFactory objects by (case-insensitive) name.
+	 */
+	private final Map<CaseInsensitiveString, FormatManagerFactory> builderByIdentifier =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the FormatManager for the given String identifying a format of
+	 * object.
+	 * 
+	 * @param formatName
+	 *            The String identifying the format for which the FormatManager
+	 *            should be returned
+	 * @return The FormatManager for the given String identifying a format of
+	 *         object
+	 * @throws NullPointerException
+	 *             if the given format does not have an associated FormatManager
+	 */
+	@Override
+	public FormatManager<?> getFormatManager(String formatName)
+	{
+		FormatManager<?> fm =
+				FormatUtilities.buildFormatManager(formatName, this, this::getBuilder);
+		return Objects.requireNonNull(fm, "No FormatManager available for " + formatName);
+	}
+
+	private FormatManagerFactory getBuilder(String identifier)
+	{
+		return builderByIdentifier.get(new CaseInsensitiveString(identifier));
+	}
+
+	/**
+	 * Adds a FormatManager to the ConcurrentFormatManagerLibrary.
+	 * 
+	 * @param fmtManager
+	 *            The FormatManager to be added to this
+	 *            ConcurrentFormatManagerLibrary
+	 * @throws IllegalArgumentException
+	 *             if this ConcurrentFormatManagerLibrary already has a different
+	 *             FormatManagerFactory with a matching identifier
+	 */
+	public void addFormatManager(FormatManager<?> fmtManager)
+	{
+		addFormatManagerBuilder(new FormatManagerWrapper(fmtManager));
+	}
+
+	/**
+	 * Adds a FormatManagerFactory to the ConcurrentFormatManagerLibrary.
+	 * 
+	 * Adding a FormatManagerFactory equal to one already present for the same
+	 * identifier has no effect.
+	 * 
+	 * @param builder
+	 *            The FormatManagerFactory to be added to this
+	 *            ConcurrentFormatManagerLibrary
+	 * @throws IllegalArgumentException
+	 *             if this ConcurrentFormatManagerLibrary already has a different
+	 *             FormatManagerFactory with a matching identifier
+	 */
+	public void addFormatManagerBuilder(FormatManagerFactory builder)
+	{
+		String fmIdent = builder.getBuilderBaseFormat();
+		FormatManagerFactory existing = builderByIdentifier
+			.putIfAbsent(new CaseInsensitiveString(fmIdent), builder);
+		if ((existing != null) && !existing.equals(builder))
+		{
+			throw new IllegalArgumentException(
+				"Cannot set another Format Manager Builder for " + fmIdent);
+		}
+	}
+
+	@Override
+	public boolean hasFormatManager(String formatName)
+	{
+		return FormatUtilities.buildFormatManager(formatName, this,
+			this::getBuilder) != null;
+	}
+}
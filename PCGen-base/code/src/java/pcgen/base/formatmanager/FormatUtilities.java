@@ -18,6 +18,8 @@
 package pcgen.base.formatmanager;
 
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 import pcgen.base.format.BooleanManager;
 import pcgen.base.format.NumberManager;
@@ -88,10 +90,28 @@ public final class FormatUtilities
 	 */
 	public static void loadDefaultFormats(SimpleFormatManagerLibrary library)
 	{
-		library.addFormatManager(NUMBER_MANAGER);
-		library.addFormatManager(STRING_MANAGER);
-		library.addFormatManager(BOOLEAN_MANAGER);
-		library.addFormatManager(ORDEREDPAIR_MANAGER);
+		loadFormats(library::addFormatManager);
+	}
+
+	/**
+	 * Initializes the given ConcurrentFormatManagerLibrary with the known FormatManager
+	 * objects in the base library.
+	 * 
+	 * @param library
+	 *            The ConcurrentFormatManagerLibrary to be loaded with the known
+	 *            FormatManager objects
+	 */
+	public static void loadDefaultFormats(ConcurrentFormatManagerLibrary library)
+	{
+		loadFormats(library::addFormatManager);
+	}
+
+	private static void loadFormats(Consumer<FormatManager<?>> addFormatManager)
+	{
+		addFormatManager.accept(NUMBER_MANAGER);
+		addFormatManager.accept(STRING_MANAGER);
+		addFormatManager.accept(BOOLEAN_MANAGER);
+		addFormatManager.accept(ORDEREDPAIR_MANAGER);
 	}
 
 	/**
@@ -104,8 +124,66 @@ public final class FormatUtilities
 	 */
 	public static void loadDefaultFactories(SimpleFormatManagerLibrary library)
 	{
-		library.addFormatManagerBuilder(new CompoundFormatFactory(',', '|'));
-		library.addFormatManagerBuilder(new ArrayFormatFactory('\n', ','));
+		loadFactories(library::addFormatManagerBuilder);
+	}
+
+	/**
+	 * Initializes the given ConcurrentFormatManagerLibrary with default
+	 * FormatManagerFactory objects in the base library.
+	 * 
+	 * @param library
+	 *            The ConcurrentFormatManagerLibrary to be loaded with default
+	 *            FormatManagerFactory objects
+	 */
+	public static void loadDefaultFactories(ConcurrentFormatManagerLibrary library)
+	{
+		loadFactories(library::addFormatManagerBuilder);
+	}
+
+	private static void loadFactories(Consumer<FormatManagerFactory> addFactory)
+	{
+		addFactory.accept(new CompoundFormatFactory(',', '|'));
+		addFactory.accept(new ArrayFormatFactory('\n', ','));
+	}
+
+	/**
+	 * Returns the FormatManager for the given format name, using the given Function to
+	 * look up the FormatManagerFactory for an identifier. Returns null if there is no
+	 * FormatManagerFactory for the format.
+	 * 
+	 * This is the common lookup shared by the FormatManagerLibrary implementations in
+	 * this package: the full format name is checked first, and then the portion before
+	 * any square brackets, with the contents of the brackets passed to the
+	 * FormatManagerFactory as the sub-format.
+	 */
+	static FormatManager<?> buildFormatManager(String formatName,
+		FormatManagerLibrary library, Function<String, FormatManagerFactory> lookup)
+	{
+		FormatManagerFactory fmtManagerBuilder = lookup.apply(formatName);
+		if (fmtManagerBuilder != null)
+		{
+			return fmtManagerBuilder.build(null, library);
+		}
+		String formatSub = null;
+		int sqBracketLoc = formatName.indexOf('[');
+		if (sqBracketLoc != -1)
+		{
+			int lengthMinusOne = formatName.length() - 1;
+			if (formatName.lastIndexOf(']') != lengthMinusOne)
+			{
+				throw new IllegalArgumentException(
+					"Format Name must have matching open and close brackets, found: "
+						+ formatName);
+			}
+			String formatRoot = formatName.substring(0, sqBracketLoc);
+			formatSub = formatName.substring(sqBracketLoc + 1, lengthMinusOne);
+			fmtManagerBuilder = lookup.apply(formatRoot);
+		}
+		if (fmtManagerBuilder == null)
+		{
+			return null;
+		}
+		return fmtManagerBuilder.build(formatSub, library);
 	}
 
 	/**
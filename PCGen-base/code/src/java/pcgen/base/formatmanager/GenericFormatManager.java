@@ -84,6 +84,35 @@ public class GenericFormatManager<T> implements FormatManager<T>
 			Objects.requireNonNull(name));
 	}
 
+	/**
+	 * Converts the given names to objects through a single bulk request to the
+	 * underlying ObjectDatabase.
+	 */
+	@Override
+	public void convertInto(String[] names, T[] output)
+	{
+		database.getAll(underlyingClass, requireNoNulls(names), output);
+	}
+
+	/**
+	 * Converts the given names to Indirect objects through a single bulk request
+	 * to the underlying ObjectDatabase.
+	 */
+	@Override
+	public void convertIndirectInto(String[] names, Indirect<T>[] output)
+	{
+		database.getIndirectAll(underlyingClass, requireNoNulls(names), output);
+	}
+
+	private static String[] requireNoNulls(String[] names)
+	{
+		for (String name : names)
+		{
+			Objects.requireNonNull(name);
+		}
+		return names;
+	}
+
 	@Override
 	public String unconvert(T obj)
 	{
@@ -63,6 +63,68 @@ public interface ObjectDatabase
 	 */
 	public <T> Indirect<T> getIndirect(Class<T> cl, String name);
 
+	/**
+	 * Retrieves the objects of the given names of the given class from the
+	 * ObjectDatabase. The object named by names[i] is placed into output[i].
+	 * 
+	 * This is a bulk version of get, allowing implementations (such as those
+	 * backed by a remote store) to batch or pipeline the lookups rather than
+	 * performing one lookup for each name. The default implementation calls get
+	 * for each name.
+	 * 
+	 * @param cl
+	 *            The Class for which the objects are to be retrieved
+	 * @param names
+	 *            The names of the objects of the given class to be retrieved
+	 * @param output
+	 *            The array into which the objects should be placed. Must be at
+	 *            least as long as the array of names
+	 * @param <T>
+	 *            The format of the Objects to be retrieved from the
+	 *            ObjectDatabase
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the output array is shorter than the array of names
+	 */
+	public default <T> void getAll(Class<T> cl, String[] names, T[] output)
+	{
+		for (int i = 0; i < names.length; i++)
+		{
+			output[i] = get(cl, names[i]);
+		}
+	}
+
+	/**
+	 * Retrieves Indirect objects referring to the objects of the given names of
+	 * the given class from the ObjectDatabase. The Indirect referring to the
+	 * object named by names[i] is placed into output[i].
+	 * 
+	 * This is a bulk version of getIndirect, allowing implementations to batch
+	 * or pipeline the lookups rather than performing one lookup for each name.
+	 * The default implementation calls getIndirect for each name.
+	 * 
+	 * @param cl
+	 *            The Class for which the Indirect objects are to be retrieved
+	 * @param names
+	 *            The names of the objects of the given class to be referred to
+	 *            by the Indirect objects
+	 * @param output
+	 *            The array into which the Indirect objects should be placed.
+	 *            Must be at least as long as the array of names
+	 * @param <T>
+	 *            The format of the Objects referred to by the Indirect objects
+	 *            to be retrieved from the ObjectDatabase
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the output array is shorter than the array of names
+	 */
+	public default <T> void getIndirectAll(Class<T> cl, String[] names,
+		Indirect<T>[] output)
+	{
+		for (int i = 0; i < names.length; i++)
+		{
+			output[i] = getIndirect(cl, names[i]);
+		}
+	}
+
 	/**
 	 * Returns a String representation of the object provided. The String
 	 * representation is the name of the object that would be provided to the
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formatmanager;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import pcgen.base.util.Indirect;
+
+/**
+ * A ResolutionBatch is an ObjectDatabase that defers the resolution of the Indirect
+ * objects it returns. It is intended for use during load, when many Indirect objects
+ * are created (e.g. by a GenericFormatManager using this ResolutionBatch as its
+ * ObjectDatabase) before the objects they refer to are available.
+ * 
+ * Each Indirect returned by getIndirect is pending until resolve is called. resolve
+ * looks up all of the pending Indirect objects with one bulk request (getAll) to the
+ * underlying ObjectDatabase for each Class, and stores the result in each Indirect, so
+ * that get() on a resolved Indirect is a field read. Requests for the same Class and
+ * name share a single Indirect.
+ * 
+ * get, getAll and getName are passed directly to the underlying ObjectDatabase.
+ */
+public class ResolutionBatch implements ObjectDatabase
+{
+
+	/**
+	 * The underlying ObjectDatabase.
+	 */
+	private final ObjectDatabase database;
+
+	/**
+	 * The Indirect objects returned by this ResolutionBatch, by Class and name.
+	 */
+	private final Map<Class<?>, Map<String, DeferredIndirect<?>>> indirects =
+			new HashMap<>();
+
+	/**
+	 * Constructs a new ResolutionBatch for the given underlying ObjectDatabase.
+	 * 
+	 * @param objDatabase
+	 *            The underlying ObjectDatabase used to resolve the Indirect objects
+	 *            returned by this ResolutionBatch
+	 */
+	public ResolutionBatch(ObjectDatabase objDatabase)
+	{
+		database = Objects.requireNonNull(objDatabase);
+	}
+
+	@Override
+	public <T> T get(Class<T> cl, String name)
+	{
+		return database.get(cl, name);
+	}
+
+	@Override
+	public <T> void getAll(Class<T> cl, String[] names, T[] output)
+	{
+		database.getAll(cl, names, output);
+	}
+
+	/**
+	 * Returns an Indirect referring to the object of the given name of the given class.
+	 * The Indirect cannot be dereferenced until resolve has been called on this
+	 * ResolutionBatch.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public synchronized <T> Indirect<T> getIndirect(Class<T> cl, String name)
+	{
+		Objects.requireNonNull(name);
+		return (Indirect<T>) indirects
+			.computeIfAbsent(Objects.requireNonNull(cl), c -> new LinkedHashMap<>())
+			.computeIfAbsent(name, n -> new DeferredIndirect<>(n));
+	}
+
+	@Override
+	public String getName(Object o)
+	{
+		return database.getName(o);
+	}
+
+	/**
+	 * Returns false, as the Indirect objects returned by a ResolutionBatch cannot be
+	 * dereferenced until resolve has been called.
+	 */
+	@Override
+	public boolean isDirect()
+	{
+		return false;
+	}
+
+	/**
+	 * Returns the number of Indirect objects returned by this ResolutionBatch that have
+	 * not been resolved.
+	 * 
+	 * @return The number of Indirect objects returned by this ResolutionBatch that have
+	 *         not been resolved
+	 */
+	public synchronized int getPendingCount()
+	{
+		int count = 0;
+		for (Map<String, DeferredIndirect<?>> map : indirects.values())
+		{
+			for (DeferredIndirect<?> indirect : map.values())
+			{
+				if (!indirect.isResolved())
+				{
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Resolves the pending Indirect objects returned by this ResolutionBatch, with one
+	 * bulk request to the underlying ObjectDatabase for each Class.
+	 * 
+	 * Indirect objects referring to objects not present in the underlying
+	 * ObjectDatabase remain pending, and will be attempted again by a later call to
+	 * resolve.
+	 * 
+	 * @return true if all of the Indirect objects returned by this ResolutionBatch have
+	 *         been resolved; false otherwise
+	 */
+	public boolean resolve()
+	{
+		for (ClassBatch<?> batch : getPendingBatches())
+		{
+			batch.resolve();
+		}
+		return getPendingCount() == 0;
+	}
+
+	/**
+	 * Resolves the pending Indirect objects returned by this ResolutionBatch, with one
+	 * bulk request to the underlying ObjectDatabase for each Class. The requests for
+	 * different Classes are processed in parallel using the given ForkJoinPool, so the
+	 * underlying ObjectDatabase must be thread-safe.
+	 * 
+	 * Indirect objects referring to objects not present in the underlying
+	 * ObjectDatabase remain pending, and will be attempted again by a later call to
+	 * resolve.
+	 * 
+	 * @param pool
+	 *            The ForkJoinPool used to process the requests for each Class
+	 * @return true if all of the Indirect objects returned by this ResolutionBatch have
+	 *         been resolved; false otherwise
+	 */
+	public boolean resolve(ForkJoinPool pool)
+	{
+		Objects.requireNonNull(pool);
+		List<ForkJoinTask<?>> tasks = new ArrayList<>();
+		for (ClassBatch<?> batch : getPendingBatches())
+		{
+			tasks.add(ForkJoinTask.adapt(batch::resolve));
+		}
+		pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+		return getPendingCount() == 0;
+	}
+
+	/**
+	 * Returns the pending Indirect objects of this ResolutionBatch, grouped by Class.
+	 */
+	private synchronized List<ClassBatch<?>> getPendingBatches()
+	{
+		List<ClassBatch<?>> batches = new ArrayList<>(indirects.size());
+		for (Map.Entry<Class<?>, Map<String, DeferredIndirect<?>>> entry : indirects
+			.entrySet())
+		{
+			ClassBatch<?> batch = new ClassBatch<>(entry.getKey(), entry.getValue());
+			if (batch.size() > 0)
+			{
+				batches.add(batch);
+			}
+		}
+		return batches;
+	}
+
+	/**
+	 * A ClassBatch is the set of pending Indirect objects for a single Class.
+	 * 
+	 * @param <T>
+	 *            The format of the objects referred to by the Indirect objects
+	 */
+	private final class ClassBatch<T>
+	{
+		private final Class<T> cl;
+		private final List<DeferredIndirect<T>> pending = new ArrayList<>();
+
+		@SuppressWarnings("unchecked")
+		private ClassBatch(Class<T> cl, Map<String, DeferredIndirect<?>> map)
+		{
+			this.cl = cl;
+			for (DeferredIndirect<?> indirect : map.values())
+			{
+				if (!indirect.isResolved())
+				{
+					pending.add((DeferredIndirect<T>) indirect);
+				}
+			}
+		}
+
+		private int size()
+		{
+			return pending.size();
+		}
+
+		private void resolve()
+		{
+			int size = pending.size();
+			String[] names = new String[size];
+			for (int i = 0; i < size; i++)
+			{
+				names[i] = pending.get(i).name;
+			}
+			@SuppressWarnings("unchecked")
+			T[] results = (T[]) Array.newInstance(cl, size);
+			database.getAll(cl, names, results);
+			for (int i = 0; i < size; i++)
+			{
+				pending.get(i).value = results[i];
+			}
+		}
+	}
+
+	/**
+	 * A DeferredIndirect is an Indirect whose value is provided when the
+	 * ResolutionBatch is resolved.
+	 * 
+	 * @param <T>
+	 *            The format of the object referred to by the DeferredIndirect
+	 */
+	private static final class DeferredIndirect<T> implements Indirect<T>
+	{
+		private final String name;
+		private volatile T value;
+
+		private DeferredIndirect(String name)
+		{
+			this.name = name;
+		}
+
+		private boolean isResolved()
+		{
+			return value != null;
+		}
+
+		@Override
+		public T get()
+		{
+			T result = value;
+			if (result == null)
+			{
+				throw new IllegalStateException(
+					"Indirect for " + name + " has not been resolved");
+			}
+			return result;
+		}
+
+		@Override
+		public String getUnconverted()
+		{
+			return name;
+		}
+
+		@Override
+		public String toString()
+		{
+			return name;
+		}
+	}
+}
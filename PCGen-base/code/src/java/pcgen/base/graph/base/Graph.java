@@ -91,6 +91,34 @@ public interface Graph<N, ET extends Edge<N>>
 	 */
 	public boolean addEdge(ET edge);
 
+	/**
+	 * Adds the given Edges to the Graph as a single bulk operation.
+	 * 
+	 * The rules for addition of each Edge are the same as for addEdge(ET). Any null Edge,
+	 * or any Edge already present in the Graph, is ignored.
+	 * 
+	 * Implementations may suppress the individual NodeChangeEvent and EdgeChangeEvent
+	 * objects for the added items and instead deliver a single GraphChangeSetEvent to
+	 * each GraphChangeListener once all of the Edges have been added. The default
+	 * implementation simply calls addEdge(ET) for each Edge (and thus fires the
+	 * individual events).
+	 * 
+	 * Returns true if any of the given Edges was added to the Graph.
+	 * 
+	 * @param edges
+	 *            The Collection of Edges to add to the Graph
+	 * @return true if any of the given Edges was added to the Graph; false otherwise
+	 */
+	public default boolean addEdges(Collection<? extends ET> edges)
+	{
+		boolean added = false;
+		for (ET edge : edges)
+		{
+			added |= addEdge(edge);
+		}
+		return added;
+	}
+
 	/**
 	 * Returns true if this Graph contains the given Object as a Node in the
 	 * Graph.
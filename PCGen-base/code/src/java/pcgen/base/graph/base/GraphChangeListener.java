@@ -76,4 +76,30 @@ public interface GraphChangeListener<N, ET extends Edge<N>> extends
 	 *            The EdgeChangeEvent that occurred.
 	 */
 	public void edgeRemoved(EdgeChangeEvent<N, ET> event);
+
+	/**
+	 * Method called when a set of Nodes and Edges has been added to a Graph as a single
+	 * bulk operation and this GraphChangeListener has been added as a
+	 * GraphChangeListener to the source Graph.
+	 * 
+	 * The default implementation delivers the changes individually, calling nodeAdded
+	 * for each added Node (in order) and then edgeAdded for each added Edge (in order).
+	 * GraphChangeListeners that can process the changes in aggregate should override
+	 * this method.
+	 * 
+	 * @param event
+	 *            The GraphChangeSetEvent that occurred.
+	 */
+	public default void graphChanged(GraphChangeSetEvent<N, ET> event)
+	{
+		Graph<N, ET> graph = event.getGraph();
+		for (N node : event.getAddedNodes())
+		{
+			nodeAdded(new NodeChangeEvent<>(graph, node, NodeChangeEvent.NODE_ADDED));
+		}
+		for (ET edge : event.getAddedEdges())
+		{
+			edgeAdded(new EdgeChangeEvent<>(graph, edge, EdgeChangeEvent.EDGE_ADDED));
+		}
+	}
 }
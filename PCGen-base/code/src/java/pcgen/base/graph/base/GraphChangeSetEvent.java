@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.base;
+
+import java.util.Collections;
+import java.util.EventObject;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A GraphChangeSetEvent is an event that indicates a set of Nodes and Edges were added
+ * to a Graph as a single bulk operation (such as Graph.addEdges). This is delivered to a
+ * GraphChangeListener in place of the individual NodeChangeEvent and EdgeChangeEvent
+ * objects that would otherwise be fired for each item.
+ * 
+ * The Nodes returned by getAddedNodes() are in the order they were added to the Graph,
+ * as are the Edges returned by getAddedEdges(). All of the Nodes connected to an added
+ * Edge are present in the Graph (either previously or as an added Node) at the time this
+ * GraphChangeSetEvent is delivered.
+ * 
+ * NOTE: This Object is reference-semantic. It carries references to the source Graph
+ * and the affected Nodes and Edges. Use of this Event does not provide protection from
+ * mutability for those Objects by listeners. GraphChangeSetEvent, however, makes the
+ * guarantee that no modifications are made by GraphChangeSetEvent to the Graph, Nodes
+ * or Edges, and the Lists returned by this GraphChangeSetEvent cannot be modified.
+ * 
+ * @param <N>
+ *            The type of Node stored in the Graph about which this Event is reporting
+ * @param <ET>
+ *            The type of Edge stored in the Graph about which this Event is reporting
+ */
+public class GraphChangeSetEvent<N, ET extends Edge<N>> extends EventObject
+{
+
+	/**
+	 * The Graph in which the changes took place.
+	 */
+	private final Graph<N, ET> graph;
+
+	/**
+	 * The Nodes which were added to the Graph.
+	 */
+	private final List<N> addedNodes;
+
+	/**
+	 * The Edges which were added to the Graph.
+	 */
+	private final List<ET> addedEdges;
+
+	/**
+	 * Constructs a new GraphChangeSetEvent that occurred in the given Graph.
+	 * 
+	 * Ownership of the given Lists is transferred to the GraphChangeSetEvent. The Lists
+	 * must not be modified after construction of the GraphChangeSetEvent.
+	 * 
+	 * @param graph
+	 *            The Graph in which this GraphChangeSetEvent took place
+	 * @param addedNodes
+	 *            The Nodes which were added to the Graph
+	 * @param addedEdges
+	 *            The Edges which were added to the Graph
+	 */
+	public GraphChangeSetEvent(Graph<N, ET> graph, List<N> addedNodes,
+		List<ET> addedEdges)
+	{
+		super(graph);
+		this.graph = graph;
+		this.addedNodes = Collections.unmodifiableList(Objects.requireNonNull(addedNodes));
+		this.addedEdges = Collections.unmodifiableList(Objects.requireNonNull(addedEdges));
+	}
+
+	/**
+	 * Returns the Graph in which this GraphChangeSetEvent took place.
+	 * 
+	 * @return The Graph in which this GraphChangeSetEvent took place
+	 */
+	public Graph<N, ET> getGraph()
+	{
+		return graph;
+	}
+
+	/**
+	 * Returns the Nodes which were added to the Graph, in the order they were added.
+	 * 
+	 * @return The Nodes which were added to the Graph
+	 */
+	public List<N> getAddedNodes()
+	{
+		return addedNodes;
+	}
+
+	/**
+	 * Returns the Edges which were added to the Graph, in the order they were added.
+	 * 
+	 * @return The Edges which were added to the Graph
+	 */
+	public List<ET> getAddedEdges()
+	{
+		return addedEdges;
+	}
+}
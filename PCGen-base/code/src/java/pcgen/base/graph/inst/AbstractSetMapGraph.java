@@ -22,6 +22,7 @@ package pcgen.base.graph.inst;
 import static pcgen.base.util.SetUtilities.removeFromSet;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -134,6 +135,21 @@ public abstract class AbstractSetMapGraph<N, ET extends Edge<N>> implements
 	 */
 	@Override
 	public boolean addNode(N node)
+	{
+		if (!storeNode(node))
+		{
+			return false;
+		}
+		gcs.fireGraphNodeChangeEvent(node, NodeChangeEvent.NODE_ADDED);
+		return true;
+	}
+
+	/**
+	 * Stores the given Node in this Graph, without notifying any
+	 * GraphChangeListeners. Returns true if the given Node was stored; false
+	 * if it was null or already present in the Graph.
+	 */
+	private boolean storeNode(N node)
 	{
 		if (node == null)
 		{
@@ -146,7 +162,6 @@ public abstract class AbstractSetMapGraph<N, ET extends Edge<N>> implements
 		}
 		nodeMap.put(node, node);
 		nodeEdgeMap.put(node, new HashSet<>());
-		gcs.fireGraphNodeChangeEvent(node, NodeChangeEvent.NODE_ADDED);
 		return true;
 	}
 
@@ -197,6 +212,40 @@ public abstract class AbstractSetMapGraph<N, ET extends Edge<N>> implements
 		return true;
 	}
 
+	/**
+	 * Adds the given Edges to the Graph. Implicitly adds any Nodes connected
+	 * to the given Edges to the Graph. Null Edges and Edges already present in
+	 * the Graph are ignored.
+	 * 
+	 * No individual events are fired for the added Nodes and Edges. Instead, a
+	 * single GraphChangeSetEvent is sent to the GraphChangeListeners once all
+	 * of the Edges have been added.
+	 */
+	@Override
+	public boolean addEdges(Collection<? extends ET> edges)
+	{
+		List<N> addedNodes = new ArrayList<>();
+		List<ET> addedEdges = new ArrayList<>(edges.size());
+		for (ET edge : edges)
+		{
+			if ((edge == null) || !edgeSet.add(edge))
+			{
+				continue;
+			}
+			for (N node : edge.getAdjacentNodes())
+			{
+				if (storeNode(node))
+				{
+					addedNodes.add(node);
+				}
+				nodeEdgeMap.get(node).add(edge);
+			}
+			addedEdges.add(edge);
+		}
+		gcs.fireGraphChangeSetEvent(addedNodes, addedEdges);
+		return !addedEdges.isEmpty();
+	}
+
 	/**
 	 * Returns true if this Graph contains the given Node.
 	 */
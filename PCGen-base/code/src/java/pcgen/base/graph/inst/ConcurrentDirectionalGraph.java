@@ -0,0 +1,637 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.inst;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import pcgen.base.graph.base.DirectionalEdge;
+import pcgen.base.graph.base.DirectionalGraph;
+import pcgen.base.graph.base.Edge;
+import pcgen.base.graph.base.EdgeChangeEvent;
+import pcgen.base.graph.base.Graph;
+import pcgen.base.graph.base.GraphChangeListener;
+import pcgen.base.graph.base.NodeChangeEvent;
+import pcgen.base.graph.util.GraphUtilities;
+
+/**
+ * A ConcurrentDirectionalGraph is a DirectionalGraph which can be safely shared (for
+ * both modification and query) between multiple threads.
+ * 
+ * This Graph uses normal equality (.equals()) to determine equality for purposes of
+ * checking whether nodes and edges are already part of the Graph.
+ * 
+ * Like DirectionalSetMapGraph, a Map from each Node to the adjacent Edges is maintained.
+ * All of the Nodes, Edges and adjacency information are stored in concurrent Maps and
+ * Sets, so queries never block. Additions (addNode, addEdge and addEdges) may proceed in
+ * parallel with each other. Removals (removeNode, removeEdge and clear) are exclusive:
+ * a removal waits for any in-progress additions to complete, and no addition starts
+ * while a removal is in progress.
+ * 
+ * addEdge is atomic with respect to the Nodes connected to the Edge: before an Edge is
+ * visible through containsEdge or getEdgeList, all of the Nodes connected to the Edge
+ * are present in the Graph and the Edge is present in the adjacent Edges of each of
+ * those Nodes. Queries made while a removal is in progress may observe some but not all
+ * of the effects of that removal.
+ * 
+ * GraphChangeListeners are notified synchronously, by the thread which made the change,
+ * after the change is visible to all threads. The following ordering guarantees are
+ * made: (1) All events resulting from a single method call are delivered in the order
+ * the changes were made (so for an Edge added by a thread, any Nodes that thread
+ * implicitly added for that Edge are reported before the Edge). (2) Events for any given
+ * Node or Edge are delivered in the order those changes took effect (an Edge is never
+ * reported as removed before it is reported as added). (3) Events resulting from
+ * additions made concurrently by different threads may be interleaved, and thus a
+ * GraphChangeListener may receive an Edge before it receives a Node which a different
+ * thread implicitly added for that Edge. GraphChangeListeners must therefore be
+ * thread-safe. Since additions hold a shared lock while events are delivered, a
+ * GraphChangeListener must not remove items from this Graph in response to an addition
+ * (an IllegalStateException will be thrown if it attempts to do so).
+ * 
+ * WARNING: This ConcurrentDirectionalGraph contains a CACHE which uses the Nodes as a
+ * KEY. Due to the functioning of a Map (it uses the .hashCode() method), if a Node is
+ * modified IN PLACE in the Graph (without being removed and readded), it WILL cause the
+ * caching to FAIL, because the cache will have indexed the Node by the old hash code. It
+ * is therefore HIGHLY advised that this Graph implementation ONLY be used where the
+ * Nodes are either Immutable or do not override Object.equals().
+ * 
+ * Note: It is NOT possible for an Edge to connect to a Node which is not in the graph.
+ * There are (at least) two side effects to this limit: (1) If an Edge is added when the
+ * Nodes to which it is not connected are not in the Graph, those Nodes will be
+ * implicitly added to the graph. (2) If a Node is removed from the Graph, all of the
+ * Edges connected to that Node will also be removed from the graph.
+ * 
+ * WARNING: This Graph has SIDE EFFECTS. When any Node is deleted from the graph, ANY and
+ * ALL DirectionalEdges connected to that Node are implicitly deleted from the graph. You
+ * CANNOT rely on the GraphNodeRemoved event, as it will occur AFTER all of the attached
+ * Edges have been removed.
+ * 
+ * @param <N>
+ *            The type of Node stored in this Graph
+ * @param <ET>
+ *            The type of Edge stored in this Graph
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public class ConcurrentDirectionalGraph<N, ET extends DirectionalEdge<N>>
+		implements DirectionalGraph<N, ET>
+{
+
+	/**
+	 * The Set of nodes contained in this Graph (mapped to themselves in order to
+	 * support getInternalizedNode).
+	 */
+	private final ConcurrentMap<N, N> nodeMap = new ConcurrentHashMap<>();
+
+	/**
+	 * The Set of edges contained in this Graph.
+	 */
+	private final Set<ET> edgeSet = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * A Map indicating which nodes are connected to which edges. This is redundant
+	 * information to what is actually contained in the edges themselves, but is present
+	 * in order to speed calls to getAdjacentEdges.
+	 */
+	private final ConcurrentMap<N, Set<ET>> nodeEdgeMap = new ConcurrentHashMap<>();
+
+	/**
+	 * The lock used to keep removals exclusive of additions. Additions hold the
+	 * (shared) read lock, while removals hold the (exclusive) write lock.
+	 */
+	private final ReentrantReadWriteLock structureLock = new ReentrantReadWriteLock();
+
+	/**
+	 * The GraphChangeSupport object which provides management of GraphChangeListeners
+	 * and fires events to the listeners.
+	 */
+	private final GraphChangeSupport<N, ET> gcs = new GraphChangeSupport<>(this);
+
+	@Override
+	public boolean addNode(N node)
+	{
+		if (node == null)
+		{
+			return false;
+		}
+		structureLock.readLock().lock();
+		try
+		{
+			if (!storeNode(node))
+			{
+				return false;
+			}
+			gcs.fireGraphNodeChangeEvent(node, NodeChangeEvent.NODE_ADDED);
+			return true;
+		}
+		finally
+		{
+			structureLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Atomically stores the given Node in this Graph, without notifying any
+	 * GraphChangeListeners. Returns true if this call stored the Node; false if it was
+	 * already present in the Graph.
+	 * 
+	 * The adjacency Set is created before the Node is placed into nodeMap, so that any
+	 * thread which sees the Node in nodeMap can rely on the adjacency Set being present.
+	 */
+	private boolean storeNode(N node)
+	{
+		if (nodeMap.containsKey(node))
+		{
+			return false;
+		}
+		nodeEdgeMap.putIfAbsent(node, ConcurrentHashMap.newKeySet());
+		return nodeMap.putIfAbsent(node, node) == null;
+	}
+
+	/**
+	 * Returns the node actually stored in the graph that is equal to the given node.
+	 * This is used to avoid memory leaks in the case of matching Nodes (to avoid storing
+	 * a Node that is .equal but not == in an edge that will be placed into the Graph).
+	 * 
+	 * @param node
+	 *            The Node to be internalized.
+	 * @return The internalized version of the Node, relative to this Graph; null if the
+	 *         Node is not in this Graph
+	 */
+	public N getInternalizedNode(N node)
+	{
+		return (node == null) ? null : nodeMap.get(node);
+	}
+
+	/**
+	 * Adds the given Edge to the Graph. Returns true if the given Edge was successfully
+	 * added. Implicitly adds any Nodes connected to the given Edge to the Graph. Because
+	 * the Edges in this Graph are a Set, this method will return false if an Edge is
+	 * already present in the Graph.
+	 */
+	@Override
+	public boolean addEdge(ET edge)
+	{
+		if (edge == null)
+		{
+			return false;
+		}
+		structureLock.readLock().lock();
+		try
+		{
+			List<N> addedNodes = new ArrayList<>(2);
+			if (!storeEdge(edge, addedNodes))
+			{
+				return false;
+			}
+			for (N node : addedNodes)
+			{
+				gcs.fireGraphNodeChangeEvent(node, NodeChangeEvent.NODE_ADDED);
+			}
+			gcs.fireGraphEdgeChangeEvent(edge, EdgeChangeEvent.EDGE_ADDED);
+			return true;
+		}
+		finally
+		{
+			structureLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Stores the given Edge (and any Nodes connected to the Edge) in this Graph, without
+	 * notifying any GraphChangeListeners. Any Node stored by this call is added to the
+	 * given List. Returns true if this call stored the Edge; false if it was already
+	 * present in the Graph.
+	 * 
+	 * The Edge is placed into the adjacency Sets before it is placed into edgeSet, so
+	 * that once containsEdge returns true for the Edge, the Graph is fully consistent
+	 * for that Edge. If two threads race to add the same Edge, both may add it to the
+	 * adjacency Sets (which is harmless, as they are Sets), but only one will succeed in
+	 * adding it to edgeSet.
+	 */
+	private boolean storeEdge(ET edge, List<N> addedNodes)
+	{
+		List<N> adjacentNodes = edge.getAdjacentNodes();
+		for (N node : adjacentNodes)
+		{
+			if (storeNode(node))
+			{
+				addedNodes.add(node);
+			}
+		}
+		for (N node : adjacentNodes)
+		{
+			nodeEdgeMap.get(node).add(edge);
+		}
+		return edgeSet.add(edge);
+	}
+
+	/**
+	 * Adds the given Edges to the Graph. Implicitly adds any Nodes connected to the given
+	 * Edges to the Graph. Null Edges and Edges already present in the Graph are ignored.
+	 * 
+	 * No individual events are fired for the added Nodes and Edges. Instead, a single
+	 * GraphChangeSetEvent is sent to the GraphChangeListeners once all of the Edges have
+	 * been added.
+	 */
+	@Override
+	public boolean addEdges(Collection<? extends ET> edges)
+	{
+		structureLock.readLock().lock();
+		try
+		{
+			List<N> addedNodes = new ArrayList<>();
+			List<ET> addedEdges = new ArrayList<>(edges.size());
+			for (ET edge : edges)
+			{
+				if ((edge != null) && storeEdge(edge, addedNodes))
+				{
+					addedEdges.add(edge);
+				}
+			}
+			gcs.fireGraphChangeSetEvent(addedNodes, addedEdges);
+			return !addedEdges.isEmpty();
+		}
+		finally
+		{
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public boolean containsNode(Object node)
+	{
+		return (node != null) && nodeMap.containsKey(node);
+	}
+
+	@Override
+	public boolean containsEdge(Edge<?> edge)
+	{
+		return (edge != null) && edgeSet.contains(edge);
+	}
+
+	@Override
+	public int getNodeCount()
+	{
+		return nodeMap.size();
+	}
+
+	/**
+	 * Returns a List of Nodes in this Graph. If the Graph is being modified concurrently,
+	 * the returned List may or may not reflect those modifications.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. No reference
+	 * to the List Object is maintained by ConcurrentDirectionalGraph. However, the Nodes
+	 * contained in the List are returned BY REFERENCE, and modification of the returned
+	 * Nodes will modify the nodes contained within the ConcurrentDirectionalGraph.
+	 */
+	@Override
+	public List<N> getNodeList()
+	{
+		return new ArrayList<>(nodeMap.keySet());
+	}
+
+	/**
+	 * Returns a List of Edges in this Graph. If the Graph is being modified concurrently,
+	 * the returned List may or may not reflect those modifications.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. No reference
+	 * to the List Object is maintained by ConcurrentDirectionalGraph. However, the Edges
+	 * contained in the List are returned BY REFERENCE, and modification of the returned
+	 * Edges will modify the Edges contained within the ConcurrentDirectionalGraph.
+	 */
+	@Override
+	public List<ET> getEdgeList()
+	{
+		return new ArrayList<>(edgeSet);
+	}
+
+	/**
+	 * Removes the given Node from the ConcurrentDirectionalGraph. As a byproduct of this
+	 * removal, all Edges connected to the Node will also be removed from the Graph.
+	 */
+	@Override
+	public boolean removeNode(N node)
+	{
+		if (node == null)
+		{
+			return false;
+		}
+		lockForRemoval();
+		try
+		{
+			Set<ET> adjacentEdges = nodeEdgeMap.get(node);
+			if (adjacentEdges == null)
+			{
+				return false;
+			}
+			//Copy, since removeEdge will modify the Set
+			for (ET edge : new ArrayList<>(adjacentEdges))
+			{
+				removeEdge(edge);
+			}
+			nodeEdgeMap.remove(node);
+			nodeMap.remove(node);
+			gcs.fireGraphNodeChangeEvent(node, NodeChangeEvent.NODE_REMOVED);
+			return true;
+		}
+		finally
+		{
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes the given Edge from the ConcurrentDirectionalGraph.
+	 */
+	@Override
+	public boolean removeEdge(ET edge)
+	{
+		if (edge == null)
+		{
+			return false;
+		}
+		lockForRemoval();
+		try
+		{
+			if (!edgeSet.remove(edge))
+			{
+				return false;
+			}
+			for (N node : edge.getAdjacentNodes())
+			{
+				Set<ET> adjacentEdges = nodeEdgeMap.get(node);
+				if (adjacentEdges != null)
+				{
+					adjacentEdges.remove(edge);
+				}
+			}
+			gcs.fireGraphEdgeChangeEvent(edge, EdgeChangeEvent.EDGE_REMOVED);
+			return true;
+		}
+		finally
+		{
+			structureLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Acquires the exclusive lock required for a removal. Throws an
+	 * IllegalStateException if the current thread holds the shared lock (which occurs
+	 * if a GraphChangeListener attempts to remove items in response to an addition),
+	 * since waiting for the exclusive lock would deadlock.
+	 */
+	private void lockForRemoval()
+	{
+		if (structureLock.getReadHoldCount() > 0)
+		{
+			throw new IllegalStateException(
+				"Cannot remove from a ConcurrentDirectionalGraph "
+					+ "while processing an addition to the Graph");
+		}
+		structureLock.writeLock().lock();
+	}
+
+	@Override
+	public boolean hasAdjacentEdge(N node)
+	{
+		Set<ET> adjacentEdges = (node == null) ? null : nodeEdgeMap.get(node);
+		return (adjacentEdges != null) && !adjacentEdges.isEmpty();
+	}
+
+	/**
+	 * Returns a Set of the Edges which are Adjacent (connected) to the given Node.
+	 * Returns null if the given Node is not in the Graph.
+	 * 
+	 * Ownership of the returned Set is transferred to the calling Object. No reference
+	 * to the Set Object is maintained by ConcurrentDirectionalGraph. However, the Edges
+	 * contained in the Set are returned BY REFERENCE, and modification of the returned
+	 * Edges will modify the Edges contained within the ConcurrentDirectionalGraph.
+	 */
+	@Override
+	public Set<ET> getAdjacentEdges(N node)
+	{
+		Set<ET> adjacentEdges = (node == null) ? null : nodeEdgeMap.get(node);
+		return (adjacentEdges == null) ? null : new HashSet<>(adjacentEdges);
+	}
+
+	/**
+	 * Returns a List of the Edges for which the given Node is a Sink.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. No reference
+	 * to the List Object is maintained by ConcurrentDirectionalGraph. However, the Edges
+	 * contained in the List are returned BY REFERENCE, and modification of the returned
+	 * Edges will modify the Edges contained within the ConcurrentDirectionalGraph.
+	 */
+	@Override
+	public List<ET> getInwardEdgeList(N node)
+	{
+		Set<ET> adjacentEdges = (node == null) ? null : nodeEdgeMap.get(node);
+		if (adjacentEdges == null)
+		{
+			return null;
+		}
+		List<ET> inwardEdges = new ArrayList<>();
+		for (ET edge : adjacentEdges)
+		{
+			if (edge.isSink(node))
+			{
+				inwardEdges.add(edge);
+			}
+		}
+		return inwardEdges;
+	}
+
+	/**
+	 * Returns a List of the Edges for which the given Node is a source.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. No reference
+	 * to the List Object is maintained by ConcurrentDirectionalGraph. However, the Edges
+	 * contained in the List are returned BY REFERENCE, and modification of the returned
+	 * Edges will modify the Edges contained within the ConcurrentDirectionalGraph.
+	 */
+	@Override
+	public List<ET> getOutwardEdgeList(N node)
+	{
+		Set<ET> adjacentEdges = (node == null) ? null : nodeEdgeMap.get(node);
+		if (adjacentEdges == null)
+		{
+			return null;
+		}
+		List<ET> outwardEdges = new ArrayList<>();
+		for (ET edge : adjacentEdges)
+		{
+			if (edge.isSource(node))
+			{
+				outwardEdges.add(edge);
+			}
+		}
+		return outwardEdges;
+	}
+
+	@Override
+	public boolean hasInwardEdge(N node)
+	{
+		Set<ET> adjacentEdges = (node == null) ? null : nodeEdgeMap.get(node);
+		if (adjacentEdges == null)
+		{
+			return false;
+		}
+		for (ET edge : adjacentEdges)
+		{
+			if (edge.isSink(node))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean hasOutwardEdge(N node)
+	{
+		Set<ET> adjacentEdges = (node == null) ? null : nodeEdgeMap.get(node);
+		if (adjacentEdges == null)
+		{
+			return false;
+		}
+		for (ET edge : adjacentEdges)
+		{
+			if (edge.isSource(node))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns an immutable FrozenDirectionalGraph containing the Nodes and Edges
+	 * currently in this Graph. Subsequent modifications to this Graph do not
+	 * affect the returned FrozenDirectionalGraph.
+	 * 
+	 * No removal may take place while the FrozenDirectionalGraph is being
+	 * constructed. Additions made concurrently may or may not be reflected in the
+	 * returned FrozenDirectionalGraph, but any Edge that is reflected will have
+	 * all of its Nodes reflected.
+	 * 
+	 * @return An immutable FrozenDirectionalGraph containing the Nodes and
+	 *         Edges currently in this Graph
+	 */
+	public FrozenDirectionalGraph<N, ET> freeze()
+	{
+		structureLock.readLock().lock();
+		try
+		{
+			//Edges first, since any visible Edge already has its Nodes visible
+			List<ET> edgeList = getEdgeList();
+			return new FrozenDirectionalGraph<>(getNodeList(), edgeList);
+		}
+		finally
+		{
+			structureLock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void addGraphChangeListener(GraphChangeListener<N, ET> listener)
+	{
+		gcs.addGraphChangeListener(listener);
+	}
+
+	/**
+	 * Returns an array of the GraphChangeListeners to this Graph.
+	 * 
+	 * Ownership of the returned Array is transferred to the calling Object. No reference
+	 * to the Array is maintained by ConcurrentDirectionalGraph. However, the
+	 * GraphChangeListeners contained in the Array are (obviously!) returned BY
+	 * REFERENCE, and care should be taken with modifying those GraphChangeListeners.
+	 */
+	@Override
+	public GraphChangeListener<N, ET>[] getGraphChangeListeners()
+	{
+		return gcs.getGraphChangeListeners();
+	}
+
+	@Override
+	public void removeGraphChangeListener(GraphChangeListener<N, ET> listener)
+	{
+		gcs.removeGraphChangeListener(listener);
+	}
+
+	/**
+	 * Tests to see if this Graph is equal to the provided Object. This will return true
+	 * if the given Object is also a Graph, and that Graph contains equal Nodes and
+	 * Edges.
+	 * 
+	 * @param other
+	 *            The Object to be tested for equality with this Graph
+	 * @return true if the given Object is a Graph that contains equal Nodes and Edges to
+	 *         this Graph; false otherwise
+	 */
+	@Override
+	public boolean equals(Object other)
+	{
+		return (other instanceof Graph)
+			&& GraphUtilities.equals(this, (Graph<?, ?>) other);
+	}
+
+	/**
+	 * Returns the hashCode for this Graph.
+	 * 
+	 * @return the hashCode for this Graph.
+	 */
+	@Override
+	public int hashCode()
+	{
+		// This is really simple, but it works... and prevents a deep hash
+		return nodeMap.size() + (edgeSet.size() * 23);
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return nodeMap.isEmpty() && edgeSet.isEmpty();
+	}
+
+	/**
+	 * Clears this Graph, removing all Nodes and Edges from the Graph.
+	 */
+	@Override
+	public void clear()
+	{
+		/*
+		 * TODO This doesn't actually notify GraphChangeListeners (consistent with the
+		 * other Graph implementations)
+		 */
+		lockForRemoval();
+		try
+		{
+			edgeSet.clear();
+			nodeEdgeMap.clear();
+			nodeMap.clear();
+		}
+		finally
+		{
+			structureLock.writeLock().unlock();
+		}
+	}
+}
@@ -156,4 +156,16 @@ public class DirectionalSetMapGraph<N, ET extends DirectionalEdge<N>> extends
 		return false;
 	}
 
+	/**
+	 * Returns an immutable FrozenDirectionalGraph containing the Nodes and Edges
+	 * currently in this Graph. Subsequent modifications to this Graph do not
+	 * affect the returned FrozenDirectionalGraph.
+	 * 
+	 * @return An immutable FrozenDirectionalGraph containing the Nodes and
+	 *         Edges currently in this Graph
+	 */
+	public FrozenDirectionalGraph<N, ET> freeze()
+	{
+		return FrozenDirectionalGraph.freeze(this);
+	}
 }
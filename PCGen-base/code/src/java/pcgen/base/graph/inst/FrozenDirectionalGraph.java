@@ -0,0 +1,601 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.inst;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import pcgen.base.graph.base.DirectionalEdge;
+import pcgen.base.graph.base.DirectionalGraph;
+import pcgen.base.graph.base.Edge;
+import pcgen.base.graph.base.Graph;
+import pcgen.base.graph.base.GraphChangeListener;
+import pcgen.base.graph.util.GraphUtilities;
+
+/**
+ * A FrozenDirectionalGraph is an immutable DirectionalGraph, typically produced from a
+ * mutable DirectionalGraph once it is no longer expected to change (see
+ * DirectionalSetMapGraph.freeze()).
+ * 
+ * The Nodes and Edges are stored in contiguous arrays. The Edges adjacent to each Node
+ * are stored as offsets into a single packed array of Edge indexes (along with the
+ * interface type - source and/or sink - of each Node on each Edge), and containment is
+ * tested through open-addressed index tables. This is significantly smaller than the
+ * Map and Set based storage of the mutable Graph implementations, and containsNode and
+ * containsEdge remain constant time operations.
+ * 
+ * Since all of the fields are final and never modified after construction, a
+ * FrozenDirectionalGraph is safe for concurrent read access by any number of threads
+ * without locking. The Nodes and Edges themselves are held BY REFERENCE, so this does
+ * not provide any protection for mutable Nodes or Edges.
+ * 
+ * All methods which would modify the Graph (addNode, addEdge, addEdges, removeNode,
+ * removeEdge and clear) throw an UnsupportedOperationException. Since the Graph can
+ * never change, GraphChangeListeners will never receive an event; they are therefore
+ * not retained.
+ * 
+ * This Graph uses normal equality (.equals()) to determine equality for purposes of
+ * checking whether nodes and edges are part of the Graph.
+ * 
+ * @param <N>
+ *            The type of Node stored in this Graph
+ * @param <ET>
+ *            The type of Edge stored in this Graph
+ */
+@SuppressWarnings("PMD.TooManyMethods")
+public final class FrozenDirectionalGraph<N, ET extends DirectionalEdge<N>>
+		implements DirectionalGraph<N, ET>
+{
+
+	/**
+	 * The value in an index table which indicates an empty slot.
+	 */
+	private static final int EMPTY = -1;
+
+	/**
+	 * The Nodes in this Graph.
+	 */
+	private final Object[] nodes;
+
+	/**
+	 * The Edges in this Graph.
+	 */
+	private final Object[] edges;
+
+	/**
+	 * The open-addressed index table for nodes.
+	 */
+	private final int[] nodeTable;
+
+	/**
+	 * The open-addressed index table for edges.
+	 */
+	private final int[] edgeTable;
+
+	/**
+	 * The offsets into adjacentEdges for each Node. The Edges adjacent to the Node at
+	 * index i are stored from adjacencyOffsets[i] (inclusive) to adjacencyOffsets[i + 1]
+	 * (exclusive).
+	 */
+	private final int[] adjacencyOffsets;
+
+	/**
+	 * The packed indexes of the Edges adjacent to each Node.
+	 */
+	private final int[] adjacentEdges;
+
+	/**
+	 * The interface type (a bitmask of DirectionalEdge.SOURCE and DirectionalEdge.SINK)
+	 * of the Node on the Edge at the same location in adjacentEdges.
+	 */
+	private final byte[] interfaceTypes;
+
+	/**
+	 * Constructs a new FrozenDirectionalGraph containing the given Nodes and Edges. All
+	 * of the Nodes connected to the given Edges must be present in the given List of
+	 * Nodes, and neither List may contain duplicates.
+	 * 
+	 * @param nodeList
+	 *            The Nodes to be contained in the FrozenDirectionalGraph, in order
+	 * @param edgeList
+	 *            The Edges to be contained in the FrozenDirectionalGraph, in order
+	 */
+	FrozenDirectionalGraph(List<N> nodeList, List<ET> edgeList)
+	{
+		nodes = nodeList.toArray();
+		edges = edgeList.toArray();
+		nodeTable = buildTable(nodes);
+		edgeTable = buildTable(edges);
+		int nodeCount = nodes.length;
+		//First pass counts the adjacent Edges of each Node
+		int[] position = new int[nodeCount + 1];
+		for (Object edge : edges)
+		{
+			for (int index : getAdjacentIndexes(edge))
+			{
+				position[index + 1]++;
+			}
+		}
+		for (int i = 0; i < nodeCount; i++)
+		{
+			position[i + 1] += position[i];
+		}
+		adjacencyOffsets = position.clone();
+		adjacentEdges = new int[position[nodeCount]];
+		interfaceTypes = new byte[position[nodeCount]];
+		//Second pass fills the adjacent Edges of each Node
+		for (int edgeIndex = 0; edgeIndex < edges.length; edgeIndex++)
+		{
+			@SuppressWarnings("unchecked")
+			ET edge = (ET) edges[edgeIndex];
+			for (int index : getAdjacentIndexes(edge))
+			{
+				int location = position[index]++;
+				adjacentEdges[location] = edgeIndex;
+				interfaceTypes[location] = (byte) edge.getNodeInterfaceType(getNode(index));
+			}
+		}
+	}
+
+	/**
+	 * Returns the (distinct) indexes of the Nodes adjacent to the given Edge.
+	 */
+	private int[] getAdjacentIndexes(Object edge)
+	{
+		List<?> adjacent = ((Edge<?>) edge).getAdjacentNodes();
+		int[] indexes = new int[adjacent.size()];
+		int count = 0;
+		for (Object node : adjacent)
+		{
+			int index = find(nodes, nodeTable, node);
+			boolean duplicate = false;
+			for (int i = 0; (i < count) && !duplicate; i++)
+			{
+				duplicate = (indexes[i] == index);
+			}
+			if (!duplicate)
+			{
+				indexes[count++] = index;
+			}
+		}
+		return (count == indexes.length) ? indexes : Arrays.copyOf(indexes, count);
+	}
+
+	/**
+	 * Builds an open-addressed (linear probing) index table for the given items. The
+	 * table is sized to a power of two that is at least twice the number of items.
+	 */
+	private static int[] buildTable(Object[] items)
+	{
+		int size = Integer.highestOneBit(Math.max(2, items.length) * 2 - 1) << 1;
+		int[] table = new int[size];
+		Arrays.fill(table, EMPTY);
+		int mask = size - 1;
+		for (int i = 0; i < items.length; i++)
+		{
+			int slot = spread(items[i].hashCode()) & mask;
+			while (table[slot] != EMPTY)
+			{
+				slot = (slot + 1) & mask;
+			}
+			table[slot] = i;
+		}
+		return table;
+	}
+
+	/**
+	 * Returns the index of the given object in the given items, using the given index
+	 * table. Returns EMPTY if the object is not present.
+	 */
+	private static int find(Object[] items, int[] table, Object obj)
+	{
+		if (obj == null)
+		{
+			return EMPTY;
+		}
+		int mask = table.length - 1;
+		int slot = spread(obj.hashCode()) & mask;
+		int index = table[slot];
+		while (index != EMPTY)
+		{
+			if (items[index].equals(obj))
+			{
+				return index;
+			}
+			slot = (slot + 1) & mask;
+			index = table[slot];
+		}
+		return EMPTY;
+	}
+
+	private static int spread(int hashCode)
+	{
+		return hashCode ^ (hashCode >>> 16);
+	}
+
+	/**
+	 * Constructs a new FrozenDirectionalGraph containing the Nodes and Edges of the given
+	 * DirectionalGraph. The Nodes and Edges are stored in the order they are returned by
+	 * the given DirectionalGraph.
+	 * 
+	 * The given DirectionalGraph must not be modified while the FrozenDirectionalGraph is
+	 * being constructed. Once constructed, no reference to the given DirectionalGraph is
+	 * retained, and modifications to it will not affect the FrozenDirectionalGraph.
+	 * 
+	 * @param graph
+	 *            The DirectionalGraph to be frozen
+	 * @return A new FrozenDirectionalGraph containing the Nodes and Edges of the given
+	 *         DirectionalGraph
+	 * @param <N>
+	 *            The type of Node stored in the DirectionalGraph
+	 * @param <ET>
+	 *            The type of Edge stored in the DirectionalGraph
+	 */
+	public static <N, ET extends DirectionalEdge<N>> FrozenDirectionalGraph<N, ET> freeze(
+		DirectionalGraph<N, ET> graph)
+	{
+		return new FrozenDirectionalGraph<>(graph.getNodeList(), graph.getEdgeList());
+	}
+
+	/**
+	 * Constructs a new FrozenDirectionalGraph containing the Nodes and Edges of the given
+	 * DirectionalGraph. The Nodes are sorted using the given Comparator (so that
+	 * getNodeList returns the Nodes in that order).
+	 * 
+	 * The given DirectionalGraph must not be modified while the FrozenDirectionalGraph is
+	 * being constructed. Once constructed, no reference to the given DirectionalGraph is
+	 * retained, and modifications to it will not affect the FrozenDirectionalGraph.
+	 * 
+	 * @param graph
+	 *            The DirectionalGraph to be frozen
+	 * @param nodeOrder
+	 *            The Comparator used to sort the Nodes in the FrozenDirectionalGraph
+	 * @return A new FrozenDirectionalGraph containing the Nodes and Edges of the given
+	 *         DirectionalGraph
+	 * @param <N>
+	 *            The type of Node stored in the DirectionalGraph
+	 * @param <ET>
+	 *            The type of Edge stored in the DirectionalGraph
+	 */
+	public static <N, ET extends DirectionalEdge<N>> FrozenDirectionalGraph<N, ET> freeze(
+		DirectionalGraph<N, ET> graph, Comparator<? super N> nodeOrder)
+	{
+		Objects.requireNonNull(nodeOrder);
+		List<N> nodeList = graph.getNodeList();
+		nodeList.sort(nodeOrder);
+		return new FrozenDirectionalGraph<>(nodeList, graph.getEdgeList());
+	}
+
+	@SuppressWarnings("unchecked")
+	private N getNode(int index)
+	{
+		return (N) nodes[index];
+	}
+
+	@SuppressWarnings("unchecked")
+	private ET getEdge(int index)
+	{
+		return (ET) edges[index];
+	}
+
+	/**
+	 * Throws an UnsupportedOperationException, as a FrozenDirectionalGraph cannot be
+	 * modified.
+	 */
+	@Override
+	public boolean addNode(N node)
+	{
+		throw new UnsupportedOperationException(
+			"Cannot add a Node to a FrozenDirectionalGraph");
+	}
+
+	/**
+	 * Throws an UnsupportedOperationException, as a FrozenDirectionalGraph cannot be
+	 * modified.
+	 */
+	@Override
+	public boolean addEdge(ET edge)
+	{
+		throw new UnsupportedOperationException(
+			"Cannot add an Edge to a FrozenDirectionalGraph");
+	}
+
+	/**
+	 * Throws an UnsupportedOperationException, as a FrozenDirectionalGraph cannot be
+	 * modified.
+	 */
+	@Override
+	public boolean addEdges(Collection<? extends ET> edgeCollection)
+	{
+		throw new UnsupportedOperationException(
+			"Cannot add Edges to a FrozenDirectionalGraph");
+	}
+
+	/**
+	 * Throws an UnsupportedOperationException, as a FrozenDirectionalGraph cannot be
+	 * modified.
+	 */
+	@Override
+	public boolean removeNode(N node)
+	{
+		throw new UnsupportedOperationException(
+			"Cannot remove a Node from a FrozenDirectionalGraph");
+	}
+
+	/**
+	 * Throws an UnsupportedOperationException, as a FrozenDirectionalGraph cannot be
+	 * modified.
+	 */
+	@Override
+	public boolean removeEdge(ET edge)
+	{
+		throw new UnsupportedOperationException(
+			"Cannot remove an Edge from a FrozenDirectionalGraph");
+	}
+
+	/**
+	 * Throws an UnsupportedOperationException, as a FrozenDirectionalGraph cannot be
+	 * modified.
+	 */
+	@Override
+	public void clear()
+	{
+		throw new UnsupportedOperationException(
+			"Cannot clear a FrozenDirectionalGraph");
+	}
+
+	/**
+	 * Returns the node actually stored in the graph that is equal to the given node.
+	 * 
+	 * @param node
+	 *            The Node to be internalized.
+	 * @return The internalized version of the Node, relative to this Graph; null if the
+	 *         Node is not in this Graph
+	 */
+	public N getInternalizedNode(N node)
+	{
+		int index = find(nodes, nodeTable, node);
+		return (index == EMPTY) ? null : getNode(index);
+	}
+
+	@Override
+	public boolean containsNode(Object obj)
+	{
+		return find(nodes, nodeTable, obj) != EMPTY;
+	}
+
+	@Override
+	public boolean containsEdge(Edge<?> edge)
+	{
+		return find(edges, edgeTable, edge) != EMPTY;
+	}
+
+	@Override
+	public int getNodeCount()
+	{
+		return nodes.length;
+	}
+
+	/**
+	 * Returns a List of the Nodes in this Graph.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. No reference
+	 * to the List Object is maintained by FrozenDirectionalGraph. However, the Nodes
+	 * contained in the List are returned BY REFERENCE, and modification of the returned
+	 * Nodes will modify the nodes contained within the FrozenDirectionalGraph.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<N> getNodeList()
+	{
+		return new ArrayList<>((List<N>) Arrays.asList(nodes));
+	}
+
+	/**
+	 * Returns a List of the Edges in this Graph.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. No reference
+	 * to the List Object is maintained by FrozenDirectionalGraph. However, the Edges
+	 * contained in the List are returned BY REFERENCE, and modification of the returned
+	 * Edges will modify the Edges contained within the FrozenDirectionalGraph.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public List<ET> getEdgeList()
+	{
+		return new ArrayList<>((List<ET>) (List<?>) Arrays.asList(edges));
+	}
+
+	@Override
+	public boolean hasAdjacentEdge(N node)
+	{
+		int index = find(nodes, nodeTable, node);
+		return (index != EMPTY)
+			&& (adjacencyOffsets[index + 1] > adjacencyOffsets[index]);
+	}
+
+	/**
+	 * Returns a Set of the Edges which are Adjacent (connected) to the given Node.
+	 * Returns null if the given Node is not in the Graph.
+	 * 
+	 * Ownership of the returned Set is transferred to the calling Object. No reference
+	 * to the Set Object is maintained by FrozenDirectionalGraph. However, the Edges
+	 * contained in the Set are returned BY REFERENCE, and modification of the returned
+	 * Edges will modify the Edges contained within the FrozenDirectionalGraph.
+	 */
+	@Override
+	public Set<ET> getAdjacentEdges(N node)
+	{
+		int index = find(nodes, nodeTable, node);
+		if (index == EMPTY)
+		{
+			return null;
+		}
+		Set<ET> adjacent = new HashSet<>();
+		for (int i = adjacencyOffsets[index]; i < adjacencyOffsets[index + 1]; i++)
+		{
+			adjacent.add(getEdge(adjacentEdges[i]));
+		}
+		return adjacent;
+	}
+
+	/**
+	 * Returns a List of the Edges for which the given Node is a Sink.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. No reference
+	 * to the List Object is maintained by FrozenDirectionalGraph. However, the Edges
+	 * contained in the List are returned BY REFERENCE, and modification of the returned
+	 * Edges will modify the Edges contained within the FrozenDirectionalGraph.
+	 */
+	@Override
+	public List<ET> getInwardEdgeList(N node)
+	{
+		return getEdgeList(node, DirectionalEdge.SINK);
+	}
+
+	/**
+	 * Returns a List of the Edges for which the given Node is a source.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. No reference
+	 * to the List Object is maintained by FrozenDirectionalGraph. However, the Edges
+	 * contained in the List are returned BY REFERENCE, and modification of the returned
+	 * Edges will modify the Edges contained within the FrozenDirectionalGraph.
+	 */
+	@Override
+	public List<ET> getOutwardEdgeList(N node)
+	{
+		return getEdgeList(node, DirectionalEdge.SOURCE);
+	}
+
+	private List<ET> getEdgeList(N node, int interfaceType)
+	{
+		int index = find(nodes, nodeTable, node);
+		if (index == EMPTY)
+		{
+			return null;
+		}
+		List<ET> list = new ArrayList<>();
+		for (int i = adjacencyOffsets[index]; i < adjacencyOffsets[index + 1]; i++)
+		{
+			if ((interfaceTypes[i] & interfaceType) != 0)
+			{
+				list.add(getEdge(adjacentEdges[i]));
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public boolean hasInwardEdge(N node)
+	{
+		return hasEdge(node, DirectionalEdge.SINK);
+	}
+
+	@Override
+	public boolean hasOutwardEdge(N node)
+	{
+		return hasEdge(node, DirectionalEdge.SOURCE);
+	}
+
+	private boolean hasEdge(N node, int interfaceType)
+	{
+		int index = find(nodes, nodeTable, node);
+		if (index == EMPTY)
+		{
+			return false;
+		}
+		for (int i = adjacencyOffsets[index]; i < adjacencyOffsets[index + 1]; i++)
+		{
+			if ((interfaceTypes[i] & interfaceType) != 0)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Does nothing, as a FrozenDirectionalGraph cannot change, and thus never fires any
+	 * events to a GraphChangeListener.
+	 */
+	@Override
+	public void addGraphChangeListener(GraphChangeListener<N, ET> listener)
+	{
+		//No events are ever fired, so the listener is not retained
+	}
+
+	/**
+	 * Returns an empty array, as a FrozenDirectionalGraph does not retain any
+	 * GraphChangeListeners.
+	 */
+	@Override
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public GraphChangeListener<N, ET>[] getGraphChangeListeners()
+	{
+		return new GraphChangeListener[0];
+	}
+
+	/**
+	 * Does nothing, as a FrozenDirectionalGraph does not retain any
+	 * GraphChangeListeners.
+	 */
+	@Override
+	public void removeGraphChangeListener(GraphChangeListener<N, ET> listener)
+	{
+		//No listeners are retained
+	}
+
+	/**
+	 * Tests to see if this Graph is equal to the provided Object. This will return true
+	 * if the given Object is also a Graph, and that Graph contains equal Nodes and
+	 * Edges.
+	 * 
+	 * @param other
+	 *            The Object to be tested for equality with this Graph
+	 * @return true if the given Object is a Graph that contains equal Nodes and Edges to
+	 *         this Graph; false otherwise
+	 */
+	@Override
+	public boolean equals(Object other)
+	{
+		return (other instanceof Graph)
+			&& GraphUtilities.equals(this, (Graph<?, ?>) other);
+	}
+
+	/**
+	 * Returns the hashCode for this Graph.
+	 * 
+	 * @return the hashCode for this Graph.
+	 */
+	@Override
+	public int hashCode()
+	{
+		// This is really simple, but it works... and prevents a deep hash
+		return nodes.length + (edges.length * 23);
+	}
+
+	@Override
+	public boolean isEmpty()
+	{
+		return (nodes.length == 0) && (edges.length == 0);
+	}
+}
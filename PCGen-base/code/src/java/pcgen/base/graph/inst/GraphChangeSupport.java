@@ -19,14 +19,15 @@
  */
 package pcgen.base.graph.inst;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
-import javax.swing.event.EventListenerList;
-
 import pcgen.base.graph.base.Edge;
 import pcgen.base.graph.base.EdgeChangeEvent;
 import pcgen.base.graph.base.Graph;
 import pcgen.base.graph.base.GraphChangeListener;
+import pcgen.base.graph.base.GraphChangeSetEvent;
 import pcgen.base.graph.base.NodeChangeEvent;
 
 /**
@@ -36,6 +37,13 @@ import pcgen.base.graph.base.NodeChangeEvent;
  * is facilitating listening to and throwing GraphNodeEvents and
  * GraphEdgeEvents.
  * 
+ * The GraphChangeListeners are held in a copy-on-write array. Adding or removing
+ * a GraphChangeListener replaces the array, while firing an event simply reads
+ * the current array. Firing an event therefore requires no copying (and no
+ * allocation at all if there are no GraphChangeListeners), and a
+ * GraphChangeListener added or removed while an event is being fired does not
+ * affect the delivery of that event.
+ * 
  * @param <N>
  *            The type of Node stored in the Graph supported by this
  *            GraphChangeSupport
@@ -46,11 +54,22 @@ import pcgen.base.graph.base.NodeChangeEvent;
 public class GraphChangeSupport<N, ET extends Edge<N>>
 {
 
+	/**
+	 * The empty array of GraphChangeListeners, shared by all GraphChangeSupport
+	 * objects that have no GraphChangeListeners.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final GraphChangeListener[] NO_LISTENERS = new GraphChangeListener[0];
+
 	/**
 	 * The listeners to which GrapeNodeEvents and GraphEdgeEvents will be fired
-	 * when a change in the source Graph occurs.
+	 * when a change in the source Graph occurs, in the order they were added.
+	 * 
+	 * This array is never modified once it is stored in this field (it is
+	 * replaced by addGraphChangeListener and removeGraphChangeListener).
 	 */
-	private final EventListenerList listenerList;
+	@SuppressWarnings("rawtypes")
+	private volatile GraphChangeListener[] listeners = NO_LISTENERS;
 
 	/**
 	 * The source graph to monitor for changes.
@@ -68,7 +87,6 @@ public class GraphChangeSupport<N, ET extends Edge<N>>
 	{
 		super();
 		source = Objects.requireNonNull(sourceObject);
-		listenerList = new EventListenerList();
 	}
 
 	/**
@@ -78,9 +96,18 @@ public class GraphChangeSupport<N, ET extends Edge<N>>
 	 * @param listener
 	 *            The GraphChangeListener to receive GraphChangeEvents
 	 */
-	public void addGraphChangeListener(GraphChangeListener<N, ET> listener)
+	public synchronized void addGraphChangeListener(
+		GraphChangeListener<N, ET> listener)
 	{
-		listenerList.add(GraphChangeListener.class, listener);
+		if (listener == null)
+		{
+			return;
+		}
+		int length = listeners.length;
+		@SuppressWarnings("rawtypes")
+		GraphChangeListener[] newListeners = Arrays.copyOf(listeners, length + 1);
+		newListeners[length] = listener;
+		listeners = newListeners;
 	}
 
 	/**
@@ -91,27 +118,53 @@ public class GraphChangeSupport<N, ET extends Edge<N>>
 	 * reference to the Array is maintained by GraphChangeSupport. However, the
 	 * GraphChangeListeners contained in the Array are (obviously!) returned BY
 	 * REFERENCE, and care should be taken with modifying those
-	 * GraphChangeListeners. F *
+	 * GraphChangeListeners.
 	 * 
 	 * @return An Array of GraphChangeListeners receiving Graph Change Events
 	 *         from the source Graph
 	 */
 	@SuppressWarnings("unchecked")
-	public synchronized GraphChangeListener<N, ET>[] getGraphChangeListeners()
+	public GraphChangeListener<N, ET>[] getGraphChangeListeners()
 	{
-		return listenerList.getListeners(GraphChangeListener.class);
+		return listeners.clone();
 	}
 
 	/**
 	 * Removes a GraphChangeListener so that it will no longer receive Graph
-	 * Change Events from the source Graph.
+	 * Change Events from the source Graph. If the GraphChangeListener was added
+	 * more than once, only the most recent addition is removed.
 	 * 
 	 * @param listener
 	 *            The GraphChangeListener to be removed
 	 */
-	public void removeGraphChangeListener(GraphChangeListener<N, ET> listener)
+	public synchronized void removeGraphChangeListener(
+		GraphChangeListener<N, ET> listener)
 	{
-		listenerList.remove(GraphChangeListener.class, listener);
+		if (listener == null)
+		{
+			return;
+		}
+		@SuppressWarnings("rawtypes")
+		GraphChangeListener[] current = listeners;
+		for (int i = current.length - 1; i >= 0; i--)
+		{
+			if (listener == current[i])
+			{
+				if (current.length == 1)
+				{
+					listeners = NO_LISTENERS;
+					return;
+				}
+				@SuppressWarnings("rawtypes")
+				GraphChangeListener[] newListeners =
+						new GraphChangeListener[current.length - 1];
+				System.arraycopy(current, 0, newListeners, 0, i);
+				System.arraycopy(current, i + 1, newListeners, i,
+					current.length - i - 1);
+				listeners = newListeners;
+				return;
+			}
+		}
 	}
 
 	/**
@@ -128,8 +181,7 @@ public class GraphChangeSupport<N, ET extends Edge<N>>
 	@SuppressWarnings({"rawtypes", "unchecked", "PMD.AvoidInstantiatingObjectsInLoops"})
 	public void fireGraphEdgeChangeEvent(ET edge, int id)
 	{
-		GraphChangeListener[] listeners =
-				listenerList.getListeners(GraphChangeListener.class);
+		GraphChangeListener[] listeners = this.listeners;
 		/*
 		 * This list is decremented from the end of the list to the beginning in
 		 * order to maintain consistent operation with how Java AWT and Swing
@@ -172,8 +224,7 @@ public class GraphChangeSupport<N, ET extends Edge<N>>
 	@SuppressWarnings({"rawtypes", "unchecked", "PMD.AvoidInstantiatingObjectsInLoops"})
 	public void fireGraphNodeChangeEvent(N node, int id)
 	{
-		GraphChangeListener[] listeners =
-				listenerList.getListeners(GraphChangeListener.class);
+		GraphChangeListener[] listeners = this.listeners;
 		/*
 		 * This list is decremented from the end of the list to the beginning in
 		 * order to maintain consistent operation with how Java AWT and Swing
@@ -201,4 +252,43 @@ public class GraphChangeSupport<N, ET extends Edge<N>>
 			}
 		}
 	}
+
+	/**
+	 * Sends a GraphChangeSetEvent to the GraphChangeListeners that are receiving
+	 * Graph Change Events from the source Graph.
+	 * 
+	 * Ownership of the given Lists is transferred to the GraphChangeSupport. The
+	 * Lists must not be modified after calling this method. If both Lists are
+	 * empty, no event is sent.
+	 * 
+	 * @param addedNodes
+	 *            The Nodes that have been added to the source Graph
+	 * @param addedEdges
+	 *            The Edges that have been added to the source Graph
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	public void fireGraphChangeSetEvent(List<N> addedNodes, List<ET> addedEdges)
+	{
+		if (addedNodes.isEmpty() && addedEdges.isEmpty())
+		{
+			return;
+		}
+		GraphChangeListener[] listeners = this.listeners;
+		/*
+		 * This list is decremented from the end of the list to the beginning in
+		 * order to maintain consistent operation with how Java AWT and Swing
+		 * listeners are notified of Events (they are in reverse order to how
+		 * they were added to the Event-owning object).
+		 */
+		GraphChangeSetEvent<N, ET> csEvent = null;
+		for (int i = listeners.length - 1; i >= 0; i--)
+		{
+			// Lazily create event
+			if (csEvent == null)
+			{
+				csEvent = new GraphChangeSetEvent<>(source, addedNodes, addedEdges);
+			}
+			listeners[i].graphChanged(csEvent);
+		}
+	}
 }
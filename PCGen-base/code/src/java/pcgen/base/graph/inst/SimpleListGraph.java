@@ -20,9 +20,12 @@
 package pcgen.base.graph.inst;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import pcgen.base.graph.base.Edge;
 import pcgen.base.graph.base.EdgeChangeEvent;
@@ -32,12 +35,23 @@ import pcgen.base.graph.base.NodeChangeEvent;
 import pcgen.base.graph.util.GraphUtilities;
 
 /**
- * This class is a simple Graph which stores a List of the nodes and edges in
- * the Graph. While this may not be the most efficient storage mechanism from a
- * speed perspective, it is relatively efficient in terms of memory use.
+ * This class is a simple Graph which stores the nodes and edges in the Graph
+ * in the order they were added. getNodeList() and getEdgeList() return the
+ * nodes and edges in that (insertion) order.
+ * 
+ * The nodes and edges are indexed by hash, and each node is mapped to the
+ * edges adjacent to that node. This makes containsNode, containsEdge and
+ * getAdjacentEdges constant time operations (in the number of nodes and
+ * edges), and removeNode proportional to the number of edges adjacent to the
+ * removed node.
  * 
  * This Graph uses normal equality (.equals()) to determine equality for
  * purposes of checking whether nodes and edges are already part of the Graph.
+ * Since the nodes and edges are indexed by .hashCode(), if a node or edge is
+ * modified IN PLACE in the Graph (without being removed and re-added), it
+ * WILL cause the indexing to FAIL. It is therefore HIGHLY advised that this
+ * Graph only be used where the nodes and edges are either Immutable or do not
+ * override Object.equals().
  * 
  * Note: It is NOT possible for an edge to connect to a node which is not in the
  * graph. There are (at least) two side effects to this limit: (1) If an edge is
@@ -64,17 +78,18 @@ public class SimpleListGraph<N, ET extends Edge<N>> implements Graph<N, ET>
 {
 
 	/**
-	 * The List of nodes contained in this Graph.
+	 * The Map from each node contained in this Graph (in insertion order) to
+	 * the Set of edges adjacent to that node.
 	 */
-	private final List<N> nodeList;
+	private final Map<N, Set<ET>> nodeEdgeMap;
 
 	/**
-	 * The List of edges contained in this Graph. An edge must be connected to a
-	 * node which is already in the nodeList (this makes no statement about
-	 * whether this addition is done implicitly by addEdge [it is in
-	 * SimpleListGraph] or whether it is explicit).
+	 * The Set of edges contained in this Graph (in insertion order). An edge
+	 * must be connected to a node which is already in the nodeEdgeMap (this
+	 * makes no statement about whether this addition is done implicitly by
+	 * addEdge [it is in SimpleListGraph] or whether it is explicit).
 	 */
-	private final List<ET> edgeList;
+	private final Set<ET> edgeSet;
 
 	/**
 	 * The GraphChangeSupport object which provides management of
@@ -88,46 +103,107 @@ public class SimpleListGraph<N, ET extends Edge<N>> implements Graph<N, ET>
 	public SimpleListGraph()
 	{
 		super();
-		edgeList = new ArrayList<>();
-		nodeList = new ArrayList<>();
+		edgeSet = new LinkedHashSet<>();
+		nodeEdgeMap = new LinkedHashMap<>();
 		gcs = new GraphChangeSupport<>(this);
 	}
 
 	@Override
 	public boolean addNode(N v)
 	{
-		if ((v == null) || (nodeList.contains(v)))
+		if (!storeNode(v))
 		{
 			return false;
 		}
-		nodeList.add(v);
 		gcs.fireGraphNodeChangeEvent(v, NodeChangeEvent.NODE_ADDED);
 		return true;
 	}
 
+	/**
+	 * Stores the given Node in this Graph, without notifying any
+	 * GraphChangeListeners. Returns true if the given Node was stored; false
+	 * if it was null or already present in the Graph.
+	 */
+	private boolean storeNode(N v)
+	{
+		if ((v == null) || (nodeEdgeMap.containsKey(v)))
+		{
+			return false;
+		}
+		nodeEdgeMap.put(v, new LinkedHashSet<>());
+		return true;
+	}
+
+	/**
+	 * Stores the given Edge in this Graph and indexes it against each of the
+	 * adjacent Nodes (which must already be present in the Graph).
+	 */
+	private void storeEdge(ET e)
+	{
+		edgeSet.add(e);
+		for (N node : e.getAdjacentNodes())
+		{
+			nodeEdgeMap.get(node).add(e);
+		}
+	}
+
 	@Override
 	public boolean addEdge(ET e)
 	{
-		if ((e == null) || (edgeList.contains(e)))
+		if ((e == null) || (edgeSet.contains(e)))
 		{
 			return false;
 		}
 		e.getAdjacentNodes().forEach(node -> addNode(node));
-		edgeList.add(e);
+		storeEdge(e);
 		gcs.fireGraphEdgeChangeEvent(e, EdgeChangeEvent.EDGE_ADDED);
 		return true;
 	}
 
+	/**
+	 * Adds the given Edges to the Graph. Implicitly adds any Nodes connected
+	 * to the given Edges to the Graph. Null Edges and Edges already present in
+	 * the Graph are ignored.
+	 * 
+	 * No individual events are fired for the added Nodes and Edges. Instead, a
+	 * single GraphChangeSetEvent is sent to the GraphChangeListeners once all
+	 * of the Edges have been added.
+	 */
+	@Override
+	public boolean addEdges(Collection<? extends ET> edges)
+	{
+		List<N> addedNodes = new ArrayList<>();
+		List<ET> addedEdges = new ArrayList<>(edges.size());
+		for (ET e : edges)
+		{
+			if ((e == null) || (edgeSet.contains(e)))
+			{
+				continue;
+			}
+			for (N node : e.getAdjacentNodes())
+			{
+				if (storeNode(node))
+				{
+					addedNodes.add(node);
+				}
+			}
+			storeEdge(e);
+			addedEdges.add(e);
+		}
+		gcs.fireGraphChangeSetEvent(addedNodes, addedEdges);
+		return !addedEdges.isEmpty();
+	}
+
 	@Override
 	public boolean containsNode(Object v)
 	{
-		return nodeList.contains(v);
+		return nodeEdgeMap.containsKey(v);
 	}
 
 	@Override
 	public boolean containsEdge(Edge<?> e)
 	{
-		return edgeList.contains(e);
+		return edgeSet.contains(e);
 	}
 
 	/**
@@ -142,7 +218,7 @@ public class SimpleListGraph<N, ET extends Edge<N>> implements Graph<N, ET>
 	@Override
 	public List<N> getNodeList()
 	{
-		return new ArrayList<>(nodeList);
+		return new ArrayList<>(nodeEdgeMap.keySet());
 	}
 
 	/**
@@ -157,7 +233,7 @@ public class SimpleListGraph<N, ET extends Edge<N>> implements Graph<N, ET>
 	@Override
 	public List<ET> getEdgeList()
 	{
-		return new ArrayList<>(edgeList);
+		return new ArrayList<>(edgeSet);
 	}
 
 	@Override
@@ -174,7 +250,7 @@ public class SimpleListGraph<N, ET extends Edge<N>> implements Graph<N, ET>
 		}
 		if (successful)
 		{
-			successful &= nodeList.remove(gn);
+			successful &= (nodeEdgeMap.remove(gn) != null);
 		}
 		if (successful)
 		{
@@ -190,8 +266,12 @@ public class SimpleListGraph<N, ET extends Edge<N>> implements Graph<N, ET>
 		{
 			return false;
 		}
-		if (edgeList.remove(ge))
+		if (edgeSet.remove(ge))
 		{
+			for (N node : ge.getAdjacentNodes())
+			{
+				nodeEdgeMap.get(node).remove(ge);
+			}
 			gcs.fireGraphEdgeChangeEvent(ge, EdgeChangeEvent.EDGE_REMOVED);
 			return true;
 		}
@@ -201,19 +281,26 @@ public class SimpleListGraph<N, ET extends Edge<N>> implements Graph<N, ET>
 	@Override
 	public boolean hasAdjacentEdge(N gn)
 	{
-		return containsNode(gn) && edgeList.stream().anyMatch(e -> e.isAdjacentNode(gn));
+		Set<ET> adjacent = nodeEdgeMap.get(gn);
+		return (adjacent != null) && !adjacent.isEmpty();
 	}
 
+	/**
+	 * Returns a Set of the Edges which are Adjacent (connected) to the given
+	 * Node, in the order they were added to the Graph. Returns null if the
+	 * given Node is not in the Graph.
+	 * 
+	 * Ownership of the returned Set is transferred to the calling Object. No
+	 * reference to the Set Object is maintained by SimpleListGraph. However,
+	 * the Edges contained in the Set are returned BY REFERENCE, and
+	 * modification of the returned Edges will modify the Edges contained
+	 * within the SimpleListGraph.
+	 */
 	@Override
 	public Set<ET> getAdjacentEdges(N gn)
 	{
-		if (!containsNode(gn))
-		{
-			return null;
-		}
-		return edgeList.stream()
-					   .filter(e -> e.isAdjacentNode(gn))
-					   .collect(Collectors.toSet());
+		Set<ET> adjacent = nodeEdgeMap.get(gn);
+		return (adjacent == null) ? null : new LinkedHashSet<>(adjacent);
 	}
 
 	@Override
@@ -271,20 +358,20 @@ public class SimpleListGraph<N, ET extends Edge<N>> implements Graph<N, ET>
 	public int hashCode()
 	{
 		// This is really simple, but it works... and prevents a deep hash
-		return nodeList.size() + (edgeList.size() * 23);
+		return nodeEdgeMap.size() + (edgeSet.size() * 23);
 	}
 
 	@Override
 	public boolean isEmpty()
 	{
 		//Only need to check nodes, since addEdge adds the adjacent nodes
-		return nodeList.isEmpty();
+		return nodeEdgeMap.isEmpty();
 	}
 
 	@Override
 	public int getNodeCount()
 	{
-		return nodeList.size();
+		return nodeEdgeMap.size();
 	}
 
 	@Override
@@ -294,7 +381,7 @@ public class SimpleListGraph<N, ET extends Edge<N>> implements Graph<N, ET>
 		 * TODO This doesn't actually notify GraphChangeListeners, is that a
 		 * problem? - probably is ... thpr, 6/27/07
 		 */
-		nodeList.clear();
-		edgeList.clear();
+		nodeEdgeMap.clear();
+		edgeSet.clear();
 	}
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.util;
+
+import java.util.Collections;
+import java.util.List;
+
+import pcgen.base.graph.base.Edge;
+
+/**
+ * A GraphDifference indicates the Nodes and Edges that were added and removed between an
+ * original Graph and an updated Graph. A GraphDifference is produced by
+ * GraphUtilities.difference(Graph, Graph).
+ * 
+ * The Lists returned by a GraphDifference cannot be modified. The Nodes and Edges
+ * contained in those Lists are held BY REFERENCE, so this does not provide any
+ * protection for mutable Nodes or Edges.
+ * 
+ * @param <N>
+ *            The type of Node stored in the Graphs that were compared
+ * @param <ET>
+ *            The type of Edge stored in the Graphs that were compared
+ */
+public final class GraphDifference<N, ET extends Edge<N>>
+{
+
+	/**
+	 * The Nodes in the updated Graph which are not in the original Graph.
+	 */
+	private final List<N> addedNodes;
+
+	/**
+	 * The Nodes in the original Graph which are not in the updated Graph.
+	 */
+	private final List<N> removedNodes;
+
+	/**
+	 * The Edges in the updated Graph which are not in the original Graph.
+	 */
+	private final List<ET> addedEdges;
+
+	/**
+	 * The Edges in the original Graph which are not in the updated Graph.
+	 */
+	private final List<ET> removedEdges;
+
+	/**
+	 * Constructs a new GraphDifference with the given added and removed Nodes and Edges.
+	 * 
+	 * Ownership of the given Lists is transferred to the GraphDifference.
+	 */
+	GraphDifference(List<N> addedNodes, List<N> removedNodes, List<ET> addedEdges,
+		List<ET> removedEdges)
+	{
+		this.addedNodes = Collections.unmodifiableList(addedNodes);
+		this.removedNodes = Collections.unmodifiableList(removedNodes);
+		this.addedEdges = Collections.unmodifiableList(addedEdges);
+		this.removedEdges = Collections.unmodifiableList(removedEdges);
+	}
+
+	/**
+	 * Returns the Nodes in the updated Graph which are not in the original Graph, in the
+	 * order they are returned by the updated Graph.
+	 * 
+	 * @return The Nodes in the updated Graph which are not in the original Graph
+	 */
+	public List<N> getAddedNodes()
+	{
+		return addedNodes;
+	}
+
+	/**
+	 * Returns the Nodes in the original Graph which are not in the updated Graph, in the
+	 * order they are returned by the original Graph.
+	 * 
+	 * @return The Nodes in the original Graph which are not in the updated Graph
+	 */
+	public List<N> getRemovedNodes()
+	{
+		return removedNodes;
+	}
+
+	/**
+	 * Returns the Edges in the updated Graph which are not in the original Graph, in the
+	 * order they are returned by the updated Graph.
+	 * 
+	 * @return The Edges in the updated Graph which are not in the original Graph
+	 */
+	public List<ET> getAddedEdges()
+	{
+		return addedEdges;
+	}
+
+	/**
+	 * Returns the Edges in the original Graph which are not in the updated Graph, in the
+	 * order they are returned by the original Graph.
+	 * 
+	 * @return The Edges in the original Graph which are not in the updated Graph
+	 */
+	public List<ET> getRemovedEdges()
+	{
+		return removedEdges;
+	}
+
+	/**
+	 * Returns true if there is no difference between the original Graph and the updated
+	 * Graph.
+	 * 
+	 * @return true if there is no difference between the original Graph and the updated
+	 *         Graph; false otherwise
+	 */
+	public boolean isEmpty()
+	{
+		return addedNodes.isEmpty() && removedNodes.isEmpty() && addedEdges.isEmpty()
+			&& removedEdges.isEmpty();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "GraphDifference [addedNodes=" + addedNodes + ", removedNodes="
+			+ removedNodes + ", addedEdges=" + addedEdges + ", removedEdges="
+			+ removedEdges + "]";
+	}
+}
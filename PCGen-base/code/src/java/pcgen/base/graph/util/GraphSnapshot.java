@@ -0,0 +1,320 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import pcgen.base.graph.base.DirectionalEdge;
+import pcgen.base.graph.base.Edge;
+import pcgen.base.graph.base.Graph;
+
+/**
+ * A GraphSnapshot is an immutable, index-based copy of the connectivity of a Graph. Each
+ * Node in the source Graph is assigned an integer index (0 to getNodeCount() - 1), and
+ * the connections between the Nodes are stored in packed (offset + target) integer
+ * arrays.
+ * 
+ * Two forms of connectivity are captured. The "successors" of a Node are the Nodes that
+ * can be reached by following a single Edge in its natural direction. For a
+ * DirectionalEdge, this is from each source Node to each sink Node. For any other Edge,
+ * all of the Nodes connected to the Edge are successors of each other. The "neighbors"
+ * of a Node ignore direction, and are the Nodes that share any Edge with the Node.
+ * 
+ * Note that no reference to the source Graph is retained. Once constructed, a
+ * GraphSnapshot is not affected by changes to the source Graph, and (since all of its
+ * fields are final and never modified after construction) it is safe for concurrent
+ * read-only use by any number of threads. The Nodes themselves are held BY REFERENCE, so
+ * this does not provide any protection for mutable Nodes.
+ * 
+ * The Graph classes in pcgen.base.graph.inst make no guarantee of thread safety. It is
+ * therefore the responsibility of the caller to ensure the source Graph is not modified
+ * while a GraphSnapshot is being constructed from that Graph.
+ * 
+ * @param <N>
+ *            The type of Node stored in this GraphSnapshot
+ */
+public final class GraphSnapshot<N>
+{
+
+	/**
+	 * The Nodes in this GraphSnapshot, in index order.
+	 */
+	private final Object[] nodes;
+
+	/**
+	 * The index of each Node in this GraphSnapshot.
+	 */
+	private final Map<N, Integer> indexMap;
+
+	/**
+	 * The offsets into successors for each Node. The successors of the Node at index i
+	 * are stored from successorOffsets[i] (inclusive) to successorOffsets[i + 1]
+	 * (exclusive).
+	 */
+	private final int[] successorOffsets;
+
+	/**
+	 * The packed successor indexes for all of the Nodes in this GraphSnapshot.
+	 */
+	private final int[] successors;
+
+	/**
+	 * The offsets into neighbors for each Node. The neighbors of the Node at index i are
+	 * stored from neighborOffsets[i] (inclusive) to neighborOffsets[i + 1] (exclusive).
+	 */
+	private final int[] neighborOffsets;
+
+	/**
+	 * The packed neighbor indexes for all of the Nodes in this GraphSnapshot.
+	 */
+	private final int[] neighbors;
+
+	private GraphSnapshot(Graph<N, ?> graph)
+	{
+		List<N> nodeList = graph.getNodeList();
+		List<? extends Edge<N>> edgeList = graph.getEdgeList();
+		int nodeCount = nodeList.size();
+		nodes = nodeList.toArray();
+		indexMap = new HashMap<>(Math.max(16, (int) (nodeCount / 0.75f) + 1));
+		for (int i = 0; i < nodeCount; i++)
+		{
+			indexMap.put(nodeList.get(i), i);
+		}
+		int[] successorCount = new int[nodeCount];
+		int[] neighborCount = new int[nodeCount];
+		for (Edge<N> edge : edgeList)
+		{
+			connect(edge, successorCount, null, neighborCount, null);
+		}
+		successorOffsets = toOffsets(successorCount);
+		neighborOffsets = toOffsets(neighborCount);
+		successors = new int[successorOffsets[nodeCount]];
+		neighbors = new int[neighborOffsets[nodeCount]];
+		//Reuse the count arrays as the insertion point for each Node
+		System.arraycopy(successorOffsets, 0, successorCount, 0, nodeCount);
+		System.arraycopy(neighborOffsets, 0, neighborCount, 0, nodeCount);
+		for (Edge<N> edge : edgeList)
+		{
+			connect(edge, successorCount, successors, neighborCount, neighbors);
+		}
+	}
+
+	/**
+	 * Processes the connections provided by a single Edge. If the target arrays are
+	 * null, then the connections are only counted (by incrementing the position array
+	 * for the Node at the start of the connection). Otherwise, the connections are
+	 * written into the target arrays at the location in the position array.
+	 */
+	private void connect(Edge<N> edge, int[] successorPosition, int[] successorTarget,
+		int[] neighborPosition, int[] neighborTarget)
+	{
+		List<N> adjacent = edge.getAdjacentNodes();
+		int size = adjacent.size();
+		int[] index = new int[size];
+		for (int i = 0; i < size; i++)
+		{
+			index[i] = getIndex(adjacent.get(i));
+		}
+		boolean directional = edge instanceof DirectionalEdge;
+		for (int i = 0; i < size; i++)
+		{
+			for (int j = 0; j < size; j++)
+			{
+				if (index[i] == index[j])
+				{
+					continue;
+				}
+				if (!directional || isSuccessor(edge, adjacent.get(i), adjacent.get(j)))
+				{
+					add(successorPosition, successorTarget, index[i], index[j]);
+				}
+				add(neighborPosition, neighborTarget, index[i], index[j]);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <N> boolean isSuccessor(Edge<N> edge, N from, N to)
+	{
+		DirectionalEdge<N> directionalEdge = (DirectionalEdge<N>) edge;
+		return directionalEdge.isSource(from) && directionalEdge.isSink(to);
+	}
+
+	private static void add(int[] position, int[] target, int from, int to)
+	{
+		if (target != null)
+		{
+			target[position[from]] = to;
+		}
+		position[from]++;
+	}
+
+	private static int[] toOffsets(int[] count)
+	{
+		int[] offsets = new int[count.length + 1];
+		for (int i = 0; i < count.length; i++)
+		{
+			offsets[i + 1] = offsets[i] + count[i];
+		}
+		return offsets;
+	}
+
+	/**
+	 * Constructs a new GraphSnapshot of the given Graph.
+	 * 
+	 * The Graph must not be modified while the GraphSnapshot is being constructed.
+	 * 
+	 * @param graph
+	 *            The Graph for which a GraphSnapshot should be constructed
+	 * @return A new GraphSnapshot of the given Graph
+	 * @param <N>
+	 *            The type of Node stored in the Graph
+	 */
+	public static <N> GraphSnapshot<N> of(Graph<N, ?> graph)
+	{
+		return new GraphSnapshot<>(Objects.requireNonNull(graph));
+	}
+
+	/**
+	 * Returns the number of Nodes in this GraphSnapshot.
+	 * 
+	 * @return The number of Nodes in this GraphSnapshot
+	 */
+	public int getNodeCount()
+	{
+		return nodes.length;
+	}
+
+	/**
+	 * Returns the Node at the given index in this GraphSnapshot.
+	 * 
+	 * @param index
+	 *            The index of the Node to be returned
+	 * @return The Node at the given index in this GraphSnapshot
+	 */
+	@SuppressWarnings("unchecked")
+	public N getNode(int index)
+	{
+		return (N) nodes[index];
+	}
+
+	/**
+	 * Returns the index of the given Node in this GraphSnapshot.
+	 * 
+	 * @param node
+	 *            The Node for which the index should be returned
+	 * @return The index of the given Node in this GraphSnapshot; -1 if the Node is not
+	 *         in this GraphSnapshot
+	 */
+	public int getIndex(Object node)
+	{
+		Integer index = indexMap.get(node);
+		return (index == null) ? -1 : index;
+	}
+
+	/**
+	 * Returns the number of successors of the Node at the given index. If more than one
+	 * Edge connects the Node to a successor, that successor is counted once for each
+	 * Edge.
+	 * 
+	 * @param index
+	 *            The index of the Node for which the successor count should be returned
+	 * @return The number of successors of the Node at the given index
+	 */
+	public int getSuccessorCount(int index)
+	{
+		return successorOffsets[index + 1] - successorOffsets[index];
+	}
+
+	/**
+	 * Returns the index of a successor of the Node at the given index.
+	 * 
+	 * @param index
+	 *            The index of the Node for which the successor should be returned
+	 * @param position
+	 *            The position (0 to getSuccessorCount(index) - 1) of the successor to be
+	 *            returned
+	 * @return The index of the successor at the given position for the Node at the given
+	 *         index
+	 */
+	public int getSuccessor(int index, int position)
+	{
+		return successors[successorOffsets[index] + position];
+	}
+
+	/**
+	 * Returns the indexes of the successors of the Node at the given index.
+	 * 
+	 * Ownership of the returned array is transferred to the calling Object.
+	 * 
+	 * @param index
+	 *            The index of the Node for which the successors should be returned
+	 * @return The indexes of the successors of the Node at the given index
+	 */
+	public int[] getSuccessors(int index)
+	{
+		return Arrays.copyOfRange(successors, successorOffsets[index],
+			successorOffsets[index + 1]);
+	}
+
+	/**
+	 * Returns the number of neighbors of the Node at the given index. If more than one
+	 * Edge connects the Node to a neighbor, that neighbor is counted once for each Edge.
+	 * 
+	 * @param index
+	 *            The index of the Node for which the neighbor count should be returned
+	 * @return The number of neighbors of the Node at the given index
+	 */
+	public int getNeighborCount(int index)
+	{
+		return neighborOffsets[index + 1] - neighborOffsets[index];
+	}
+
+	/**
+	 * Returns the index of a neighbor of the Node at the given index.
+	 * 
+	 * @param index
+	 *            The index of the Node for which the neighbor should be returned
+	 * @param position
+	 *            The position (0 to getNeighborCount(index) - 1) of the neighbor to be
+	 *            returned
+	 * @return The index of the neighbor at the given position for the Node at the given
+	 *         index
+	 */
+	public int getNeighbor(int index, int position)
+	{
+		return neighbors[neighborOffsets[index] + position];
+	}
+
+	/**
+	 * Returns the indexes of the neighbors of the Node at the given index.
+	 * 
+	 * Ownership of the returned array is transferred to the calling Object.
+	 * 
+	 * @param index
+	 *            The index of the Node for which the neighbors should be returned
+	 * @return The indexes of the neighbors of the Node at the given index
+	 */
+	public int[] getNeighbors(int index)
+	{
+		return Arrays.copyOfRange(neighbors, neighborOffsets[index],
+			neighborOffsets[index + 1]);
+	}
+}
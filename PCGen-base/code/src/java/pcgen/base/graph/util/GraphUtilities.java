@@ -18,8 +18,11 @@
 package pcgen.base.graph.util;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import pcgen.base.graph.base.Edge;
 import pcgen.base.graph.base.Graph;
 
 /**
@@ -37,6 +40,10 @@ public final class GraphUtilities
 	/**
 	 * Checks for equality between two Graph objects.
 	 * 
+	 * The Nodes (and then the Edges) of the two Graphs are compared as multisets using a
+	 * hash-based count, so this is a linear time operation (in the number of Nodes and
+	 * Edges) regardless of the containment performance of the given Graphs.
+	 * 
 	 * @param graphA
 	 *            The first graph to be checked for equality
 	 * @param graphB
@@ -45,32 +52,116 @@ public final class GraphUtilities
 	 */
 	public static boolean equals(Graph<?, ?> graphA, Graph<?, ?> graphB)
 	{
-		List<?> nodeListA = graphA.getNodeList();
-		List<?> nodeListB = graphB.getNodeList();
-		int thisNodeSize = nodeListA.size();
-		if (thisNodeSize != nodeListB.size())
-		{
-			return false;
-		}
-		// (potentially wasteful, but defensive copy so we know it is editable)
-		nodeListB = new ArrayList<>(nodeListB);
-		if (nodeListB.retainAll(nodeListA))
+		if (graphA.getNodeCount() != graphB.getNodeCount())
 		{
-			// GraphB contains nodes not in GraphA
 			return false;
 		}
-		// Here, the node lists are identical...
 		List<?> edgeListA = graphA.getEdgeList();
 		List<?> edgeListB = graphB.getEdgeList();
-		int thisEdgeSize = edgeListA.size();
-		if (thisEdgeSize != edgeListB.size())
+		if (edgeListA.size() != edgeListB.size())
 		{
 			return false;
 		}
-		// (potentially wasteful, but defensive copy so we know it is editable)
-		edgeListB = new ArrayList<>(edgeListB);
-		// possible that GraphB contains edges not in GraphA
-		return !edgeListB.retainAll(edgeListA);
+		return sameElements(graphA.getNodeList(), graphB.getNodeList())
+			&& sameElements(edgeListA, edgeListB);
+	}
+
+	/**
+	 * Returns the difference between two Graph objects. The Nodes and Edges in the
+	 * updated Graph but not in the original Graph are reported as added, and the Nodes
+	 * and Edges in the original Graph but not in the updated Graph are reported as
+	 * removed.
+	 * 
+	 * This uses a hash-based count of the Nodes and Edges, so it is a linear time
+	 * operation (in the number of Nodes and Edges).
+	 * 
+	 * @param original
+	 *            The original Graph
+	 * @param updated
+	 *            The updated Graph, to be compared to the original Graph
+	 * @return A GraphDifference indicating the Nodes and Edges added to and removed from
+	 *         the original Graph in order to produce the updated Graph
+	 * @param <N>
+	 *            The type of Node stored in the Graphs
+	 * @param <ET>
+	 *            The type of Edge stored in the Graphs
+	 */
+	public static <N, ET extends Edge<N>> GraphDifference<N, ET> difference(
+		Graph<N, ? extends ET> original, Graph<N, ? extends ET> updated)
+	{
+		List<N> originalNodes = original.getNodeList();
+		List<N> updatedNodes = updated.getNodeList();
+		List<ET> originalEdges = new ArrayList<>(original.getEdgeList());
+		List<ET> updatedEdges = new ArrayList<>(updated.getEdgeList());
+		return new GraphDifference<>(subtract(updatedNodes, originalNodes),
+			subtract(originalNodes, updatedNodes), subtract(updatedEdges, originalEdges),
+			subtract(originalEdges, updatedEdges));
+	}
+
+	/**
+	 * Returns true if the two given Lists contain the same elements (with the same
+	 * multiplicity), ignoring order. The Lists must be the same size.
+	 */
+	private static boolean sameElements(List<?> listA, List<?> listB)
+	{
+		Map<Object, Integer> counts = count(listA);
+		for (Object item : listB)
+		{
+			Integer remaining = counts.get(item);
+			if (remaining == null)
+			{
+				// listB contains an item not in listA
+				return false;
+			}
+			if (remaining == 1)
+			{
+				counts.remove(item);
+			}
+			else
+			{
+				counts.put(item, remaining - 1);
+			}
+		}
+		//Same size, so every item in listA was matched
+		return true;
+	}
+
+	/**
+	 * Returns the items in the given "from" List which are not in the given "remove" List,
+	 * respecting multiplicity. The order of the items in the "from" List is preserved.
+	 */
+	private static <T> List<T> subtract(List<T> from, List<?> remove)
+	{
+		Map<Object, Integer> counts = count(remove);
+		List<T> result = new ArrayList<>();
+		for (T item : from)
+		{
+			Integer remaining = counts.get(item);
+			if (remaining == null)
+			{
+				result.add(item);
+			}
+			else if (remaining == 1)
+			{
+				counts.remove(item);
+			}
+			else
+			{
+				counts.put(item, remaining - 1);
+			}
+		}
+		return result;
+	}
+
+	private static Map<Object, Integer> count(List<?> list)
+	{
+		Map<Object, Integer> counts =
+				new HashMap<>(Math.max(16, (int) (list.size() / 0.75f) + 1));
+		for (Object item : list)
+		{
+			counts.merge(item, 1, Integer::sum);
+		}
+		return counts;
 	}
 
 }
@@ -0,0 +1,342 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.util;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * ParallelGraphTraversal is a utility class designed to provide parallel traversal
+ * algorithms over a GraphSnapshot, using a ForkJoinPool.
+ * 
+ * These algorithms operate on a GraphSnapshot (rather than directly on a Graph) because
+ * the Graph implementations make no guarantee of thread safety, even for read-only use.
+ * A GraphSnapshot is immutable and safe to share across the threads of the ForkJoinPool.
+ */
+public final class ParallelGraphTraversal
+{
+
+	/**
+	 * The value used to indicate a Node was not reached by a breadth-first search.
+	 */
+	public static final int UNREACHED = -1;
+
+	/**
+	 * The number of array entries below which a task will no longer be split into
+	 * smaller tasks.
+	 */
+	private static final int THRESHOLD = 512;
+
+	private ParallelGraphTraversal()
+	{
+		//Don't construct a utility class
+	}
+
+	/**
+	 * Performs a level-synchronous breadth-first search of the given GraphSnapshot,
+	 * starting at the given root Node and following the successors of each Node. Uses
+	 * the common ForkJoinPool.
+	 * 
+	 * @param snapshot
+	 *            The GraphSnapshot to be searched
+	 * @param root
+	 *            The Node at which the search should start
+	 * @return An array, indexed by the Node indexes of the GraphSnapshot, containing the
+	 *         depth (number of Edges from the root) at which each Node was found, or
+	 *         UNREACHED if the Node is not reachable from the root
+	 * @param <N>
+	 *            The type of Node stored in the GraphSnapshot
+	 */
+	public static <N> int[] breadthFirstSearch(GraphSnapshot<N> snapshot, N root)
+	{
+		return breadthFirstSearch(snapshot, root, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Performs a level-synchronous breadth-first search of the given GraphSnapshot,
+	 * starting at the given root Node and following the successors of each Node.
+	 * 
+	 * Each level of the search is fully processed (in parallel, using the given
+	 * ForkJoinPool) before the next level is started, so the depth of each Node is
+	 * deterministic even though the order in which Nodes are visited is not.
+	 * 
+	 * @param snapshot
+	 *            The GraphSnapshot to be searched
+	 * @param root
+	 *            The Node at which the search should start
+	 * @param pool
+	 *            The ForkJoinPool used to process each level of the search
+	 * @return An array, indexed by the Node indexes of the GraphSnapshot, containing the
+	 *         depth (number of Edges from the root) at which each Node was found, or
+	 *         UNREACHED if the Node is not reachable from the root
+	 * @param <N>
+	 *            The type of Node stored in the GraphSnapshot
+	 * @throws IllegalArgumentException
+	 *             if the root Node is not in the GraphSnapshot
+	 */
+	public static <N> int[] breadthFirstSearch(GraphSnapshot<N> snapshot, N root,
+		ForkJoinPool pool)
+	{
+		Objects.requireNonNull(pool);
+		int rootIndex = snapshot.getIndex(root);
+		if (rootIndex == UNREACHED)
+		{
+			throw new IllegalArgumentException(
+				"Root Node " + root + " is not present in the GraphSnapshot");
+		}
+		int nodeCount = snapshot.getNodeCount();
+		AtomicIntegerArray depth = new AtomicIntegerArray(nodeCount);
+		for (int i = 0; i < nodeCount; i++)
+		{
+			depth.set(i, UNREACHED);
+		}
+		depth.set(rootIndex, 0);
+		int[] frontier = new int[]{rootIndex};
+		int level = 0;
+		while (frontier.length > 0)
+		{
+			level++;
+			frontier = pool.invoke(
+				new ExpandTask(snapshot, depth, frontier, 0, frontier.length, level));
+		}
+		int[] result = new int[nodeCount];
+		for (int i = 0; i < nodeCount; i++)
+		{
+			result[i] = depth.get(i);
+		}
+		return result;
+	}
+
+	/**
+	 * Identifies the (weakly) connected components of the given GraphSnapshot, ignoring
+	 * the direction of any DirectionalEdge. Uses the common ForkJoinPool.
+	 * 
+	 * @param snapshot
+	 *            The GraphSnapshot for which the connected components should be
+	 *            identified
+	 * @return An array, indexed by the Node indexes of the GraphSnapshot, containing the
+	 *         component label of each Node
+	 * @param <N>
+	 *            The type of Node stored in the GraphSnapshot
+	 */
+	public static <N> int[] connectedComponents(GraphSnapshot<N> snapshot)
+	{
+		return connectedComponents(snapshot, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Identifies the (weakly) connected components of the given GraphSnapshot, ignoring
+	 * the direction of any DirectionalEdge.
+	 * 
+	 * The label of each component is the smallest Node index in that component. Two
+	 * Nodes are therefore in the same component if and only if they have the same label,
+	 * and the labels are deterministic regardless of the parallelism of the given
+	 * ForkJoinPool.
+	 * 
+	 * @param snapshot
+	 *            The GraphSnapshot for which the connected components should be
+	 *            identified
+	 * @param pool
+	 *            The ForkJoinPool used to identify the connected components
+	 * @return An array, indexed by the Node indexes of the GraphSnapshot, containing the
+	 *         component label of each Node
+	 * @param <N>
+	 *            The type of Node stored in the GraphSnapshot
+	 */
+	public static <N> int[] connectedComponents(GraphSnapshot<N> snapshot,
+		ForkJoinPool pool)
+	{
+		Objects.requireNonNull(pool);
+		int nodeCount = snapshot.getNodeCount();
+		AtomicIntegerArray parent = new AtomicIntegerArray(nodeCount);
+		for (int i = 0; i < nodeCount; i++)
+		{
+			parent.set(i, i);
+		}
+		pool.invoke(new UnionTask(snapshot, parent, 0, nodeCount));
+		int[] result = new int[nodeCount];
+		for (int i = 0; i < nodeCount; i++)
+		{
+			result[i] = find(parent, i);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the root of the given index in the given (concurrent) union-find forest.
+	 * Performs path halving as the forest is traversed.
+	 * 
+	 * The forest maintains the invariant that the parent of any index is never larger
+	 * than the index itself, so path halving can never introduce a cycle.
+	 */
+	private static int find(AtomicIntegerArray parent, int index)
+	{
+		int current = index;
+		int next = parent.get(current);
+		while (next != current)
+		{
+			int grandparent = parent.get(next);
+			parent.compareAndSet(current, next, grandparent);
+			current = next;
+			next = parent.get(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Joins the trees containing the two given indexes in the given (concurrent)
+	 * union-find forest. The root with the larger index is always linked under the root
+	 * with the smaller index, and only if it is still a root at the time of the link.
+	 */
+	private static void union(AtomicIntegerArray parent, int first, int second)
+	{
+		int a = first;
+		int b = second;
+		while (true)
+		{
+			a = find(parent, a);
+			b = find(parent, b);
+			if (a == b)
+			{
+				return;
+			}
+			int low = Math.min(a, b);
+			int high = Math.max(a, b);
+			if (parent.compareAndSet(high, high, low))
+			{
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Expands one level of a breadth-first search, returning the next frontier.
+	 */
+	private static final class ExpandTask extends RecursiveTask<int[]>
+	{
+		private final GraphSnapshot<?> snapshot;
+		private final AtomicIntegerArray depth;
+		private final int[] frontier;
+		private final int low;
+		private final int high;
+		private final int level;
+
+		private ExpandTask(GraphSnapshot<?> snapshot, AtomicIntegerArray depth,
+			int[] frontier, int low, int high, int level)
+		{
+			this.snapshot = snapshot;
+			this.depth = depth;
+			this.frontier = frontier;
+			this.low = low;
+			this.high = high;
+			this.level = level;
+		}
+
+		@Override
+		protected int[] compute()
+		{
+			if (high - low <= THRESHOLD)
+			{
+				return expand();
+			}
+			int middle = (low + high) >>> 1;
+			ExpandTask left =
+					new ExpandTask(snapshot, depth, frontier, low, middle, level);
+			left.fork();
+			int[] rightResult =
+					new ExpandTask(snapshot, depth, frontier, middle, high, level)
+						.compute();
+			int[] leftResult = left.join();
+			int[] result = Arrays.copyOf(leftResult, leftResult.length + rightResult.length);
+			System.arraycopy(rightResult, 0, result, leftResult.length, rightResult.length);
+			return result;
+		}
+
+		private int[] expand()
+		{
+			int[] found = new int[16];
+			int foundCount = 0;
+			for (int i = low; i < high; i++)
+			{
+				int node = frontier[i];
+				int successorCount = snapshot.getSuccessorCount(node);
+				for (int j = 0; j < successorCount; j++)
+				{
+					int successor = snapshot.getSuccessor(node, j);
+					if ((depth.get(successor) == UNREACHED)
+						&& depth.compareAndSet(successor, UNREACHED, level))
+					{
+						if (foundCount == found.length)
+						{
+							found = Arrays.copyOf(found, foundCount * 2);
+						}
+						found[foundCount++] = successor;
+					}
+				}
+			}
+			return Arrays.copyOf(found, foundCount);
+		}
+	}
+
+	/**
+	 * Unions each Node with all of its neighbors, for a range of Node indexes.
+	 */
+	private static final class UnionTask extends RecursiveAction
+	{
+		private final GraphSnapshot<?> snapshot;
+		private final AtomicIntegerArray parent;
+		private final int low;
+		private final int high;
+
+		private UnionTask(GraphSnapshot<?> snapshot, AtomicIntegerArray parent,
+			int low, int high)
+		{
+			this.snapshot = snapshot;
+			this.parent = parent;
+			this.low = low;
+			this.high = high;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (high - low <= THRESHOLD)
+			{
+				for (int node = low; node < high; node++)
+				{
+					int neighborCount = snapshot.getNeighborCount(node);
+					for (int j = 0; j < neighborCount; j++)
+					{
+						int neighbor = snapshot.getNeighbor(node, j);
+						//Neighbors are symmetric, so each pair only needs one union
+						if (neighbor > node)
+						{
+							union(parent, node, neighbor);
+						}
+					}
+				}
+				return;
+			}
+			int middle = (low + high) >>> 1;
+			invokeAll(new UnionTask(snapshot, parent, low, middle),
+				new UnionTask(snapshot, parent, middle, high));
+		}
+	}
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.lang;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A StringReplacer applies a table of find/replace pairs to a CharSequence in a single
+ * pass. The find Strings are compiled into an Aho-Corasick automaton, so the time taken
+ * to process the input does not depend on the number of pairs in the table.
+ * 
+ * At each position, the input is searched for the leftmost instance of any find String;
+ * if more than one find String starts at that position, the longest is used. The
+ * instance is replaced, and the search continues after the instance. Replacement text
+ * is never searched, so (unlike repeated calls to StringUtil.replaceAll) the result does
+ * not depend on the order of the pairs, and a replacement cannot be replaced by a later
+ * pair. When no find String overlaps or contains another, and no replacement contains a
+ * find String, the result is the same as repeated calls to StringUtil.replaceAll.
+ * 
+ * StringReplacer is immutable and thread-safe.
+ */
+public final class StringReplacer
+{
+
+	/**
+	 * The characters on which each state has a transition, sorted in ascending order.
+	 */
+	private final char[][] transitionChars;
+
+	/**
+	 * The target state of each transition, aligned with transitionChars.
+	 */
+	private final int[][] transitionTargets;
+
+	/**
+	 * The failure state of each state (the state for the longest proper suffix of the
+	 * characters of the state that is also a prefix of a find String).
+	 */
+	private final int[] failure;
+
+	/**
+	 * The number of characters matched by each state.
+	 */
+	private final int[] depth;
+
+	/**
+	 * The length of the longest find String that is a suffix of the characters of each
+	 * state (0 if there is none).
+	 */
+	private final int[] matchLength;
+
+	/**
+	 * The replacement for the longest find String that is a suffix of the characters of
+	 * each state (null if there is none).
+	 */
+	private final String[] replacement;
+
+	/**
+	 * The number of find/replace pairs in this StringReplacer.
+	 */
+	private final int pairCount;
+
+	private StringReplacer(Map<String, String> replacements)
+	{
+		List<Node> nodes = new ArrayList<>();
+		Node root = new Node(0);
+		nodes.add(root);
+		for (Map.Entry<String, String> entry : replacements.entrySet())
+		{
+			String find = Objects.requireNonNull(entry.getKey());
+			String replace = Objects.requireNonNull(entry.getValue());
+			if (find.isEmpty())
+			{
+				throw new IllegalArgumentException(
+					"String to find in StringReplacer may not be empty");
+			}
+			Node node = root;
+			for (int i = 0; i < find.length(); i++)
+			{
+				node = node.getOrAdd(find.charAt(i), nodes);
+			}
+			node.matchLength = find.length();
+			node.replacement = replace;
+		}
+		pairCount = replacements.size();
+		int stateCount = nodes.size();
+		transitionChars = new char[stateCount][];
+		transitionTargets = new int[stateCount][];
+		failure = new int[stateCount];
+		depth = new int[stateCount];
+		matchLength = new int[stateCount];
+		replacement = new String[stateCount];
+		//Breadth first, so the failure state of each parent is known before its children
+		Deque<Node> queue = new ArrayDeque<>();
+		queue.add(root);
+		while (!queue.isEmpty())
+		{
+			Node node = queue.remove();
+			int state = node.index;
+			int childCount = node.childCount;
+			transitionChars[state] = Arrays.copyOf(node.chars, childCount);
+			transitionTargets[state] = new int[childCount];
+			if (node.matchLength == 0)
+			{
+				//Inherit the longest match from the failure state
+				matchLength[state] = matchLength[failure[state]];
+				replacement[state] = replacement[failure[state]];
+			}
+			else
+			{
+				matchLength[state] = node.matchLength;
+				replacement[state] = node.replacement;
+			}
+			for (int i = 0; i < childCount; i++)
+			{
+				Node child = node.children[i];
+				int childState = child.index;
+				transitionTargets[state][i] = childState;
+				depth[childState] = depth[state] + 1;
+				failure[childState] = (state == 0) ? 0
+					: transition(failure[state], node.chars[i]);
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Returns a StringReplacer for the given find/replace pairs. The keys of the Map
+	 * are the Strings to find, and the values are the Strings that replace them.
+	 * 
+	 * This method is value-semantic and will not modify or maintain a reference to the
+	 * given Map.
+	 * 
+	 * @param replacements
+	 *            The Map of Strings to find to the Strings that replace them
+	 * @return A StringReplacer for the given find/replace pairs
+	 * @throws IllegalArgumentException
+	 *             if any of the Strings to find is empty
+	 * @throws NullPointerException
+	 *             if the Map contains a null key or value
+	 */
+	public static StringReplacer compile(Map<String, String> replacements)
+	{
+		return new StringReplacer(replacements);
+	}
+
+	/**
+	 * Returns the number of find/replace pairs in this StringReplacer.
+	 * 
+	 * @return The number of find/replace pairs in this StringReplacer
+	 */
+	public int getPairCount()
+	{
+		return pairCount;
+	}
+
+	/**
+	 * Returns the state reached from the given state on the given character, following
+	 * failure states as necessary.
+	 */
+	private int transition(int state, char ch)
+	{
+		int current = state;
+		while (true)
+		{
+			int index = Arrays.binarySearch(transitionChars[current], ch);
+			if (index >= 0)
+			{
+				return transitionTargets[current][index];
+			}
+			if (current == 0)
+			{
+				return 0;
+			}
+			current = failure[current];
+		}
+	}
+
+	/**
+	 * Replaces all instances of the find Strings in the given String with their
+	 * replacements.
+	 * 
+	 * @param input
+	 *            The String in which the replacements should take place
+	 * @return A String with all instances of the find Strings replaced; the given String
+	 *         if it contains no instances of the find Strings
+	 */
+	public String replaceAll(String input)
+	{
+		StringBuilder sb = new StringBuilder(input.length() + 16);
+		if (process(input, sb))
+		{
+			return sb.toString();
+		}
+		return input;
+	}
+
+	/**
+	 * Replaces all instances of the find Strings in the given CharSequence with their
+	 * replacements, appending the result to the given StringBuilder.
+	 * 
+	 * @param input
+	 *            The CharSequence in which the replacements should take place
+	 * @param target
+	 *            The StringBuilder to which the result is appended
+	 * @return The given StringBuilder
+	 */
+	public StringBuilder replaceAll(CharSequence input, StringBuilder target)
+	{
+		if (!process(input, target))
+		{
+			target.append(input);
+		}
+		return target;
+	}
+
+	/**
+	 * Appends the input with all replacements made to the given StringBuilder, returning
+	 * true if any replacement was made. If no replacement was made, nothing is appended.
+	 */
+	private boolean process(CharSequence input, StringBuilder target)
+	{
+		int length = input.length();
+		int copied = 0;
+		int state = 0;
+		int candidateStart = -1;
+		int candidateEnd = 0;
+		int candidateState = 0;
+		boolean replaced = false;
+		int i = 0;
+		while ((i < length) || (candidateStart >= 0))
+		{
+			if (i < length)
+			{
+				state = transition(state, input.charAt(i));
+				i++;
+				int matched = matchLength[state];
+				if ((matched > 0)
+					&& ((candidateStart < 0) || (i - matched <= candidateStart)))
+				{
+					candidateStart = i - matched;
+					candidateEnd = i;
+					candidateState = state;
+				}
+				if ((candidateStart < 0) || (i - depth[state] <= candidateStart))
+				{
+					//A longer or earlier instance may still be found
+					continue;
+				}
+			}
+			target.append(input, copied, candidateStart)
+				.append(replacement[candidateState]);
+			replaced = true;
+			copied = candidateEnd;
+			i = candidateEnd;
+			state = 0;
+			candidateStart = -1;
+		}
+		if (replaced)
+		{
+			target.append(input, copied, length);
+		}
+		return replaced;
+	}
+
+	/**
+	 * A Node is a state of the automaton while it is being built.
+	 */
+	private static final class Node
+	{
+		private final int index;
+		private char[] chars = new char[0];
+		private Node[] children = new Node[0];
+		private int childCount;
+		private int matchLength;
+		private String replacement;
+
+		private Node(int index)
+		{
+			this.index = index;
+		}
+
+		/**
+		 * Returns the child Node for the given character, adding it (and keeping the
+		 * characters in ascending order) if necessary.
+		 */
+		private Node getOrAdd(char ch, List<Node> nodes)
+		{
+			int location = Arrays.binarySearch(chars, 0, childCount, ch);
+			if (location >= 0)
+			{
+				return children[location];
+			}
+			int insert = -location - 1;
+			if (childCount == chars.length)
+			{
+				int newLength = Math.max(2, childCount * 2);
+				chars = Arrays.copyOf(chars, newLength);
+				children = Arrays.copyOf(children, newLength);
+			}
+			System.arraycopy(chars, insert, chars, insert + 1, childCount - insert);
+			System.arraycopy(children, insert, children, insert + 1,
+				childCount - insert);
+			Node child = new Node(nodes.size());
+			nodes.add(child);
+			chars[insert] = ch;
+			children[insert] = child;
+			childCount++;
+			return child;
+		}
+	}
+}
@@ -20,11 +20,11 @@
  */
 package pcgen.base.lang;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Objects;
 import java.util.StringJoiner;
-import java.util.StringTokenizer;
-import java.util.regex.Pattern;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
 
@@ -145,41 +145,91 @@ public final class StringUtil
 	 * @return A new String created as a result of modifying the input String to
 	 *         replace all instances of the String to find with the newStr
 	 *         replacement String
+	 * @throws IllegalArgumentException
+	 *             if the String to find is empty
 	 */
 	public static String replaceAll(String original, String find, String replace)
 	{
-		int startindex = original.indexOf(find);
-
-		if (startindex < 0)
+		if (original.indexOf(find) < 0)
 		{
 			return original;
 		}
-
-		char[] working = original.toCharArray();
 		StringBuilder sb =
 				new StringBuilder(original.length() + replace.length());
+		return replaceAll(original, find, replace, sb).toString();
+	}
 
+	/**
+	 * Replaces all of the instances of the find sequence with the replace
+	 * sequence in the given CharSequence, appending the result to the given
+	 * StringBuilder. The text between instances is appended in bulk, and no
+	 * intermediate copy of the input is made.
+	 * 
+	 * @param original
+	 *            The input CharSequence in which the replacement should take
+	 *            place
+	 * @param find
+	 *            The sequence to find within the input, and which will be
+	 *            replaced by the replace sequence
+	 * @param replace
+	 *            The sequence that replaces the sequence to find within the
+	 *            input
+	 * @param target
+	 *            The StringBuilder to which the result is appended
+	 * @return The given StringBuilder
+	 * @throws IllegalArgumentException
+	 *             if the sequence to find is empty
+	 */
+	public static StringBuilder replaceAll(CharSequence original,
+		CharSequence find, CharSequence replace, StringBuilder target)
+	{
+		int findLength = find.length();
+		if (findLength == 0)
+		{
+			throw new IllegalArgumentException(
+				"String to find in replaceAll may not be empty");
+		}
 		int currindex = 0;
-
+		int startindex = indexOf(original, find, 0);
 		while (startindex > -1)
 		{
-			for (int i = currindex; i < startindex; ++i)
-			{
-				sb.append(working[i]);
-			}
-
-			currindex = startindex;
-			sb.append(replace);
-			currindex += find.length();
-			startindex = original.indexOf(find, currindex);
+			target.append(original, currindex, startindex).append(replace);
+			currindex = startindex + findLength;
+			startindex = indexOf(original, find, currindex);
 		}
+		return target.append(original, currindex, original.length());
+	}
 
-		for (int i = currindex; i < working.length; ++i)
+	/**
+	 * Returns the index of the first instance of the (non-empty) find sequence
+	 * in the given CharSequence at or after the given index, or -1 if there is
+	 * no such instance.
+	 */
+	private static int indexOf(CharSequence seq, CharSequence find, int from)
+	{
+		if ((seq instanceof String) && (find instanceof String))
 		{
-			sb.append(working[i]);
+			return ((String) seq).indexOf((String) find, from);
 		}
-
-		return sb.toString();
+		char first = find.charAt(0);
+		int findLength = find.length();
+		int last = seq.length() - findLength;
+		for (int i = from; i <= last; i++)
+		{
+			if (seq.charAt(i) == first)
+			{
+				int j = 1;
+				while ((j < findLength) && (seq.charAt(i + j) == find.charAt(j)))
+				{
+					j++;
+				}
+				if (j == findLength)
+				{
+					return i;
+				}
+			}
+		}
+		return -1;
 	}
 
 	/**
@@ -194,24 +244,41 @@ public final class StringUtil
 	 *         otherwise
 	 */
 	public static boolean hasBalancedParens(String string)
+	{
+		return hasBalancedParens((CharSequence) string);
+	}
+
+	/**
+	 * Tests to see if the given CharSequence has balanced parenthesis. Balanced
+	 * means that it has an equal number of open and close parenthesis, and also
+	 * that the parenthesis are in a "sensible" format. "Sensible" means that a
+	 * close parenthesis cannot appear before an open parenthesis.
+	 * 
+	 * @param string
+	 *            The CharSequence to be tested to see if it has balanced
+	 *            parenthesis
+	 * @return true if the given CharSequence has balanced parenthesis; false
+	 *         otherwise
+	 */
+	public static boolean hasBalancedParens(CharSequence string)
 	{
 		int level = 0;
-		StringTokenizer st = new StringTokenizer(string, "()", true);
-		while (st.hasMoreTokens())
+		int length = string.length();
+		for (int i = 0; i < length; i++)
 		{
-			String tok = st.nextToken();
-			if (")".equals(tok))
+			char ch = string.charAt(i);
+			if (ch == ')')
 			{
 				level--;
+				if (level < 0)
+				{
+					return false;
+				}
 			}
-			else if ("(".equals(tok))
+			else if (ch == '(')
 			{
 				level++;
 			}
-			if (level < 0)
-			{
-				return false;
-			}
 		}
 		return level == 0;
 	}
@@ -241,11 +308,39 @@ public final class StringUtil
 	 * @return true if the given value has "Valid" separators; false otherwise
 	 */
 	public static boolean hasValidSeparators(String value, char separator)
+	{
+		return hasValidSeparators((CharSequence) value, separator);
+	}
+
+	/**
+	 * Returns true if the given value has "Valid" separators. This means it does not
+	 * start with or end with separators. It also means it does not have two subsequent
+	 * separators without any intervening text.
+	 * 
+	 * @param value
+	 *            The CharSequence to be checked if the separators are valid
+	 *            (must not be empty)
+	 * @param separator
+	 *            The separator character to be checked
+	 * @return true if the given value has "Valid" separators; false otherwise
+	 */
+	public static boolean hasValidSeparators(CharSequence value, char separator)
 	{
 		//assume not empty due to checks on instructions
-		return (value.charAt(0) != separator)
-			&& (value.charAt(value.length() - 1) != separator)
-			&& (!value.contains(String.valueOf(new char[]{separator, separator})));
+		int last = value.length() - 1;
+		if ((value.charAt(0) == separator) || (value.charAt(last) == separator))
+		{
+			return false;
+		}
+		for (int i = 1; i < last; i++)
+		{
+			if ((value.charAt(i) == separator)
+				&& (value.charAt(i + 1) == separator))
+			{
+				return false;
+			}
+		}
+		return true;
 	}
 
 	/**
@@ -260,7 +355,138 @@ public final class StringUtil
 	 */
 	public static String[] split(String inputStr, char separator)
 	{
-		return inputStr.split(Pattern.quote(Character.toString(separator)));
+		String[] items = new String[split(inputStr, separator, null, null)];
+		split(inputStr, separator, items, null);
+		return items;
+	}
+
+	/**
+	 * Splits the given CharSequence with the given separator character, placing the
+	 * items into the given array. The items are the same as those returned by
+	 * split(String, char) (so trailing empty items are not included).
+	 * 
+	 * If there are more items than will fit in the given array, only the first items
+	 * are placed into the array; the returned count can be used to provide a larger
+	 * array. Entries of the array beyond the returned count are not modified.
+	 * 
+	 * @param input
+	 *            The input CharSequence to be split
+	 * @param separator
+	 *            The separator character for how the split should occur
+	 * @param target
+	 *            The array into which the items are placed
+	 * @return The number of items in the input CharSequence
+	 */
+	public static int split(CharSequence input, char separator, String[] target)
+	{
+		return split(input, separator, Objects.requireNonNull(target), null);
+	}
+
+	/**
+	 * Splits the given CharSequence with the given separator character, placing the
+	 * offsets of the items into the given array. The start (inclusive) of item i is
+	 * placed at index 2*i and the end (exclusive) at index 2*i+1, so no String is
+	 * created for any item. The items are the same as those returned by split(String,
+	 * char) (so trailing empty items are not included).
+	 * 
+	 * If there are more items than will fit in the given array, only the offsets of
+	 * the first items are placed into the array; the returned count can be used to
+	 * provide a larger array.
+	 * 
+	 * @param input
+	 *            The input CharSequence to be split
+	 * @param separator
+	 *            The separator character for how the split should occur
+	 * @param offsets
+	 *            The array into which the start and end offsets of the items are
+	 *            placed
+	 * @return The number of items in the input CharSequence
+	 */
+	public static int splitOffsets(CharSequence input, char separator, int[] offsets)
+	{
+		return split(input, separator, null, Objects.requireNonNull(offsets));
+	}
+
+	/**
+	 * Splits the given CharSequence, placing the items and/or offsets into the given
+	 * arrays (either of which may be null), and returning the number of items.
+	 */
+	private static int split(CharSequence input, char separator, String[] items,
+		int[] offsets)
+	{
+		int end = input.length();
+		//Trailing empty items are not included (as with String.split)
+		while ((end > 0) && (input.charAt(end - 1) == separator))
+		{
+			end--;
+		}
+		if ((end == 0) && (input.length() > 0))
+		{
+			return 0;
+		}
+		int count = 0;
+		int start = 0;
+		for (int i = 0; i <= end; i++)
+		{
+			if ((i == end) || (input.charAt(i) == separator))
+			{
+				if ((items != null) && (count < items.length))
+				{
+					items[count] = input.subSequence(start, i).toString();
+				}
+				if ((offsets != null) && (2 * count + 1 < offsets.length))
+				{
+					offsets[2 * count] = start;
+					offsets[2 * count + 1] = i;
+				}
+				count++;
+				start = i + 1;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Appends the given items to the given Appendable, separated by the given
+	 * separator. CharSequence items are appended directly; other items are converted
+	 * to Strings using .toString().
+	 * 
+	 * @param items
+	 *            The items to be joined
+	 * @param separator
+	 *            The separator appended between items
+	 * @param target
+	 *            The Appendable to which the items are appended
+	 * @param <T>
+	 *            The type of the Appendable
+	 * @return The given Appendable
+	 * @throws IOException
+	 *             if the Appendable throws an IOException
+	 * @throws NullPointerException
+	 *             if any of the items is null
+	 */
+	public static <T extends Appendable> T join(Iterable<?> items,
+		CharSequence separator, T target) throws IOException
+	{
+		boolean needsSeparator = false;
+		for (Object item : items)
+		{
+			if (needsSeparator)
+			{
+				target.append(separator);
+			}
+			needsSeparator = true;
+			if (item instanceof CharSequence)
+			{
+				target.append((CharSequence) item);
+			}
+			else
+			{
+				//This .toString() prevents null from working
+				target.append(item.toString());
+			}
+		}
+		return target;
 	}
 
 }
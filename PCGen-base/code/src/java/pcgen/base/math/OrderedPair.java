@@ -41,12 +41,35 @@ public class OrderedPair
 {
 
 	/**
-	 * Stores the x value of this OrderedPair.
+	 * The lowest x or y value of the interned OrderedPair objects.
+	 */
+	private static final int CACHE_LOW = -16;
+
+	/**
+	 * The number of x (and y) values of the interned OrderedPair objects.
+	 */
+	private static final int CACHE_SIZE = 128;
+
+	/**
+	 * The interned OrderedPair objects with small integer x and y values, indexed by
+	 * (x - CACHE_LOW) * CACHE_SIZE + (y - CACHE_LOW). These are populated on first use;
+	 * since the IntPair objects are immutable, a race to populate an entry is benign.
+	 */
+	private static final OrderedPair[] SMALL_PAIRS =
+			new OrderedPair[CACHE_SIZE * CACHE_SIZE];
+
+	/**
+	 * Indicates a value that could not be parsed as a small integer.
+	 */
+	private static final long NOT_SMALL_INT = Long.MIN_VALUE;
+
+	/**
+	 * Stores the x value of this OrderedPair. null for the primitive representations.
 	 */
 	private final Number x;
 
 	/**
-	 * Stores the y value of this OrderedPair.
+	 * Stores the y value of this OrderedPair. null for the primitive representations.
 	 */
 	private final Number y;
 
@@ -64,6 +87,63 @@ public class OrderedPair
 		this.y = Objects.requireNonNull(y);
 	}
 
+	/**
+	 * Constructs a new OrderedPair for one of the primitive representations, which
+	 * store their own x and y values.
+	 */
+	private OrderedPair()
+	{
+		x = null;
+		y = null;
+	}
+
+	/**
+	 * Returns an OrderedPair with the given integer x and y values. The OrderedPair is
+	 * equal to an OrderedPair constructed with Integer objects of the same values, but
+	 * does not store the values as Integer objects. OrderedPair objects with small x and
+	 * y values are interned.
+	 * 
+	 * @param x
+	 *            The x value of the OrderedPair
+	 * @param y
+	 *            The y value of the OrderedPair
+	 * @return An OrderedPair with the given integer x and y values
+	 */
+	public static OrderedPair valueOf(int x, int y)
+	{
+		int xIndex = x - CACHE_LOW;
+		int yIndex = y - CACHE_LOW;
+		if ((xIndex >= 0) && (xIndex < CACHE_SIZE) && (yIndex >= 0)
+			&& (yIndex < CACHE_SIZE))
+		{
+			int index = xIndex * CACHE_SIZE + yIndex;
+			OrderedPair pair = SMALL_PAIRS[index];
+			if (pair == null)
+			{
+				pair = new IntPair(x, y);
+				SMALL_PAIRS[index] = pair;
+			}
+			return pair;
+		}
+		return new IntPair(x, y);
+	}
+
+	/**
+	 * Returns an OrderedPair with the given double x and y values. The OrderedPair is
+	 * equal to an OrderedPair constructed with Double objects of the same values, but
+	 * does not store the values as Double objects.
+	 * 
+	 * @param x
+	 *            The x value of the OrderedPair
+	 * @param y
+	 *            The y value of the OrderedPair
+	 * @return An OrderedPair with the given double x and y values
+	 */
+	public static OrderedPair valueOf(double x, double y)
+	{
+		return new DoublePair(x, y);
+	}
+
 	/**
 	 * Returns the x value of this OrderedPair at full (original) precision.
 	 * This means the incoming Number is returned.
@@ -98,6 +178,10 @@ public class OrderedPair
 	 * Converts a String representation of a OrderedPair into a OrderedPair
 	 * object.
 	 * 
+	 * Values are Integer objects if possible, otherwise BigDecimal objects (see
+	 * NumberUtilities.getPreciseNumber). Integer values are parsed directly from the
+	 * given String, without creating intermediate Strings.
+	 * 
 	 * @param value
 	 *            The String representation to be converted into a OrderedPair
 	 * @return a OrderedPair object with the x and y values defined by the given
@@ -107,12 +191,20 @@ public class OrderedPair
 	 */
 	public static OrderedPair valueOf(String value)
 	{
-		int commaLoc = value.indexOf(',');
-		if (commaLoc != value.lastIndexOf(','))
+		int length = value.length();
+		int commaLoc = -1;
+		for (int i = 0; i < length; i++)
 		{
-			throw new IllegalArgumentException(
-				"OrderedPair must have only one comma.  "
-					+ "Must be of the form: <num>,<num>");
+			if (value.charAt(i) == ',')
+			{
+				if (commaLoc != -1)
+				{
+					throw new IllegalArgumentException(
+						"OrderedPair must have only one comma.  "
+							+ "Must be of the form: <num>,<num>");
+				}
+				commaLoc = i;
+			}
 		}
 		if (commaLoc == -1)
 		{
@@ -126,37 +218,103 @@ public class OrderedPair
 				"OrderedPair should not start with a comma.  "
 					+ "Must be of the form: <num>,<num>");
 		}
-		if (commaLoc == value.length() - 1)
+		if (commaLoc == length - 1)
 		{
 			throw new IllegalArgumentException(
 				"OrderedPair should not end with a comma.  "
 					+ "Must be of the form: <num>,<num>");
 		}
+		long smallX = parseSmallInt(value, 0, commaLoc);
+		long smallY = parseSmallInt(value, commaLoc + 1, length);
+		if ((smallX != NOT_SMALL_INT) && (smallY != NOT_SMALL_INT))
+		{
+			return valueOf((int) smallX, (int) smallY);
+		}
 		Number width;
-		try
+		if (smallX == NOT_SMALL_INT)
 		{
-			String widthString = value.substring(0, commaLoc).trim();
-			width = NumberUtilities.getPreciseNumber(widthString);
+			try
+			{
+				String widthString = value.substring(0, commaLoc).trim();
+				width = NumberUtilities.getPreciseNumber(widthString);
+			}
+			catch (NumberFormatException nfe)
+			{
+				throw new IllegalArgumentException(
+					"Misunderstood first value in OrderedPair: " + value, nfe);
+			}
 		}
-		catch (NumberFormatException nfe)
+		else
 		{
-			throw new IllegalArgumentException(
-				"Misunderstood first value in OrderedPair: " + value, nfe);
+			width = Integer.valueOf((int) smallX);
 		}
 		Number height;
-		try
+		if (smallY == NOT_SMALL_INT)
 		{
-			String heightString = value.substring(commaLoc + 1).trim();
-			height = NumberUtilities.getPreciseNumber(heightString);
+			try
+			{
+				String heightString = value.substring(commaLoc + 1).trim();
+				height = NumberUtilities.getPreciseNumber(heightString);
+			}
+			catch (NumberFormatException nfe)
+			{
+				throw new IllegalArgumentException(
+					"Misunderstood second value in OrderedPair: " + value, nfe);
+			}
 		}
-		catch (NumberFormatException nfe)
+		else
 		{
-			throw new IllegalArgumentException(
-				"Misunderstood second value in OrderedPair: " + value, nfe);
+			height = Integer.valueOf((int) smallY);
 		}
 		return new OrderedPair(width, height);
 	}
 
+	/**
+	 * Parses the (trimmed) characters of the given String between the given start
+	 * (inclusive) and end (exclusive) as an integer, if they are an optional sign
+	 * followed by ASCII digits and are short enough that
+	 * NumberUtilities.getPreciseNumber would return an Integer. Returns NOT_SMALL_INT
+	 * otherwise, in which case NumberUtilities.getPreciseNumber should be used.
+	 */
+	private static long parseSmallInt(String value, int start, int end)
+	{
+		while ((start < end) && (value.charAt(start) <= ' '))
+		{
+			start++;
+		}
+		while ((end > start) && (value.charAt(end - 1) <= ' '))
+		{
+			end--;
+		}
+		//Matches the length limit of NumberUtilities.getPreciseNumber
+		if ((end == start) || (end - start >= 8))
+		{
+			return NOT_SMALL_INT;
+		}
+		int i = start;
+		char first = value.charAt(i);
+		boolean negative = first == '-';
+		if (negative || (first == '+'))
+		{
+			i++;
+			if (i == end)
+			{
+				return NOT_SMALL_INT;
+			}
+		}
+		int result = 0;
+		for (; i < end; i++)
+		{
+			char c = value.charAt(i);
+			if ((c < '0') || (c > '9'))
+			{
+				return NOT_SMALL_INT;
+			}
+			result = result * 10 + (c - '0');
+		}
+		return negative ? -result : result;
+	}
+
 	/**
 	 * Returns a String representation of this OrderedPair.
 	 * 
@@ -174,13 +332,13 @@ public class OrderedPair
 	@Override
 	public String toString()
 	{
-		return x + "," + y;
+		return getPreciseX() + "," + getPreciseY();
 	}
 
 	@Override
 	public int hashCode()
 	{
-		return x.hashCode() ^ y.hashCode();
+		return getPreciseX().hashCode() ^ getPreciseY().hashCode();
 	}
 
 	@Override
@@ -193,8 +351,117 @@ public class OrderedPair
 		if (o instanceof OrderedPair)
 		{
 			OrderedPair other = (OrderedPair) o;
-			return other.x.equals(x) && other.y.equals(y);
+			return other.getPreciseX().equals(getPreciseX())
+				&& other.getPreciseY().equals(getPreciseY());
 		}
 		return false;
 	}
+
+	/**
+	 * An IntPair is an OrderedPair that stores integer x and y values as primitives.
+	 * It is equal to (and has the same hashCode as) an OrderedPair storing Integer
+	 * objects of the same values.
+	 */
+	private static final class IntPair extends OrderedPair
+	{
+		private final int intX;
+		private final int intY;
+
+		private IntPair(int x, int y)
+		{
+			intX = x;
+			intY = y;
+		}
+
+		@Override
+		public Number getPreciseX()
+		{
+			return Integer.valueOf(intX);
+		}
+
+		@Override
+		public Number getPreciseY()
+		{
+			return Integer.valueOf(intY);
+		}
+
+		@Override
+		public String toString()
+		{
+			return intX + "," + intY;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Integer.hashCode(intX) ^ Integer.hashCode(intY);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (o instanceof IntPair)
+			{
+				IntPair other = (IntPair) o;
+				return (other.intX == intX) && (other.intY == intY);
+			}
+			return super.equals(o);
+		}
+	}
+
+	/**
+	 * A DoublePair is an OrderedPair that stores double x and y values as primitives.
+	 * It is equal to (and has the same hashCode as) an OrderedPair storing Double
+	 * objects of the same values.
+	 */
+	private static final class DoublePair extends OrderedPair
+	{
+		private final double doubleX;
+		private final double doubleY;
+
+		private DoublePair(double x, double y)
+		{
+			doubleX = x;
+			doubleY = y;
+		}
+
+		@Override
+		public Number getPreciseX()
+		{
+			return Double.valueOf(doubleX);
+		}
+
+		@Override
+		public Number getPreciseY()
+		{
+			return Double.valueOf(doubleY);
+		}
+
+		@Override
+		public String toString()
+		{
+			return doubleX + "," + doubleY;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return Double.hashCode(doubleX) ^ Double.hashCode(doubleY);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			if (o instanceof DoublePair)
+			{
+				//Same semantics as Double.equals
+				DoublePair other = (DoublePair) o;
+				return (Double.doubleToLongBits(other.doubleX) == Double
+					.doubleToLongBits(doubleX))
+					&& (Double.doubleToLongBits(other.doubleY) == Double
+						.doubleToLongBits(doubleY));
+			}
+			return super.equals(o);
+		}
+	}
 }
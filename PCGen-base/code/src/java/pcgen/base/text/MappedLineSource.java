@@ -0,0 +1,329 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.text;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * A MappedLineSource provides the lines of a file that has been memory-mapped (using
+ * FileChannel.map). The line boundaries are found by scanning the bytes of the file,
+ * so the file is not decoded into Strings until a line is requested.
+ * 
+ * Lines are terminated by a line feed, a carriage return, or a carriage return followed
+ * by a line feed (as with BufferedReader.readLine()). The Charset of the file must encode
+ * carriage return and line feed as the single bytes used by ASCII (as UTF-8 and the
+ * ISO-8859 family do), so that a line boundary can never appear within another
+ * character.
+ * 
+ * The lines can be processed in parallel on a ForkJoinPool (see process and separate).
+ * The file is split into chunks at line boundaries, and the results are always returned
+ * in the original line order.
+ * 
+ * MappedLineSource is thread-safe; the file should not be modified while it is mapped.
+ */
+public final class MappedLineSource
+{
+
+	/**
+	 * The (approximate) number of bytes of the file processed as a single task when
+	 * processing in parallel.
+	 */
+	private static final int CHUNK_BYTES = 64 * 1024;
+
+	/**
+	 * The bytes of the file.
+	 */
+	private final ByteBuffer bytes;
+
+	/**
+	 * The Charset used to decode the lines of the file.
+	 */
+	private final Charset charset;
+
+	/**
+	 * The position of the first byte of each line.
+	 */
+	private final int[] lineStart;
+
+	/**
+	 * The position after the last byte (excluding the line terminator) of each line.
+	 */
+	private final int[] lineEnd;
+
+	private MappedLineSource(ByteBuffer bytes, Charset charset)
+	{
+		this.bytes = bytes;
+		this.charset = charset;
+		int limit = bytes.limit();
+		int[] starts = new int[64];
+		int[] ends = new int[64];
+		int count = 0;
+		int start = 0;
+		int i = 0;
+		while (i < limit)
+		{
+			byte b = bytes.get(i);
+			if ((b == '\n') || (b == '\r'))
+			{
+				if (count == starts.length)
+				{
+					starts = Arrays.copyOf(starts, count * 2);
+					ends = Arrays.copyOf(ends, count * 2);
+				}
+				starts[count] = start;
+				ends[count] = i;
+				count++;
+				i++;
+				if ((b == '\r') && (i < limit) && (bytes.get(i) == '\n'))
+				{
+					i++;
+				}
+				start = i;
+			}
+			else
+			{
+				i++;
+			}
+		}
+		if (start < limit)
+		{
+			//Last line without a terminator
+			starts = Arrays.copyOf(starts, count + 1);
+			ends = Arrays.copyOf(ends, count + 1);
+			starts[count] = start;
+			ends[count] = limit;
+			count++;
+		}
+		lineStart = Arrays.copyOf(starts, count);
+		lineEnd = Arrays.copyOf(ends, count);
+	}
+
+	/**
+	 * Returns a MappedLineSource for the given file, which will be decoded with the given
+	 * Charset.
+	 * 
+	 * @param path
+	 *            The path of the file to be mapped
+	 * @param charset
+	 *            The Charset used to decode the lines of the file
+	 * @return A MappedLineSource for the given file
+	 * @throws IOException
+	 *             if the file cannot be opened or mapped
+	 * @throws IllegalArgumentException
+	 *             if the Charset does not encode carriage return and line feed as
+	 *             single ASCII bytes, or if the file is too large to be mapped
+	 */
+	public static MappedLineSource open(Path path, Charset charset) throws IOException
+	{
+		Objects.requireNonNull(path);
+		byte[] terminators = "\r\n".getBytes(charset);
+		if (!Arrays.equals(new byte[]{'\r', '\n'}, terminators))
+		{
+			throw new IllegalArgumentException(
+				"MappedLineSource requires a Charset with ASCII line terminators, not: "
+					+ charset);
+		}
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+			{
+				throw new IllegalArgumentException(
+					"File " + path + " is too large to be mapped: " + size + " bytes");
+			}
+			return new MappedLineSource(
+				channel.map(FileChannel.MapMode.READ_ONLY, 0, size), charset);
+		}
+	}
+
+	/**
+	 * Returns the number of lines in the file.
+	 * 
+	 * @return The number of lines in the file
+	 */
+	public int getLineCount()
+	{
+		return lineStart.length;
+	}
+
+	/**
+	 * Returns the line at the given index (excluding the line terminator).
+	 * 
+	 * @param index
+	 *            The index of the line to be returned
+	 * @return The line at the given index
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public String getLine(int index)
+	{
+		if ((index < 0) || (index >= lineStart.length))
+		{
+			throw new IndexOutOfBoundsException(
+				"Line " + index + " requested, file has " + lineStart.length + " lines");
+		}
+		byte[] scratch = new byte[lineEnd[index] - lineStart[index]];
+		return decode(bytes.duplicate(), index, scratch);
+	}
+
+	/**
+	 * Decodes the line at the given index, using the given view of the bytes of the file
+	 * and the given scratch buffer (which must be at least as long as the line).
+	 */
+	private String decode(ByteBuffer view, int index, byte[] scratch)
+	{
+		int length = lineEnd[index] - lineStart[index];
+		view.position(lineStart[index]);
+		view.get(scratch, 0, length);
+		return new String(scratch, 0, length, charset);
+	}
+
+	/**
+	 * Returns a new List containing the lines of the file, in order.
+	 * 
+	 * @return A new List containing the lines of the file
+	 */
+	public List<String> getLines()
+	{
+		return process(Function.identity(), null);
+	}
+
+	/**
+	 * Processes each line of the file with the given Function, returning the results in
+	 * the original line order. If a ForkJoinPool is provided, the file is split into
+	 * chunks at line boundaries and the chunks are processed in parallel; otherwise the
+	 * lines are processed sequentially in the calling thread.
+	 * 
+	 * @param lineProcessor
+	 *            The Function used to process each line of the file; must be thread-safe
+	 *            if a ForkJoinPool is provided
+	 * @param pool
+	 *            The ForkJoinPool used to process the lines in parallel (may be null to
+	 *            process the lines sequentially)
+	 * @param <R>
+	 *            The format of the result of processing each line
+	 * @return A List of the results of processing each line, in the original line order
+	 */
+	public <R> List<R> process(Function<String, R> lineProcessor, ForkJoinPool pool)
+	{
+		Objects.requireNonNull(lineProcessor);
+		Object[] results = new Object[lineStart.length];
+		ChunkTask<R> task =
+				new ChunkTask<>(lineProcessor, results, 0, lineStart.length);
+		if (pool == null)
+		{
+			task.processLines();
+		}
+		else
+		{
+			pool.invoke(task);
+		}
+		@SuppressWarnings("unchecked")
+		List<R> list = (List<R>) Arrays.asList(results);
+		return list;
+	}
+
+	/**
+	 * Separates each line of the file into its items, using a ParsingSeparator built by
+	 * the given Function (for example, CSVUtilities::generateCSVSeparator). The results
+	 * are returned in the original line order.
+	 * 
+	 * @param separatorBuilder
+	 *            The Function used to build the ParsingSeparator for each line
+	 * @param pool
+	 *            The ForkJoinPool used to process the lines in parallel (may be null to
+	 *            process the lines sequentially)
+	 * @return A List containing, for each line, the List of items in that line
+	 * @throws ParsingSeparator.GroupingMismatchException
+	 *             if any line has mismatched grouping characters
+	 */
+	public List<List<String>> separate(
+		Function<String, ParsingSeparator> separatorBuilder, ForkJoinPool pool)
+	{
+		Objects.requireNonNull(separatorBuilder);
+		return process(line -> {
+			List<String> items = new ArrayList<>();
+			separatorBuilder.apply(line).forEachRemaining(items::add);
+			return items;
+		}, pool);
+	}
+
+	/**
+	 * A ChunkTask processes a range of lines of the file, splitting the range in half
+	 * (at a line boundary) while it contains more than CHUNK_BYTES bytes.
+	 */
+	private final class ChunkTask<R> extends RecursiveAction
+	{
+		private final Function<String, R> lineProcessor;
+		private final Object[] results;
+		private final int low;
+		private final int high;
+
+		private ChunkTask(Function<String, R> lineProcessor, Object[] results, int low,
+			int high)
+		{
+			this.lineProcessor = lineProcessor;
+			this.results = results;
+			this.low = low;
+			this.high = high;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if ((high - low > 1)
+				&& (lineEnd[high - 1] - lineStart[low] > CHUNK_BYTES))
+			{
+				int mid = (low + high) >>> 1;
+				invokeAll(new ChunkTask<>(lineProcessor, results, low, mid),
+					new ChunkTask<>(lineProcessor, results, mid, high));
+			}
+			else
+			{
+				processLines();
+			}
+		}
+
+		private void processLines()
+		{
+			ByteBuffer view = bytes.duplicate();
+			byte[] scratch = new byte[256];
+			for (int i = low; i < high; i++)
+			{
+				int length = lineEnd[i] - lineStart[i];
+				if (scratch.length < length)
+				{
+					scratch = new byte[Math.max(scratch.length * 2, length)];
+				}
+				results[i] = lineProcessor.apply(decode(view, i, scratch));
+			}
+		}
+	}
+}
@@ -0,0 +1,453 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.text;
+
+import java.text.ChoiceFormat;
+import java.text.DateFormat;
+import java.text.FieldPosition;
+import java.text.Format;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * A MessageTemplate is a compiled form of a java.text.MessageFormat pattern. The pattern
+ * is parsed once (including the patterns of any choices embedded in the pattern), so the
+ * required argument count is known without further analysis, and formatting does not need
+ * to re-parse choice results that refer to other arguments.
+ * 
+ * A MessageTemplate produces the same output as a MessageFormat with the same pattern
+ * and Locale. Unlike MessageFormat, a MessageTemplate is immutable and thread-safe: the
+ * Format objects used to format Number and Date arguments are held per thread. It can
+ * also format into a StringBuilder provided by the caller, so a single StringBuilder can
+ * be reused across many messages.
+ */
+public final class MessageTemplate
+{
+
+	/**
+	 * The pattern from which this MessageTemplate was compiled.
+	 */
+	private final String pattern;
+
+	/**
+	 * The Locale used to format arguments.
+	 */
+	private final Locale locale;
+
+	/**
+	 * The literal text of the pattern, with quotes removed. literals[i] precedes the
+	 * i-th argument; the last item follows the last argument.
+	 */
+	private final String[] literals;
+
+	/**
+	 * The argument number of each argument in the pattern, in order of appearance.
+	 */
+	private final int[] argumentNumbers;
+
+	/**
+	 * The Format of each argument in the pattern (null if the argument has no Format or
+	 * is a choice).
+	 */
+	private final Format[] formats;
+
+	/**
+	 * The Choice of each argument in the pattern (null if the argument is not a choice).
+	 */
+	private final Choice[] choices;
+
+	/**
+	 * The number of arguments required by this MessageTemplate, including those
+	 * referred to by any choice.
+	 */
+	private final int requiredArgumentCount;
+
+	/**
+	 * The per-thread copies of the Format objects used by this MessageTemplate. The
+	 * values do not refer to this MessageTemplate, so a MessageTemplate used from a
+	 * long-lived thread (such as a pool thread) can still be garbage collected.
+	 */
+	private final ThreadLocal<ThreadFormats> threadFormats;
+
+	private MessageTemplate(String pattern, Locale locale)
+	{
+		this.pattern = pattern;
+		this.locale = locale;
+		//Validates the pattern and builds the Format objects
+		Format[] patternFormats = new MessageFormat(pattern, locale).getFormats();
+		literals = new String[patternFormats.length + 1];
+		argumentNumbers = new int[patternFormats.length];
+		parse();
+		formats = new Format[patternFormats.length];
+		choices = new Choice[patternFormats.length];
+		int required = 0;
+		for (int i = 0; i < patternFormats.length; i++)
+		{
+			required = Math.max(required, argumentNumbers[i] + 1);
+			Format format = patternFormats[i];
+			if (format instanceof ChoiceFormat)
+			{
+				choices[i] = new Choice((ChoiceFormat) format, locale);
+				required = Math.max(required, choices[i].requiredArgumentCount);
+			}
+			else
+			{
+				formats[i] = format;
+			}
+		}
+		requiredArgumentCount = required;
+		Format[] prototypes = formats;
+		threadFormats =
+				ThreadLocal.withInitial(() -> new ThreadFormats(prototypes, locale));
+	}
+
+	/**
+	 * Parses the literal text and argument numbers from the pattern, following the
+	 * rules of MessageFormat.applyPattern. The pattern must already have been validated
+	 * by MessageFormat.
+	 */
+	private void parse()
+	{
+		StringBuilder literal = new StringBuilder();
+		StringBuilder index = new StringBuilder();
+		int argument = 0;
+		boolean inArgument = false;
+		boolean inQuote = false;
+		int part = 0;
+		int braceStack = 0;
+		int length = pattern.length();
+		for (int i = 0; i < length; i++)
+		{
+			char ch = pattern.charAt(i);
+			if (!inArgument)
+			{
+				if (ch == '\'')
+				{
+					if ((i + 1 < length) && (pattern.charAt(i + 1) == '\''))
+					{
+						literal.append(ch);
+						i++;
+					}
+					else
+					{
+						inQuote = !inQuote;
+					}
+				}
+				else if ((ch == '{') && !inQuote)
+				{
+					inArgument = true;
+					part = 0;
+					index.setLength(0);
+				}
+				else
+				{
+					literal.append(ch);
+				}
+			}
+			else if (inQuote)
+			{
+				inQuote = (ch != '\'');
+			}
+			else if ((ch == ',') && (part < 2))
+			{
+				part++;
+			}
+			else if (ch == '{')
+			{
+				braceStack++;
+			}
+			else if ((ch == '}') && (braceStack == 0))
+			{
+				literals[argument] = literal.toString();
+				argumentNumbers[argument] = Integer.parseInt(index.toString());
+				argument++;
+				literal.setLength(0);
+				inArgument = false;
+			}
+			else if (ch == '}')
+			{
+				braceStack--;
+			}
+			else
+			{
+				inQuote = (ch == '\'');
+				if (part == 0)
+				{
+					index.append(ch);
+				}
+			}
+		}
+		literals[argument] = literal.toString();
+	}
+
+	/**
+	 * Compiles the given MessageFormat pattern into a MessageTemplate, using the default
+	 * Locale for formatting.
+	 * 
+	 * @param pattern
+	 *            The MessageFormat pattern to be compiled
+	 * @return A MessageTemplate for the given pattern
+	 * @throws IllegalArgumentException
+	 *             if the pattern is not a valid MessageFormat pattern
+	 */
+	public static MessageTemplate compile(String pattern)
+	{
+		return compile(pattern, Locale.getDefault(Locale.Category.FORMAT));
+	}
+
+	/**
+	 * Compiles the given MessageFormat pattern into a MessageTemplate, using the given
+	 * Locale for formatting.
+	 * 
+	 * @param pattern
+	 *            The MessageFormat pattern to be compiled
+	 * @param locale
+	 *            The Locale used to format arguments
+	 * @return A MessageTemplate for the given pattern
+	 * @throws IllegalArgumentException
+	 *             if the pattern is not a valid MessageFormat pattern
+	 */
+	public static MessageTemplate compile(String pattern, Locale locale)
+	{
+		return new MessageTemplate(Objects.requireNonNull(pattern),
+			Objects.requireNonNull(locale));
+	}
+
+	/**
+	 * Returns the pattern from which this MessageTemplate was compiled.
+	 * 
+	 * @return The pattern from which this MessageTemplate was compiled
+	 */
+	public String getPattern()
+	{
+		return pattern;
+	}
+
+	/**
+	 * Returns the Locale used by this MessageTemplate to format arguments.
+	 * 
+	 * @return The Locale used by this MessageTemplate to format arguments
+	 */
+	public Locale getLocale()
+	{
+		return locale;
+	}
+
+	/**
+	 * Returns the number of required arguments for this MessageTemplate. This considers
+	 * all paths of any choices embedded in the pattern, and is the same value as
+	 * MessageFormatUtilities.getRequriedArgumentCount returns for an equivalent
+	 * MessageFormat.
+	 * 
+	 * @return The number of required arguments for this MessageTemplate
+	 */
+	public int getRequiredArgumentCount()
+	{
+		return requiredArgumentCount;
+	}
+
+	/**
+	 * Formats the given arguments into a String, as MessageFormat.format would.
+	 * 
+	 * @param arguments
+	 *            The arguments to be formatted
+	 * @return The formatted message
+	 * @throws IllegalArgumentException
+	 *             if an argument is not of the type required by its Format
+	 */
+	public String format(Object... arguments)
+	{
+		return format(new StringBuilder(), arguments).toString();
+	}
+
+	/**
+	 * Formats the given arguments, appending the result to the given StringBuilder. The
+	 * result is the same as MessageFormat.format would produce.
+	 * 
+	 * @param target
+	 *            The StringBuilder to which the formatted message is appended
+	 * @param arguments
+	 *            The arguments to be formatted
+	 * @return The given StringBuilder
+	 * @throws IllegalArgumentException
+	 *             if an argument is not of the type required by its Format
+	 */
+	public StringBuilder format(StringBuilder target, Object... arguments)
+	{
+		for (int i = 0; i < argumentNumbers.length; i++)
+		{
+			target.append(literals[i]);
+			int argumentNumber = argumentNumbers[i];
+			if ((arguments == null) || (argumentNumber >= arguments.length))
+			{
+				target.append('{').append(argumentNumber).append('}');
+				continue;
+			}
+			Object argument = arguments[argumentNumber];
+			if (argument == null)
+			{
+				target.append("null");
+			}
+			else if (choices[i] != null)
+			{
+				choices[i].format(target, argument, arguments);
+			}
+			else if (formats[i] != null)
+			{
+				threadFormats.get().format(i, target, argument);
+			}
+			else if ((argument instanceof Number) || (argument instanceof Date))
+			{
+				threadFormats.get().format(-1, target, argument);
+			}
+			else
+			{
+				target.append(argument.toString());
+			}
+		}
+		return target.append(literals[argumentNumbers.length]);
+	}
+
+	@Override
+	public String toString()
+	{
+		return pattern;
+	}
+
+	/**
+	 * A Choice is a compiled ChoiceFormat. Choices that refer to other arguments are
+	 * compiled into MessageTemplates, as MessageFormat would format them.
+	 */
+	private static final class Choice
+	{
+		private final double[] limits;
+		private final String[] results;
+		private final MessageTemplate[] templates;
+		private final int requiredArgumentCount;
+
+		private Choice(ChoiceFormat format, Locale locale)
+		{
+			limits = format.getLimits();
+			results = Arrays.copyOf(format.getFormats(), limits.length, String[].class);
+			templates = new MessageTemplate[limits.length];
+			int required = 0;
+			for (int i = 0; i < results.length; i++)
+			{
+				if (results[i].indexOf('{') >= 0)
+				{
+					templates[i] = new MessageTemplate(results[i], locale);
+					required =
+							Math.max(required, templates[i].requiredArgumentCount);
+				}
+			}
+			requiredArgumentCount = required;
+		}
+
+		private void format(StringBuilder target, Object argument, Object[] arguments)
+		{
+			if (!(argument instanceof Number))
+			{
+				throw new IllegalArgumentException(
+					"Cannot format given Object as a Number");
+			}
+			double number = ((Number) argument).doubleValue();
+			//Same selection as ChoiceFormat.format (including NaN handling)
+			int i = 0;
+			while ((i < limits.length) && (number >= limits[i]))
+			{
+				i++;
+			}
+			i = Math.max(0, i - 1);
+			if (templates[i] == null)
+			{
+				target.append(results[i]);
+			}
+			else
+			{
+				templates[i].format(target, arguments);
+			}
+		}
+	}
+
+	/**
+	 * ThreadFormats contains the copies of the Format objects of a MessageTemplate used
+	 * by a single thread, since Format objects are not thread-safe. The copies are
+	 * created when first used.
+	 * 
+	 * This is static (and does not refer to the MessageTemplate), since the per-thread
+	 * values of a ThreadLocal are strongly held by the thread.
+	 */
+	private static final class ThreadFormats
+	{
+		private final Format[] formats;
+		private final Locale locale;
+		private final Format[] copies;
+		private final StringBuffer buffer = new StringBuffer();
+		private final FieldPosition position = new FieldPosition(0);
+		private NumberFormat numberFormat;
+		private DateFormat dateFormat;
+
+		private ThreadFormats(Format[] formats, Locale locale)
+		{
+			this.formats = formats;
+			this.locale = locale;
+			copies = new Format[formats.length];
+		}
+
+		/**
+		 * Formats the given argument using the Format of the argument at the given
+		 * index, or the default Format for the argument if the index is -1.
+		 */
+		private void format(int index, StringBuilder target, Object argument)
+		{
+			Format format;
+			if (index >= 0)
+			{
+				if (copies[index] == null)
+				{
+					copies[index] = (Format) formats[index].clone();
+				}
+				format = copies[index];
+			}
+			else if (argument instanceof Number)
+			{
+				if (numberFormat == null)
+				{
+					numberFormat = NumberFormat.getInstance(locale);
+				}
+				format = numberFormat;
+			}
+			else
+			{
+				if (dateFormat == null)
+				{
+					dateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT,
+						DateFormat.SHORT, locale);
+				}
+				format = dateFormat;
+			}
+			buffer.setLength(0);
+			format.format(argument, buffer, position);
+			target.append(buffer);
+		}
+	}
+}
@@ -18,7 +18,12 @@ package pcgen.base.util;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.IntFunction;
 
 /**
@@ -165,9 +170,39 @@ public final class ArrayUtilities
 	 */
 	public static <T> Tuple<List<T>, List<T>> calculateIdentityDifference(T[] oldArray, T[] newArray)
 	{
-		List<T> oldList = Arrays.asList(oldArray);
-		List<T> newList = new IdentityList<>(Arrays.asList(newArray));
-		return processComparison(oldList, newList);
+		List<T> removedList = new ArrayList<>(oldArray.length);
+		List<T> addedList = new IdentityList<>();
+		calculateIdentityDifference(oldArray, newArray, removedList, addedList);
+		return new Tuple<>(removedList, addedList);
+	}
+
+	/**
+	 * Calculates the difference between two arrays, using identity comparison, placing
+	 * the results into the given Collections.
+	 * 
+	 * Each item in the "old" array is matched to an identical item in the "new" array,
+	 * respecting the number of times the item appears in each array. Unmatched items
+	 * from the "old" array are added to the removed Collection (in the order they appear
+	 * in the "old" array), and unmatched items from the "new" array are added to the
+	 * added Collection (in the order they appear in the "new" array).
+	 * 
+	 * @param oldArray
+	 *            The "old" array for comparison
+	 * @param newArray
+	 *            The "new" array for comparison
+	 * @param removed
+	 *            The Collection to which the items removed (present in the "old" array
+	 *            but not the "new" array) are added
+	 * @param added
+	 *            The Collection to which the items added (present in the "new" array,
+	 *            but not the "old" array) are added
+	 * @param <T>
+	 *            The component type of the Arrays to be compared
+	 */
+	public static <T> void calculateIdentityDifference(T[] oldArray, T[] newArray,
+		Collection<? super T> removed, Collection<? super T> added)
+	{
+		processComparison(oldArray, newArray, new IdentityHashMap<>(), removed, added);
 	}
 
 	/**
@@ -185,37 +220,100 @@ public final class ArrayUtilities
 	 */
 	public static <T> Tuple<List<T>, List<T>> calculateDifference(T[] oldArray, T[] newArray)
 	{
-		List<T> oldList = Arrays.asList(oldArray);
-		List<T> newList = new ArrayList<>(Arrays.asList(newArray));
-		return processComparison(oldList, newList);
+		List<T> removedList = new ArrayList<>(oldArray.length);
+		List<T> addedList = new ArrayList<>(newArray.length);
+		calculateDifference(oldArray, newArray, removedList, addedList);
+		return new Tuple<>(removedList, addedList);
 	}
 
 	/**
-	 * Calculates the difference between two arrays, using the comparison method on the
-	 * given "new" List.
+	 * Calculates the difference between two arrays, using object .equals comparison,
+	 * placing the results into the given Collections.
+	 * 
+	 * Each item in the "old" array is matched to an equal item in the "new" array,
+	 * respecting the number of times the item appears in each array. Unmatched items
+	 * from the "old" array are added to the removed Collection (in the order they appear
+	 * in the "old" array), and unmatched items from the "new" array are added to the
+	 * added Collection (in the order they appear in the "new" array).
 	 * 
-	 * @param oldList
+	 * @param oldArray
 	 *            The "old" array for comparison
-	 * @param newList
+	 * @param newArray
 	 *            The "new" array for comparison
-	 * @return A Tuple indicating the items removed (present in the "old" array but not
-	 *         the "new" array) and the items added (present in the "new" array, but not
-	 *         the "old" array)
+	 * @param removed
+	 *            The Collection to which the items removed (present in the "old" array
+	 *            but not the "new" array) are added
+	 * @param added
+	 *            The Collection to which the items added (present in the "new" array,
+	 *            but not the "old" array) are added
 	 * @param <T>
 	 *            The component type of the Arrays to be compared
 	 */
-	private static <T> Tuple<List<T>, List<T>> processComparison(List<T> oldList,
-		List<T> newList)
+	public static <T> void calculateDifference(T[] oldArray, T[] newArray,
+		Collection<? super T> removed, Collection<? super T> added)
+	{
+		processComparison(oldArray, newArray, new HashMap<>(), removed, added);
+	}
+
+	/**
+	 * Calculates the difference between two arrays, using the comparison method of the
+	 * given (empty) Map.
+	 * 
+	 * This counts the items in the "new" array, then matches each item in the "old" array
+	 * against those counts. The first occurrences of an item in the "new" array are the
+	 * ones matched, so the results are the same as removing each item of the "old" array
+	 * from a List of the "new" array.
+	 */
+	private static <T> void processComparison(T[] oldArray, T[] newArray,
+		Map<T, MatchCount> counts, Collection<? super T> removed,
+		Collection<? super T> added)
 	{
-		List<T> removedList = new ArrayList<>(oldList.size());
-		for (T oldObject : oldList)
+		Objects.requireNonNull(oldArray);
+		for (T newObject : newArray)
 		{
-			if (!newList.remove(oldObject))
+			MatchCount count = counts.get(newObject);
+			if (count == null)
 			{
-				removedList.add(oldObject);
+				count = new MatchCount();
+				counts.put(newObject, count);
 			}
+			count.available++;
 		}
-		return new Tuple<>(removedList, newList);
+		for (T oldObject : oldArray)
+		{
+			MatchCount count = counts.get(oldObject);
+			if ((count == null) || (count.available == 0))
+			{
+				removed.add(oldObject);
+			}
+			else
+			{
+				count.available--;
+				count.matched++;
+			}
+		}
+		for (T newObject : newArray)
+		{
+			MatchCount count = counts.get(newObject);
+			if (count.matched == 0)
+			{
+				added.add(newObject);
+			}
+			else
+			{
+				count.matched--;
+			}
+		}
+	}
+
+	/**
+	 * The number of occurrences of an item in the "new" array that are available to be
+	 * matched, and the number that have been matched, when calculating a difference.
+	 */
+	private static final class MatchCount
+	{
+		private int available;
+		private int matched;
 	}
 
 	/**
@@ -0,0 +1,544 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+
+import pcgen.base.text.ParsingSeparator.GroupingMismatchException;
+
+/**
+ * A CSVReader is a streaming cursor over CSV-like content. Each call to nextLine reads
+ * one line, and the fields of that line are then available from getField (or, without
+ * creating a String, from getFieldChars and appendField).
+ * 
+ * The fields are identical to those produced by processing each line with the
+ * ParsingSeparator from CSVUtilities.generateCSVSeparator and then unescaping each
+ * field with CSVUtilities.unescape. Specifically:
+ * <ul>
+ * <li>An empty line has no fields</li>
+ * <li>Fields are separated by commas that are not within quotes; quotes may not span
+ * lines (a line with unbalanced quotes produces a GroupingMismatchException)</li>
+ * <li>Each field is trimmed; if it then starts and ends with a quote, those quotes are
+ * removed, each doubled quote is replaced with a single quote, and the field is trimmed
+ * again</li>
+ * </ul>
+ * 
+ * Lines are terminated by a line feed, a carriage return, or a carriage return followed
+ * by a line feed (as with BufferedReader.readLine()).
+ * 
+ * The input, line and field buffers are reused from line to line, so reading does not
+ * create objects for each line or field unless a String is requested. The values
+ * returned by getFieldChars are only valid until the next call to nextLine.
+ * 
+ * CSVReader is not thread-safe.
+ */
+public final class CSVReader implements Closeable
+{
+
+	/**
+	 * The default size of the buffer used to read from the underlying Reader.
+	 */
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * The underlying Reader.
+	 */
+	private final Reader reader;
+
+	/**
+	 * The buffer of characters read from the underlying Reader.
+	 */
+	private final char[] input;
+
+	/**
+	 * The position of the next unprocessed character in the input buffer.
+	 */
+	private int inputPos = 0;
+
+	/**
+	 * The number of valid characters in the input buffer.
+	 */
+	private int inputLimit = 0;
+
+	/**
+	 * Indicates the last character processed was a carriage return, so a following line
+	 * feed should be ignored.
+	 */
+	private boolean skipLineFeed = false;
+
+	/**
+	 * Indicates the underlying Reader has been exhausted.
+	 */
+	private boolean endOfInput = false;
+
+	/**
+	 * The characters of the current line.
+	 */
+	private char[] line = new char[256];
+
+	/**
+	 * The number of characters in the current line.
+	 */
+	private int lineLength;
+
+	/**
+	 * The (unescaped) characters of the fields of the current line, stored
+	 * consecutively.
+	 */
+	private char[] fieldChars = new char[256];
+
+	/**
+	 * The start of each field of the current line in fieldChars.
+	 */
+	private int[] fieldStart = new int[16];
+
+	/**
+	 * The end (exclusive) of each field of the current line in fieldChars.
+	 */
+	private int[] fieldEnd = new int[16];
+
+	/**
+	 * The number of fields in the current line.
+	 */
+	private int fieldCount;
+
+	/**
+	 * The number of lines read by this CSVReader.
+	 */
+	private int lineNumber = 0;
+
+	/**
+	 * Constructs a new CSVReader reading from the given Reader.
+	 * 
+	 * @param reader
+	 *            The Reader from which the CSV content is read
+	 */
+	public CSVReader(Reader reader)
+	{
+		this(reader, BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructs a new CSVReader reading from the given Reader, using an input buffer of
+	 * the given size.
+	 * 
+	 * @param reader
+	 *            The Reader from which the CSV content is read
+	 * @param bufferSize
+	 *            The size of the buffer used to read from the Reader
+	 * @throws IllegalArgumentException
+	 *             if the given buffer size is less than one
+	 */
+	public CSVReader(Reader reader, int bufferSize)
+	{
+		this.reader = Objects.requireNonNull(reader);
+		if (bufferSize < 1)
+		{
+			throw new IllegalArgumentException(
+				"CSVReader buffer size must be positive, was: " + bufferSize);
+		}
+		input = new char[bufferSize];
+	}
+
+	/**
+	 * Returns a CSVReader that reads the given file by memory-mapping it, decoding the
+	 * contents with the given Charset. The file is mapped once, so the file should not
+	 * be modified while it is being read.
+	 * 
+	 * @param path
+	 *            The path of the file to be read
+	 * @param charset
+	 *            The Charset used to decode the file
+	 * @return A CSVReader that reads the given file
+	 * @throws IOException
+	 *             if the file cannot be opened or mapped
+	 */
+	public static CSVReader open(Path path, Charset charset) throws IOException
+	{
+		ByteBuffer mapped;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ))
+		{
+			mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		return new CSVReader(new MappedReader(mapped, charset.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPORT)
+			.onUnmappableCharacter(CodingErrorAction.REPORT)));
+	}
+
+	/**
+	 * Reads the next line, making its fields available from this CSVReader.
+	 * 
+	 * @return true if a line was read; false if the end of the input has been reached
+	 * @throws IOException
+	 *             if the underlying Reader throws an IOException
+	 * @throws GroupingMismatchException
+	 *             if the line has unbalanced quotes
+	 */
+	public boolean nextLine() throws IOException
+	{
+		fieldCount = 0;
+		if (!readLine())
+		{
+			return false;
+		}
+		lineNumber++;
+		parseLine();
+		return true;
+	}
+
+	/**
+	 * Returns the number of lines read by this CSVReader (and thus the line number of
+	 * the current line).
+	 * 
+	 * @return The number of lines read by this CSVReader
+	 */
+	public int getLineNumber()
+	{
+		return lineNumber;
+	}
+
+	/**
+	 * Returns the number of fields in the current line.
+	 * 
+	 * @return The number of fields in the current line
+	 */
+	public int getFieldCount()
+	{
+		return fieldCount;
+	}
+
+	/**
+	 * Returns the (unescaped) field at the given index in the current line.
+	 * 
+	 * @param index
+	 *            The index of the field to be returned
+	 * @return The field at the given index in the current line
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public String getField(int index)
+	{
+		checkIndex(index);
+		return new String(fieldChars, fieldStart[index],
+			fieldEnd[index] - fieldStart[index]);
+	}
+
+	/**
+	 * Returns a CharSequence view of the (unescaped) field at the given index in the
+	 * current line. The view shares the buffer of this CSVReader, and is only valid until
+	 * the next call to nextLine.
+	 * 
+	 * @param index
+	 *            The index of the field to be returned
+	 * @return A CharSequence view of the field at the given index in the current line
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public CharSequence getFieldChars(int index)
+	{
+		checkIndex(index);
+		return CharBuffer.wrap(fieldChars, fieldStart[index],
+			fieldEnd[index] - fieldStart[index]);
+	}
+
+	/**
+	 * Appends the (unescaped) field at the given index in the current line to the given
+	 * StringBuilder.
+	 * 
+	 * @param index
+	 *            The index of the field to be appended
+	 * @param sb
+	 *            The StringBuilder to which the field should be appended
+	 * @throws IndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public void appendField(int index, StringBuilder sb)
+	{
+		checkIndex(index);
+		sb.append(fieldChars, fieldStart[index], fieldEnd[index] - fieldStart[index]);
+	}
+
+	/**
+	 * Returns a new array containing the (unescaped) fields of the current line.
+	 * 
+	 * @return A new array containing the fields of the current line
+	 */
+	public String[] getFields()
+	{
+		String[] fields = new String[fieldCount];
+		for (int i = 0; i < fieldCount; i++)
+		{
+			fields[i] = getField(i);
+		}
+		return fields;
+	}
+
+	private void checkIndex(int index)
+	{
+		if ((index < 0) || (index >= fieldCount))
+		{
+			throw new IndexOutOfBoundsException(
+				"Field " + index + " requested, line " + lineNumber + " has "
+					+ fieldCount + " fields");
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		reader.close();
+	}
+
+	/**
+	 * Reads the next line into the line buffer.
+	 */
+	private boolean readLine() throws IOException
+	{
+		lineLength = 0;
+		boolean foundAny = false;
+		while (true)
+		{
+			if (inputPos >= inputLimit)
+			{
+				if (!fill())
+				{
+					return foundAny;
+				}
+			}
+			if (skipLineFeed)
+			{
+				skipLineFeed = false;
+				if (input[inputPos] == '\n')
+				{
+					inputPos++;
+					continue;
+				}
+			}
+			foundAny = true;
+			int start = inputPos;
+			while (inputPos < inputLimit)
+			{
+				char c = input[inputPos];
+				if ((c == '\n') || (c == '\r'))
+				{
+					appendToLine(start, inputPos - start);
+					inputPos++;
+					skipLineFeed = (c == '\r');
+					return true;
+				}
+				inputPos++;
+			}
+			appendToLine(start, inputPos - start);
+		}
+	}
+
+	private boolean fill() throws IOException
+	{
+		if (endOfInput)
+		{
+			return false;
+		}
+		int read;
+		do
+		{
+			read = reader.read(input, 0, input.length);
+		}
+		while (read == 0);
+		if (read < 0)
+		{
+			endOfInput = true;
+			return false;
+		}
+		inputPos = 0;
+		inputLimit = read;
+		return true;
+	}
+
+	private void appendToLine(int start, int length)
+	{
+		if (lineLength + length > line.length)
+		{
+			line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+		}
+		System.arraycopy(input, start, line, lineLength, length);
+		lineLength += length;
+	}
+
+	/**
+	 * Splits the current line into fields, unescaping each field.
+	 */
+	private void parseLine()
+	{
+		if (lineLength == 0)
+		{
+			//Matches ParsingSeparator, which returns no items for an empty String
+			return;
+		}
+		if (fieldChars.length < lineLength)
+		{
+			fieldChars = new char[Math.max(fieldChars.length * 2, lineLength)];
+		}
+		int outPos = 0;
+		int start = 0;
+		boolean inQuote = false;
+		for (int i = 0; i < lineLength; i++)
+		{
+			char c = line[i];
+			if (c == '"')
+			{
+				inQuote = !inQuote;
+			}
+			else if ((c == ',') && !inQuote)
+			{
+				outPos = addField(start, i, outPos);
+				start = i + 1;
+			}
+		}
+		if (inQuote)
+		{
+			throw new GroupingMismatchException(new String(line, 0, lineLength)
+				+ " reached end of String while attempting to match: \"");
+		}
+		addField(start, lineLength, outPos);
+	}
+
+	/**
+	 * Unescapes the field between the given start (inclusive) and end (exclusive) of the
+	 * current line into fieldChars at the given position, with the same behavior as
+	 * CSVUtilities.unescape. Returns the next position in fieldChars.
+	 */
+	private int addField(int start, int end, int outPos)
+	{
+		while ((start < end) && (line[start] <= ' '))
+		{
+			start++;
+		}
+		while ((end > start) && (line[end - 1] <= ' '))
+		{
+			end--;
+		}
+		int fieldBegin = outPos;
+		if ((end - start >= 2) && (line[start] == '"') && (line[end - 1] == '"'))
+		{
+			for (int i = start + 1; i < end - 1; i++)
+			{
+				char c = line[i];
+				fieldChars[outPos++] = c;
+				if ((c == '"') && (i + 1 < end - 1) && (line[i + 1] == '"'))
+				{
+					i++;
+				}
+			}
+			while ((fieldBegin < outPos) && (fieldChars[fieldBegin] <= ' '))
+			{
+				fieldBegin++;
+			}
+			while ((outPos > fieldBegin) && (fieldChars[outPos - 1] <= ' '))
+			{
+				outPos--;
+			}
+		}
+		else
+		{
+			System.arraycopy(line, start, fieldChars, outPos, end - start);
+			outPos += end - start;
+		}
+		if (fieldCount == fieldStart.length)
+		{
+			fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+			fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+		}
+		fieldStart[fieldCount] = fieldBegin;
+		fieldEnd[fieldCount] = outPos;
+		fieldCount++;
+		return outPos;
+	}
+
+	/**
+	 * A MappedReader is a Reader that decodes the contents of a (memory-mapped)
+	 * ByteBuffer.
+	 */
+	private static final class MappedReader extends Reader
+	{
+		private final ByteBuffer bytes;
+		private final CharsetDecoder decoder;
+		private boolean decoded = false;
+		private boolean flushed = false;
+
+		private MappedReader(ByteBuffer bytes, CharsetDecoder decoder)
+		{
+			this.bytes = bytes;
+			this.decoder = decoder;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException
+		{
+			if (len == 0)
+			{
+				return 0;
+			}
+			CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+			while (out.position() == off)
+			{
+				if (flushed)
+				{
+					return -1;
+				}
+				if (!decoded)
+				{
+					CoderResult result = decoder.decode(bytes, out, true);
+					if (result.isError())
+					{
+						result.throwException();
+					}
+					decoded = result.isUnderflow();
+				}
+				if (decoded)
+				{
+					CoderResult result = decoder.flush(out);
+					if (result.isError())
+					{
+						result.throwException();
+					}
+					flushed = result.isUnderflow();
+				}
+			}
+			return out.position() - off;
+		}
+
+		@Override
+		public void close()
+		{
+			//Nothing to close; the mapping is released when garbage collected
+		}
+	}
+}
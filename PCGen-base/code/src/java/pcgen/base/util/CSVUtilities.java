@@ -17,6 +17,8 @@
  */
 package pcgen.base.util;
 
+import java.io.IOException;
+
 import pcgen.base.text.ParsingSeparator;
 
 /**
@@ -51,6 +53,51 @@ public final class CSVUtilities
 		return string;
 	}
 
+	/**
+	 * Escapes a given entry directly into the given Appendable. The result is identical
+	 * to appending the result of escape(String), without creating intermediate Strings.
+	 * 
+	 * @param entry
+	 *            The entry to be escaped into its encoded state
+	 * @param out
+	 *            The Appendable to which the escaped entry (with CSV quoting) is
+	 *            appended
+	 * @throws IOException
+	 *             if the Appendable throws an IOException
+	 */
+	public static void escape(CharSequence entry, Appendable out) throws IOException
+	{
+		int length = entry.length();
+		boolean needsQuotes = false;
+		for (int i = 0; i < length; i++)
+		{
+			char c = entry.charAt(i);
+			if ((c == '"') || (c == ','))
+			{
+				needsQuotes = true;
+				break;
+			}
+		}
+		if (!needsQuotes)
+		{
+			out.append(entry);
+			return;
+		}
+		out.append('"');
+		int start = 0;
+		for (int i = 0; i < length; i++)
+		{
+			if (entry.charAt(i) == '"')
+			{
+				//Write through the quote, then write it again to double it
+				out.append(entry, start, i + 1);
+				start = i;
+			}
+		}
+		out.append(entry, start, length);
+		out.append('"');
+	}
+
 	/**
 	 * Unescapes a given entry. This performs whitespace padding removal both
 	 * before and after the removal of the optional escaping quotes available in
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A CSVWriter writes CSV-like content to an Appendable. Each field is escaped (as with
+ * CSVUtilities.escape) directly into the Appendable, and fields are separated by commas.
+ * The output can be read by a CSVReader.
+ * 
+ * CSVWriter is not thread-safe.
+ */
+public final class CSVWriter
+{
+
+	/**
+	 * The Appendable to which this CSVWriter writes.
+	 */
+	private final Appendable out;
+
+	/**
+	 * The String written at the end of each line.
+	 */
+	private final String lineSeparator;
+
+	/**
+	 * Indicates a field has been written to the current line, so the next field must be
+	 * preceded by a comma.
+	 */
+	private boolean needsSeparator = false;
+
+	/**
+	 * Constructs a new CSVWriter writing to the given Appendable, ending each line with a
+	 * line feed.
+	 * 
+	 * @param out
+	 *            The Appendable to which this CSVWriter writes
+	 */
+	public CSVWriter(Appendable out)
+	{
+		this(out, "\n");
+	}
+
+	/**
+	 * Constructs a new CSVWriter writing to the given Appendable, ending each line with
+	 * the given line separator.
+	 * 
+	 * @param out
+	 *            The Appendable to which this CSVWriter writes
+	 * @param lineSeparator
+	 *            The String written at the end of each line
+	 */
+	public CSVWriter(Appendable out, String lineSeparator)
+	{
+		this.out = Objects.requireNonNull(out);
+		this.lineSeparator = Objects.requireNonNull(lineSeparator);
+	}
+
+	/**
+	 * Writes the given field to the current line.
+	 * 
+	 * @param field
+	 *            The field to be written
+	 * @return This CSVWriter
+	 * @throws IOException
+	 *             if the underlying Appendable throws an IOException
+	 */
+	public CSVWriter writeField(CharSequence field) throws IOException
+	{
+		if (needsSeparator)
+		{
+			out.append(',');
+		}
+		needsSeparator = true;
+		CSVUtilities.escape(field, out);
+		return this;
+	}
+
+	/**
+	 * Ends the current line.
+	 * 
+	 * @return This CSVWriter
+	 * @throws IOException
+	 *             if the underlying Appendable throws an IOException
+	 */
+	public CSVWriter endLine() throws IOException
+	{
+		out.append(lineSeparator);
+		needsSeparator = false;
+		return this;
+	}
+
+	/**
+	 * Writes the given fields as a complete line.
+	 * 
+	 * @param fields
+	 *            The fields to be written
+	 * @return This CSVWriter
+	 * @throws IOException
+	 *             if the underlying Appendable throws an IOException
+	 */
+	public CSVWriter writeLine(CharSequence... fields) throws IOException
+	{
+		for (CharSequence field : fields)
+		{
+			writeField(field);
+		}
+		return endLine();
+	}
+}
@@ -17,6 +17,10 @@
  */
 package pcgen.base.util;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * A FormatManager is an object designed to manage the creation and
  * serialization of certain forms of objects. This serialization is in a
@@ -77,6 +81,116 @@ public interface FormatManager<T> extends Converter<T>
 	 */
 	public Indirect<T> convertIndirect(String inputStr);
 
+	/**
+	 * Converts each of the given Strings into an object of the type for which this
+	 * FormatManager provides services. The object converted from inputStr[i] is placed
+	 * into output[i].
+	 * 
+	 * This is a bulk version of convert, and is subject to the same restrictions. It
+	 * allows implementations to perform any setup work once for the entire batch rather
+	 * than once for each String.
+	 * 
+	 * Must throw a RuntimeException if any of the given Strings is not a properly
+	 * formatted String for creation of the appropriate type of object. In that case, the
+	 * contents of the output array are undefined.
+	 * 
+	 * @param inputStr
+	 *            The input Strings which should be converted into the appropriate objects
+	 * @param output
+	 *            The array into which the converted objects should be placed. Must be at
+	 *            least as long as the array of input Strings
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the output array is shorter than the array of input Strings
+	 */
+	public default void convertInto(String[] inputStr, T[] output)
+	{
+		for (int i = 0; i < inputStr.length; i++)
+		{
+			output[i] = convert(inputStr[i]);
+		}
+	}
+
+	/**
+	 * Converts each of the given Strings into an object of the type for which this
+	 * FormatManager provides services. The returned List is in the same order as the
+	 * given List of Strings.
+	 * 
+	 * This is a bulk version of convert, and is subject to the same restrictions. The
+	 * default implementation uses convertInto, so implementations optimizing bulk
+	 * conversion need only override convertInto.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. The returned
+	 * List supports set(int, Object) but cannot change size.
+	 * 
+	 * @param inputStr
+	 *            The input Strings which should be converted into the appropriate objects
+	 * @return A List of objects of the type for which this FormatManager provides
+	 *         services
+	 */
+	public default List<T> convertAll(List<String> inputStr)
+	{
+		String[] input = inputStr.toArray(new String[0]);
+		T[] output = ArrayUtilities.buildOfClass(getManagedClass()).apply(input.length);
+		convertInto(input, output);
+		return Arrays.asList(output);
+	}
+
+	/**
+	 * Converts each of the given Strings into an Indirect, which is capable of producing
+	 * an object of the type for which this FormatManager provides services. The Indirect
+	 * converted from inputStr[i] is placed into output[i].
+	 * 
+	 * This is a bulk version of convertIndirect, and is subject to the same
+	 * restrictions. It allows implementations to perform any setup work once for the
+	 * entire batch rather than once for each String.
+	 * 
+	 * Must throw a RuntimeException if any of the given Strings is not a properly
+	 * formatted String for creation of the appropriate type of object. In that case, the
+	 * contents of the output array are undefined.
+	 * 
+	 * @param inputStr
+	 *            The input Strings which should be converted into Indirect objects
+	 * @param output
+	 *            The array into which the Indirect objects should be placed. Must be at
+	 *            least as long as the array of input Strings
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the output array is shorter than the array of input Strings
+	 */
+	public default void convertIndirectInto(String[] inputStr, Indirect<T>[] output)
+	{
+		for (int i = 0; i < inputStr.length; i++)
+		{
+			output[i] = convertIndirect(inputStr[i]);
+		}
+	}
+
+	/**
+	 * Converts each of the given Strings into an Indirect, which is capable of producing
+	 * an object of the type for which this FormatManager provides services. The returned
+	 * List is in the same order as the given List of Strings.
+	 * 
+	 * This is a bulk version of convertIndirect, and is subject to the same
+	 * restrictions. The default implementation uses convertIndirectInto, so
+	 * implementations optimizing bulk conversion need only override
+	 * convertIndirectInto.
+	 * 
+	 * Ownership of the returned List is transferred to the calling Object. The returned
+	 * List supports set(int, Object) but cannot change size.
+	 * 
+	 * @param inputStr
+	 *            The input Strings which should be converted into Indirect objects
+	 * @return A List of Indirect objects, each capable of producing an object of the
+	 *         type for which this FormatManager provides services
+	 */
+	public default List<Indirect<T>> convertIndirectAll(List<String> inputStr)
+	{
+		String[] input = inputStr.toArray(new String[0]);
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		Indirect<T>[] output = new Indirect[input.length];
+		convertIndirectInto(input, output);
+		return Arrays.asList(output);
+	}
+
 	/**
 	 * Returns true if this format can always be converted directly.
 	 * 
@@ -103,6 +217,28 @@ public interface FormatManager<T> extends Converter<T>
 	 */
 	public String unconvert(T obj);
 
+	/**
+	 * Serializes (unconverts) the given object into a human-readable serialized form,
+	 * appending it to the given Appendable. The characters appended must be identical to
+	 * the String returned by unconvert(obj).
+	 * 
+	 * The default implementation appends the result of unconvert(obj). Implementations
+	 * should override this method if they are able to append the serialized form without
+	 * building an intermediate String.
+	 * 
+	 * @param obj
+	 *            The object to be converted into a human-readable serialized form
+	 * @param out
+	 *            The Appendable to which the human-readable serialized form of the given
+	 *            object will be appended
+	 * @throws IOException
+	 *             if the given Appendable throws an IOException
+	 */
+	public default void unconvertTo(T obj, Appendable out) throws IOException
+	{
+		out.append(unconvert(obj));
+	}
+
 	/**
 	 * Returns the non-null Class of the type of object upon which this
 	 * FormatManager operates.
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An IndirectCache is a bounded interning cache for BasicIndirect objects. For a given
+ * FormatManager and (equal) value, intern will return the same (canonical) BasicIndirect,
+ * as long as that BasicIndirect has not been evicted from the IndirectCache.
+ * 
+ * This is designed for use by FormatManagers that can always convert directly (such as
+ * NumberManager), where data frequently repeats the same values, so that a single
+ * BasicIndirect can be shared rather than retaining many equal BasicIndirect objects.
+ * 
+ * The IndirectCache holds at most the maximum size provided at construction. When a new
+ * BasicIndirect would exceed that size, the least recently used BasicIndirect is evicted.
+ * Eviction has no effect on BasicIndirect objects already returned by intern (they remain
+ * valid); it only means a later call to intern may return a new (equal) BasicIndirect.
+ * 
+ * Since interned BasicIndirect objects are shared, the values provided to intern must be
+ * immutable (or at least never modified once interned).
+ * 
+ * IndirectCache is thread-safe.
+ */
+public class IndirectCache
+{
+
+	/**
+	 * The maximum number of BasicIndirect objects held by this IndirectCache.
+	 */
+	private final int maxSize;
+
+	/**
+	 * The interned BasicIndirect objects, in least recently used order.
+	 */
+	private final Map<Key, BasicIndirect<?>> cache;
+
+	/**
+	 * The number of calls to intern that returned an existing BasicIndirect.
+	 */
+	private long hitCount;
+
+	/**
+	 * The number of calls to intern that constructed a new BasicIndirect.
+	 */
+	private long missCount;
+
+	/**
+	 * The number of BasicIndirect objects evicted from this IndirectCache.
+	 */
+	private long evictionCount;
+
+	/**
+	 * Constructs a new IndirectCache that will hold at most the given number of
+	 * BasicIndirect objects.
+	 * 
+	 * @param maxSize
+	 *            The maximum number of BasicIndirect objects to be held by this
+	 *            IndirectCache
+	 * @throws IllegalArgumentException
+	 *             if the given maximum size is less than one
+	 */
+	public IndirectCache(int maxSize)
+	{
+		if (maxSize < 1)
+		{
+			throw new IllegalArgumentException(
+				"IndirectCache maximum size must be positive, was: " + maxSize);
+		}
+		this.maxSize = maxSize;
+		cache = new LinkedHashMap<>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, BasicIndirect<?>> eldest)
+			{
+				if (size() > IndirectCache.this.maxSize)
+				{
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns the canonical BasicIndirect for the given FormatManager and value. If no
+	 * BasicIndirect for an equal FormatManager and equal value is held by this
+	 * IndirectCache, a new BasicIndirect is constructed and held.
+	 * 
+	 * @param fmtManager
+	 *            The FormatManager usable to manage the given value
+	 * @param value
+	 *            The value to be contained in the returned BasicIndirect
+	 * @return The canonical BasicIndirect for the given FormatManager and value
+	 * @param <T>
+	 *            The format (class) of object contained by the returned BasicIndirect
+	 * @throws IllegalArgumentException
+	 *             if the given value is not compatible with the given FormatManager
+	 */
+	public <T> BasicIndirect<T> intern(FormatManager<T> fmtManager, T value)
+	{
+		Key key = new Key(Objects.requireNonNull(fmtManager),
+			Objects.requireNonNull(value));
+		synchronized (cache)
+		{
+			@SuppressWarnings("unchecked")
+			BasicIndirect<T> indirect = (BasicIndirect<T>) cache.get(key);
+			if (indirect != null)
+			{
+				hitCount++;
+				return indirect;
+			}
+			indirect = new BasicIndirect<>(fmtManager, value);
+			missCount++;
+			cache.put(key, indirect);
+			return indirect;
+		}
+	}
+
+	/**
+	 * Removes all of the BasicIndirect objects held by this IndirectCache. This does not
+	 * reset the statistics of this IndirectCache.
+	 */
+	public void clear()
+	{
+		synchronized (cache)
+		{
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of BasicIndirect objects currently held by this IndirectCache.
+	 * 
+	 * @return The number of BasicIndirect objects currently held by this IndirectCache
+	 */
+	public int size()
+	{
+		synchronized (cache)
+		{
+			return cache.size();
+		}
+	}
+
+	/**
+	 * Returns the maximum number of BasicIndirect objects held by this IndirectCache.
+	 * 
+	 * @return The maximum number of BasicIndirect objects held by this IndirectCache
+	 */
+	public int getMaxSize()
+	{
+		return maxSize;
+	}
+
+	/**
+	 * Returns the number of calls to intern that returned an existing BasicIndirect.
+	 * 
+	 * @return The number of calls to intern that returned an existing BasicIndirect
+	 */
+	public long getHitCount()
+	{
+		synchronized (cache)
+		{
+			return hitCount;
+		}
+	}
+
+	/**
+	 * Returns the number of calls to intern that constructed a new BasicIndirect.
+	 * 
+	 * @return The number of calls to intern that constructed a new BasicIndirect
+	 */
+	public long getMissCount()
+	{
+		synchronized (cache)
+		{
+			return missCount;
+		}
+	}
+
+	/**
+	 * Returns the number of BasicIndirect objects evicted from this IndirectCache because
+	 * the maximum size was reached.
+	 * 
+	 * @return The number of BasicIndirect objects evicted from this IndirectCache
+	 */
+	public long getEvictionCount()
+	{
+		synchronized (cache)
+		{
+			return evictionCount;
+		}
+	}
+
+	/**
+	 * Returns the fraction (0.0 to 1.0) of calls to intern that returned an existing
+	 * BasicIndirect. Returns 0.0 if intern has not been called.
+	 * 
+	 * @return The fraction of calls to intern that returned an existing BasicIndirect
+	 */
+	public double getHitRate()
+	{
+		synchronized (cache)
+		{
+			long total = hitCount + missCount;
+			return (total == 0) ? 0.0 : ((double) hitCount) / total;
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		synchronized (cache)
+		{
+			return "IndirectCache [size=" + cache.size() + ", maxSize=" + maxSize
+				+ ", hits=" + hitCount + ", misses=" + missCount + ", evictions="
+				+ evictionCount + "]";
+		}
+	}
+
+	/**
+	 * The key identifying a BasicIndirect in an IndirectCache.
+	 */
+	private static final class Key
+	{
+		private final FormatManager<?> fmtManager;
+		private final Object value;
+
+		private Key(FormatManager<?> fmtManager, Object value)
+		{
+			this.fmtManager = fmtManager;
+			this.value = value;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return (31 * fmtManager.hashCode()) + value.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj instanceof Key)
+			{
+				Key other = (Key) obj;
+				return fmtManager.equals(other.fmtManager) && value.equals(other.value);
+			}
+			return false;
+		}
+	}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A PackedBooleanArray is an immutable array of boolean values, stored in a BitSet
+ * rather than as Boolean objects.
+ */
+public final class PackedBooleanArray
+{
+
+	/**
+	 * The values of this PackedBooleanArray (a set bit is a true value).
+	 */
+	private final BitSet bits;
+
+	/**
+	 * The number of values in this PackedBooleanArray.
+	 */
+	private final int size;
+
+	private PackedBooleanArray(BitSet bits, int size)
+	{
+		this.bits = bits;
+		this.size = size;
+	}
+
+	/**
+	 * Returns a PackedBooleanArray containing the values in the given array of Booleans.
+	 * 
+	 * @param values
+	 *            The array of Booleans to be stored in the PackedBooleanArray
+	 * @return A PackedBooleanArray containing the values in the given array of Booleans
+	 * @throws NullPointerException
+	 *             if any of the values is null
+	 */
+	public static PackedBooleanArray valueOf(Boolean[] values)
+	{
+		BitSet bits = new BitSet(values.length);
+		for (int i = 0; i < values.length; i++)
+		{
+			if (values[i].booleanValue())
+			{
+				bits.set(i);
+			}
+		}
+		return new PackedBooleanArray(bits, values.length);
+	}
+
+	/**
+	 * Returns the number of values in this PackedBooleanArray.
+	 * 
+	 * @return The number of values in this PackedBooleanArray
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns the value at the given index of this PackedBooleanArray.
+	 * 
+	 * @param index
+	 *            The index of the value to be returned
+	 * @return The value at the given index of this PackedBooleanArray
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public boolean get(int index)
+	{
+		if ((index < 0) || (index >= size))
+		{
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return bits.get(index);
+	}
+
+	/**
+	 * Returns a new Boolean[] containing the values in this PackedBooleanArray.
+	 * Ownership of the returned array is transferred to the calling object, and no
+	 * reference to it is maintained by PackedBooleanArray.
+	 * 
+	 * @return A new Boolean[] containing the values in this PackedBooleanArray
+	 */
+	public Boolean[] toArray()
+	{
+		Boolean[] result = new Boolean[size];
+		for (int i = 0; i < size; i++)
+		{
+			result[i] = Boolean.valueOf(bits.get(i));
+		}
+		return result;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return bits.hashCode() * 31 + size;
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (o == this)
+		{
+			return true;
+		}
+		if (o instanceof PackedBooleanArray)
+		{
+			PackedBooleanArray other = (PackedBooleanArray) o;
+			return (size == other.size) && bits.equals(other.bits);
+		}
+		return false;
+	}
+
+	@Override
+	public String toString()
+	{
+		return Arrays.toString(toArray());
+	}
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A PackedNumberArray is an immutable array of Integer and Double values, stored as
+ * primitives rather than as boxed objects.
+ * 
+ * If all of the values are Integer objects, they are stored in an int[]. Otherwise, the
+ * values are stored in a double[], and a BitSet records which of the values were Integer
+ * objects (so that get returns an object equal to the original value).
+ */
+public final class PackedNumberArray
+{
+
+	/**
+	 * The values of this PackedNumberArray, if they are all Integer objects; otherwise
+	 * null.
+	 */
+	private final int[] ints;
+
+	/**
+	 * The values of this PackedNumberArray, if they are not all Integer objects;
+	 * otherwise null.
+	 */
+	private final double[] doubles;
+
+	/**
+	 * The indexes of the values in doubles that were Integer objects; null if ints is
+	 * used.
+	 */
+	private final BitSet integral;
+
+	private PackedNumberArray(int[] ints, double[] doubles, BitSet integral)
+	{
+		this.ints = ints;
+		this.doubles = doubles;
+		this.integral = integral;
+	}
+
+	/**
+	 * Returns true if the given array of Numbers can be stored in a PackedNumberArray,
+	 * meaning each value is an Integer or a Double.
+	 * 
+	 * @param values
+	 *            The array of Numbers to be checked
+	 * @return true if the given array of Numbers can be stored in a PackedNumberArray;
+	 *         false otherwise
+	 */
+	public static boolean isPackable(Number[] values)
+	{
+		for (Number value : values)
+		{
+			if (!(value instanceof Integer) && !(value instanceof Double))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns a PackedNumberArray containing the values in the given array of Numbers.
+	 * 
+	 * @param values
+	 *            The array of Numbers to be stored in the PackedNumberArray
+	 * @return A PackedNumberArray containing the values in the given array of Numbers
+	 * @throws IllegalArgumentException
+	 *             if any of the values is not an Integer or a Double
+	 */
+	public static PackedNumberArray valueOf(Number[] values)
+	{
+		if (!isPackable(values))
+		{
+			throw new IllegalArgumentException(
+				"PackedNumberArray can only contain Integer and Double values: "
+					+ Arrays.toString(values));
+		}
+		int length = values.length;
+		boolean allIntegers = true;
+		for (Number value : values)
+		{
+			if (!(value instanceof Integer))
+			{
+				allIntegers = false;
+				break;
+			}
+		}
+		if (allIntegers)
+		{
+			int[] ints = new int[length];
+			for (int i = 0; i < length; i++)
+			{
+				ints[i] = values[i].intValue();
+			}
+			return new PackedNumberArray(ints, null, null);
+		}
+		double[] doubles = new double[length];
+		BitSet integral = new BitSet(length);
+		for (int i = 0; i < length; i++)
+		{
+			doubles[i] = values[i].doubleValue();
+			if (values[i] instanceof Integer)
+			{
+				integral.set(i);
+			}
+		}
+		return new PackedNumberArray(null, doubles, integral);
+	}
+
+	/**
+	 * Returns the number of values in this PackedNumberArray.
+	 * 
+	 * @return The number of values in this PackedNumberArray
+	 */
+	public int size()
+	{
+		return (ints == null) ? doubles.length : ints.length;
+	}
+
+	/**
+	 * Returns true if all of the values in this PackedNumberArray are Integer values.
+	 * 
+	 * @return true if all of the values in this PackedNumberArray are Integer values;
+	 *         false otherwise
+	 */
+	public boolean isIntegral()
+	{
+		return ints != null;
+	}
+
+	/**
+	 * Returns the value at the given index of this PackedNumberArray. This will be an
+	 * Integer or Double, equal to the value provided at construction.
+	 * 
+	 * @param index
+	 *            The index of the value to be returned
+	 * @return The value at the given index of this PackedNumberArray
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public Number get(int index)
+	{
+		if (ints != null)
+		{
+			return Integer.valueOf(ints[index]);
+		}
+		double value = doubles[index];
+		if (integral.get(index))
+		{
+			return Integer.valueOf((int) value);
+		}
+		return Double.valueOf(value);
+	}
+
+	/**
+	 * Returns the value at the given index of this PackedNumberArray as a double,
+	 * without creating a Number object.
+	 * 
+	 * @param index
+	 *            The index of the value to be returned
+	 * @return The value at the given index of this PackedNumberArray as a double
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if the index is out of range
+	 */
+	public double getDouble(int index)
+	{
+		return (ints == null) ? doubles[index] : ints[index];
+	}
+
+	/**
+	 * Returns a new Number[] containing the values in this PackedNumberArray. Ownership
+	 * of the returned array is transferred to the calling object, and no reference to
+	 * it is maintained by PackedNumberArray.
+	 * 
+	 * @return A new Number[] containing the values in this PackedNumberArray
+	 */
+	public Number[] toArray()
+	{
+		int length = size();
+		Number[] result = new Number[length];
+		for (int i = 0; i < length; i++)
+		{
+			result[i] = get(i);
+		}
+		return result;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return (ints == null) ? Arrays.hashCode(doubles) : Arrays.hashCode(ints);
+	}
+
+	@Override
+	public boolean equals(Object o)
+	{
+		if (o == this)
+		{
+			return true;
+		}
+		if (o instanceof PackedNumberArray)
+		{
+			/*
+			 * Since an array of all Integer values is always stored as ints, equal
+			 * values always have the same representation.
+			 */
+			PackedNumberArray other = (PackedNumberArray) o;
+			if (ints != null)
+			{
+				return Arrays.equals(ints, other.ints);
+			}
+			return Arrays.equals(doubles, other.doubles)
+				&& integral.equals(other.integral);
+		}
+		return false;
+	}
+
+	@Override
+	public String toString()
+	{
+		return Arrays.toString(toArray());
+	}
+}
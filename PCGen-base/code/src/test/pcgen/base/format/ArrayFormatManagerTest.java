@@ -16,7 +16,9 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 
 import junit.framework.TestCase;
 import pcgen.base.util.FormatManager;
@@ -175,6 +177,16 @@ public class ArrayFormatManagerTest extends TestCase
 		assertTrue(Arrays.equals(new Number[]{}, manager.convert("")));
 	}
 
+	public void testUnconvertTo() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		manager.unconvertTo(ARR_N3_4P1_5, sb);
+		assertEquals("-3,4.1,5", sb.toString());
+		sb.setLength(0);
+		manager.unconvertTo(new Number[]{}, sb);
+		assertEquals("", sb.toString());
+	}
+
 	public void testConvertIndirect()
 	{
 		assertTrue(Arrays.equals(new Number[]{}, manager.convertIndirect(null).get()));
@@ -286,4 +298,39 @@ public class ArrayFormatManagerTest extends TestCase
 				return null;
 			}}, '\n', ',').isDirect());
 	}
+
+	public void testConvertAll()
+	{
+		List<Number[]> list =
+				manager.convertAll(Arrays.asList("1", "", "-3,4,5", "-3,4.1,5"));
+		assertEquals(4, list.size());
+		assertTrue(Arrays.equals(ARR_1, list.get(0)));
+		assertTrue(Arrays.equals(new Number[]{}, list.get(1)));
+		assertTrue(Arrays.equals(ARR_N3_4_5, list.get(2)));
+		assertTrue(Arrays.equals(ARR_N3_4P1_5, list.get(3)));
+		Number[][] output = new Number[2][];
+		manager.convertInto(new String[]{"1.4", null}, output);
+		assertTrue(Arrays.equals(ARR_1P4, output[0]));
+		assertTrue(Arrays.equals(new Number[]{}, output[1]));
+	}
+
+	public void testConvertIndirectAll()
+	{
+		List<Indirect<Number[]>> list =
+				manager.convertIndirectAll(Arrays.asList("1", "", "-3,4,5"));
+		assertEquals(3, list.size());
+		assertTrue(Arrays.equals(ARR_1, list.get(0).get()));
+		assertTrue(Arrays.equals(new Number[]{}, list.get(1).get()));
+		assertTrue(Arrays.equals(ARR_N3_4_5, list.get(2).get()));
+		assertEquals("-3,4,5", list.get(2).getUnconverted());
+		try
+		{
+			manager.convertIndirectAll(Arrays.asList("1", "1,,2"));
+			fail("bad separator should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
 }
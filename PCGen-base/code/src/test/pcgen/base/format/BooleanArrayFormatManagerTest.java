@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.format;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import pcgen.base.util.Indirect;
+import pcgen.base.util.PackedBooleanArray;
+
+/**
+ * Test the BooleanArrayFormatManager class
+ */
+public class BooleanArrayFormatManagerTest extends TestCase
+{
+	private BooleanArrayFormatManager manager =
+			new BooleanArrayFormatManager(new BooleanManager(), '\n', ',');
+
+	public void testConvertIndirect()
+	{
+		Indirect<Boolean[]> indirect = manager.convertIndirect("true,FALSE,true");
+		assertTrue(Arrays.equals(new Boolean[]{true, false, true}, indirect.get()));
+		assertEquals(Boolean[].class, indirect.get().getClass());
+		assertEquals("true,false,true", indirect.getUnconverted());
+		assertEquals(0, manager.convertIndirect("").get().length);
+		try
+		{
+			manager.convertIndirect("true,maybe");
+			fail("bad value should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+		@SuppressWarnings("unchecked")
+		Indirect<Boolean[]>[] output = new Indirect[2];
+		manager.convertIndirectInto(new String[]{"true", "false,false"}, output);
+		assertTrue(Arrays.equals(new Boolean[]{true}, output[0].get()));
+		assertTrue(Arrays.equals(new Boolean[]{false, false}, output[1].get()));
+	}
+
+	public void testGetReturnsCopy()
+	{
+		Indirect<Boolean[]> indirect = manager.convertIndirect("true,false");
+		Boolean[] first = indirect.get();
+		first[0] = false;
+		Boolean[] second = indirect.get();
+		assertNotSame(first, second);
+		assertTrue(Arrays.equals(new Boolean[]{true, false}, second));
+	}
+
+	public void testConvertPacked()
+	{
+		PackedBooleanArray packed = manager.convertPacked("false,true");
+		assertEquals(PackedBooleanArray.valueOf(new Boolean[]{false, true}), packed);
+		assertEquals(new ArrayFormatManager<>(new BooleanManager(), '\n', ','),
+			manager);
+	}
+}
@@ -16,7 +16,12 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
 import junit.framework.TestCase;
+import pcgen.base.util.Indirect;
 
 /**
  * Test the BooleanManager class
@@ -103,6 +108,14 @@ public class BooleanManagerTest extends TestCase
 		assertEquals("false", manager.unconvert(Boolean.FALSE));
 	}
 
+	public void testUnconvertTo() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		manager.unconvertTo(Boolean.TRUE, sb);
+		manager.unconvertTo(Boolean.FALSE, sb);
+		assertEquals("truefalse", sb.toString());
+	}
+
 	public void testConvertIndirect()
 	{
 		assertEquals(Boolean.TRUE, manager.convertIndirect("true").get());
@@ -131,4 +144,23 @@ public class BooleanManagerTest extends TestCase
 	{
 		assertTrue(manager.isDirect());
 	}
+
+	public void testConvertAll()
+	{
+		assertEquals(Arrays.asList(Boolean.TRUE, Boolean.FALSE, Boolean.TRUE),
+			manager.convertAll(Arrays.asList("true", "False", "TRUE")));
+		List<Indirect<Boolean>> list =
+				manager.convertIndirectAll(Arrays.asList("false", "True"));
+		assertEquals(Boolean.FALSE, list.get(0).get());
+		assertEquals(Boolean.TRUE, list.get(1).get());
+		try
+		{
+			manager.convertAll(Arrays.asList("true", "Yes"));
+			fail("non-boolean value should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
 }
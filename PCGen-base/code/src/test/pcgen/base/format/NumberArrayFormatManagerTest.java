@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.format;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import pcgen.base.util.Indirect;
+import pcgen.base.util.PackedNumberArray;
+
+/**
+ * Test the NumberArrayFormatManager class
+ */
+public class NumberArrayFormatManagerTest extends TestCase
+{
+	private NumberArrayFormatManager manager =
+			new NumberArrayFormatManager(new NumberManager(), '\n', ',');
+
+	private ArrayFormatManager<Number> plain =
+			new ArrayFormatManager<>(new NumberManager(), '\n', ',');
+
+	public void testConvert()
+	{
+		assertTrue(Arrays.equals(plain.convert("-3,4.1,5"), manager.convert("-3,4.1,5")));
+		assertEquals(0, manager.convert("").length);
+		assertEquals("ARRAY[NUMBER]", manager.getIdentifierType());
+		assertEquals(plain, manager);
+		assertEquals(manager, plain);
+		assertEquals(plain.hashCode(), manager.hashCode());
+	}
+
+	public void testConvertIndirect()
+	{
+		Indirect<Number[]> indirect = manager.convertIndirect("-3,4,5");
+		assertTrue(Arrays.equals(new Number[]{-3, 4, 5}, indirect.get()));
+		assertEquals(Number[].class, indirect.get().getClass());
+		assertEquals("-3,4,5", indirect.getUnconverted());
+		indirect = manager.convertIndirect("-3,4.1,5.0");
+		assertTrue(Arrays.equals(new Number[]{-3, 4.1, 5.0}, indirect.get()));
+		assertEquals(plain.convertIndirect("-3,4.1,5.0").getUnconverted(),
+			indirect.getUnconverted());
+		assertEquals(0, manager.convertIndirect(null).get().length);
+		try
+		{
+			manager.convertIndirect("1,x");
+			fail("bad value should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
+
+	public void testConvertIndirectUnpackable()
+	{
+		int[] parsed = new int[1];
+		NumberManager longManager = new NumberManager()
+		{
+			@Override
+			public Number convert(String s)
+			{
+				parsed[0]++;
+				return Long.valueOf(s);
+			}
+		};
+		NumberArrayFormatManager longArray =
+				new NumberArrayFormatManager(longManager, '\n', ',');
+		Indirect<Number[]> indirect = longArray.convertIndirect("1,2,3");
+		assertEquals(3, parsed[0]);
+		assertTrue(Arrays.equals(new Number[]{1L, 2L, 3L}, indirect.get()));
+		assertEquals("1,2,3", indirect.getUnconverted());
+	}
+
+	public void testGetReturnsCopy()
+	{
+		Indirect<Number[]> indirect = manager.convertIndirect("1,2.5");
+		Number[] first = indirect.get();
+		first[0] = 7;
+		Number[] second = indirect.get();
+		assertNotSame(first, second);
+		assertTrue(Arrays.equals(new Number[]{1, 2.5}, second));
+	}
+
+	public void testConvertIndirectInto()
+	{
+		@SuppressWarnings("unchecked")
+		Indirect<Number[]>[] output = new Indirect[2];
+		manager.convertIndirectInto(new String[]{"1,2", "3.5"}, output);
+		assertTrue(Arrays.equals(new Number[]{1, 2}, output[0].get()));
+		assertTrue(Arrays.equals(new Number[]{3.5}, output[1].get()));
+	}
+
+	public void testConvertPacked()
+	{
+		PackedNumberArray packed = manager.convertPacked("1,2,3");
+		assertTrue(packed.isIntegral());
+		assertEquals(PackedNumberArray.valueOf(new Number[]{1, 2, 3}), packed);
+	}
+}
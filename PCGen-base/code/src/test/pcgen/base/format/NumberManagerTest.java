@@ -16,9 +16,17 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 
 import junit.framework.TestCase;
+import pcgen.base.util.Indirect;
+import pcgen.base.util.IndirectCache;
 
 /**
  * Test the NumberManager class
@@ -106,6 +114,20 @@ public class NumberManagerTest extends TestCase
 		assertEquals("1.4", manager.unconvert(Double.valueOf(1.4)));
 	}
 
+	public void testUnconvertTo() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		manager.unconvertTo(Integer.valueOf(-3), sb);
+		sb.append(' ');
+		manager.unconvertTo(Double.valueOf(1.4), sb);
+		sb.append(' ');
+		manager.unconvertTo(new BigDecimal("2.50"), sb);
+		assertEquals("-3 1.4 2.50", sb.toString());
+		StringWriter writer = new StringWriter();
+		manager.unconvertTo(Double.valueOf(1.4), writer);
+		assertEquals("1.4", writer.toString());
+	}
+
 	public void testConvertIndirect()
 	{
 		assertEquals(Integer.valueOf(1), manager.convertIndirect("1").get());
@@ -145,4 +167,62 @@ public class NumberManagerTest extends TestCase
 		assertEquals(0, comparator.compare(Integer.valueOf(1), Double.valueOf(1)));
 	}
 
+	public void testConvertAll()
+	{
+		assertEquals(Arrays.asList(Integer.valueOf(1), Integer.valueOf(-3),
+			Double.valueOf(1.4)), manager.convertAll(Arrays.asList("1", "-3", "1.4")));
+		assertTrue(manager.convertAll(Collections.emptyList()).isEmpty());
+		Number[] output = new Number[3];
+		manager.convertInto(new String[]{"4", "2.5"}, output);
+		assertEquals(Integer.valueOf(4), output[0]);
+		assertEquals(Double.valueOf(2.5), output[1]);
+		assertNull(output[2]);
+		try
+		{
+			manager.convertAll(Arrays.asList("1", "SomeString"));
+			fail("non-numeric value should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
+
+	public void testConvertIndirectAll()
+	{
+		List<Indirect<Number>> list =
+				manager.convertIndirectAll(Arrays.asList("1", "-3", "1.4"));
+		assertEquals(3, list.size());
+		assertEquals(Integer.valueOf(1), list.get(0).get());
+		assertEquals(Integer.valueOf(-3), list.get(1).get());
+		assertEquals(Double.valueOf(1.4), list.get(2).get());
+		assertEquals("1.4", list.get(2).getUnconverted());
+		try
+		{
+			manager.convertIndirectAll(Arrays.asList("1", null));
+			fail("null value should fail");
+		}
+		catch (NullPointerException | IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
+
+	public void testConvertIndirectCached()
+	{
+		IndirectCache cache = new IndirectCache(8);
+		NumberManager cached = new NumberManager(cache);
+		Indirect<Number> one = cached.convertIndirect("1");
+		assertSame(one, cached.convertIndirect("1"));
+		assertNotSame(one, cached.convertIndirect("1.0"));
+		assertEquals(manager.convertIndirect("1"), one);
+		assertEquals(manager, cached);
+		List<Indirect<Number>> list =
+				cached.convertIndirectAll(Arrays.asList("1", "2", "2"));
+		assertSame(one, list.get(0));
+		assertSame(list.get(1), list.get(2));
+		assertEquals(3, cache.size());
+		assertEquals(3, cache.getHitCount());
+		assertNotSame(manager.convertIndirect("1"), manager.convertIndirect("1"));
+	}
 }
@@ -16,10 +16,15 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
+import java.io.StringWriter;
 import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
 
 import junit.framework.TestCase;
 import pcgen.base.math.OrderedPair;
+import pcgen.base.util.Indirect;
 
 /**
  * Test the OrderedPairManager class
@@ -107,6 +112,17 @@ public class OrderedPairManagerTest extends TestCase
 		assertEquals("1.4,6.5", manager.unconvert(new OrderedPair(1.4, 6.5)));
 	}
 
+	public void testUnconvertTo() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		manager.unconvertTo(new OrderedPair(-3, 4.5), sb);
+		assertEquals("-3,4.5", sb.toString());
+		StringWriter writer = new StringWriter();
+		OrderedPair precise = new OrderedPair(new BigDecimal("1.40"), 6);
+		manager.unconvertTo(precise, writer);
+		assertEquals(manager.unconvert(precise), writer.toString());
+	}
+
 	public void testConvertIndirect()
 	{
 		assertEquals(new OrderedPair(1, 1), manager.convertIndirect("1,1")
@@ -139,4 +155,16 @@ public class OrderedPairManagerTest extends TestCase
 	{
 		assertTrue(manager.isDirect());
 	}
+
+	public void testConvertAll()
+	{
+		List<OrderedPair> pairs = manager.convertAll(Arrays.asList("1,2", "-3,4.5"));
+		assertEquals(2, pairs.size());
+		assertEquals("1,2", manager.unconvert(pairs.get(0)));
+		assertEquals("-3,4.5", manager.unconvert(pairs.get(1)));
+		List<Indirect<OrderedPair>> list =
+				manager.convertIndirectAll(Arrays.asList("1,2", "-3,4.5"));
+		assertEquals("1,2", manager.unconvert(list.get(0).get()));
+		assertEquals("-3,4.5", list.get(1).getUnconverted());
+	}
 }
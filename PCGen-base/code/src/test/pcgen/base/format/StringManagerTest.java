@@ -16,9 +16,13 @@
  */
 package pcgen.base.format;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 
 import junit.framework.TestCase;
+import pcgen.base.util.Indirect;
 
 /**
  * Test the StringManager class
@@ -78,6 +82,22 @@ public class StringManagerTest extends TestCase
 		assertEquals("abc", manager.unconvert("abc"));
 	}
 
+	public void testUnconvertTo() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		manager.unconvertTo("abc", sb);
+		assertEquals("abc", sb.toString());
+		try
+		{
+			manager.unconvertTo(null, sb);
+			fail("null value should fail");
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+	}
+
 	public void testConvertIndirect()
 	{
 		assertEquals("1", manager.convertIndirect("1").get());
@@ -115,4 +135,27 @@ public class StringManagerTest extends TestCase
 	{
 		assertTrue(manager.isDirect());
 	}
+
+	public void testConvertAll()
+	{
+		assertEquals(Arrays.asList("1", "Hi!"),
+			manager.convertAll(Arrays.asList("1", "Hi!")));
+		String[] output = new String[2];
+		manager.convertInto(new String[]{"A", "B"}, output);
+		assertEquals("A", output[0]);
+		assertEquals("B", output[1]);
+		List<Indirect<String>> list =
+				manager.convertIndirectAll(Arrays.asList("1", "Hi!"));
+		assertEquals("1", list.get(0).get());
+		assertEquals("Hi!", list.get(1).get());
+		try
+		{
+			manager.convertAll(Arrays.asList("1", null));
+			fail("null value should fail");
+		}
+		catch (NullPointerException | IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
 }
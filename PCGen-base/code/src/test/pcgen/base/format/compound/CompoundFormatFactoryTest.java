@@ -106,4 +106,50 @@ public class CompoundFormatFactoryTest extends TestCase
 		}
 	}
 
+	public void testBuildCached()
+	{
+		SimpleFormatManagerLibrary library = new SimpleFormatManagerLibrary();
+		library.addFormatManager(numberManager);
+		library.addFormatManager(booleanManager);
+		library.addFormatManager(stringManager);
+		CompoundFormatManager<?> first = (CompoundFormatManager<?>) manager
+			.build("NUMBER,STRING=Level,BOOLEAN?=Allowed", library);
+		assertEquals(0, manager.getCacheHits());
+		assertEquals(1, manager.getCacheMisses());
+		assertSame(first,
+			manager.build("NUMBER,STRING=Level,BOOLEAN?=Allowed", library));
+		assertEquals(1, manager.getCacheHits());
+		assertTrue(manager.getCompileNanos() > 0);
+		assertTrue(manager.getEstimatedNanosSaved() > 0);
+		assertEquals("3|LEVEL=Hard", first.unconvert(first.convert("3|LEVEL=Hard")));
+
+		SimpleFormatManagerLibrary otherLibrary = new SimpleFormatManagerLibrary();
+		otherLibrary.addFormatManager(numberManager);
+		otherLibrary.addFormatManager(booleanManager);
+		otherLibrary.addFormatManager(stringManager);
+		CompoundFormatManager<?> other = (CompoundFormatManager<?>) manager
+			.build("NUMBER,STRING=Level,BOOLEAN?=Allowed", otherLibrary);
+		assertNotSame(first, other);
+		assertEquals(first.getIdentifierType(), other.getIdentifierType());
+		assertEquals(2, manager.getCacheMisses());
+	}
+
+	public void testBuildImmutable()
+	{
+		SimpleFormatManagerLibrary library = new SimpleFormatManagerLibrary();
+		library.addFormatManager(numberManager);
+		library.addFormatManager(stringManager);
+		CompoundFormatManager<?> built = (CompoundFormatManager<?>) manager
+			.build("NUMBER,STRING=Level", library);
+		try
+		{
+			built.addSecondary(booleanManager, "Allowed", false);
+			fail("Should not be able to modify a shared CompoundFormatManager");
+		}
+		catch (UnsupportedOperationException e)
+		{
+			//Expected!
+		}
+		assertEquals("COMPOUND[NUMBER,STRING=Level]", built.getIdentifierType());
+	}
 }
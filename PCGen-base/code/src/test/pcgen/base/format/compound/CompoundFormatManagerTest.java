@@ -17,6 +17,9 @@
  */
 package pcgen.base.format.compound;
 
+import java.util.Arrays;
+import java.util.List;
+
 import junit.framework.TestCase;
 import pcgen.base.format.BooleanManager;
 import pcgen.base.format.NumberManager;
@@ -283,4 +286,100 @@ public class CompoundFormatManagerTest extends TestCase
 		assertEquals("4|ALLOWED=false|LEVEL=Easy", in2.getUnconverted());
 	}
 
+	public void testConvertAll()
+	{
+		CompoundFormatManager<Number> manager =
+				new CompoundFormatManager<>(numberManager, '|');
+		manager.addSecondary(booleanManager, "Allowed", false);
+		manager.addSecondary(stringManager, "Level", true);
+		List<Compound> list = manager.convertAll(
+			Arrays.asList("3|LEVEL=Hard", "4|LEVEL=Easy|ALLOWED=False"));
+		assertEquals(2, list.size());
+		assertEquals("3|LEVEL=Hard", manager.unconvert(list.get(0)));
+		assertEquals("4|ALLOWED=false|LEVEL=Easy", manager.unconvert(list.get(1)));
+		List<Indirect<Compound>> indirect = manager.convertIndirectAll(
+			Arrays.asList("3|LEVEL=Hard", "4|LEVEL=Easy|ALLOWED=False"));
+		assertEquals("3|LEVEL=Hard", indirect.get(0).getUnconverted());
+		assertEquals("4|ALLOWED=false|LEVEL=Easy", indirect.get(1).getUnconverted());
+		try
+		{
+			manager.convertAll(Arrays.asList("3|LEVEL=Hard", "3|ALLOWED=true"));
+			fail("Should not be able to convert instructions"
+				+ " missing a required association");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//ok
+		}
+	}
+
+	public void testInvalidConvertNoEquals()
+	{
+		CompoundFormatManager<Number> manager =
+				new CompoundFormatManager<>(numberManager, '|');
+		manager.addSecondary(stringManager, "Level", false);
+		try
+		{
+			manager.convert("3|LEVEL");
+			fail("Should not be able to convert a secondary value without =");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//ok
+		}
+	}
+
+	public void testAddSecondaryAfterConvert()
+	{
+		CompoundFormatManager<Number> manager =
+				new CompoundFormatManager<>(numberManager, '|');
+		manager.addSecondary(stringManager, "Level", true);
+		assertEquals("3|LEVEL=Hard", manager.unconvert(manager.convert("3|LEVEL=Hard")));
+		try
+		{
+			manager.convert("3|LEVEL=Hard|ALLOWED=true");
+			fail("Should not be able to convert an undefined association");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//ok
+		}
+		manager.addSecondary(booleanManager, "Allowed", true);
+		assertEquals("true", manager.convert("3|LEVEL=Hard|ALLOWED=true")
+			.getSecondary("Allowed").getUnconverted());
+		try
+		{
+			manager.convert("3|LEVEL=Hard");
+			fail("Should not be able to convert instructions"
+				+ " missing a newly required association");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//ok
+		}
+	}
+
+	public void testManyRequiredSecondaries()
+	{
+		CompoundFormatManager<Number> manager =
+				new CompoundFormatManager<>(numberManager, '|');
+		StringBuilder sb = new StringBuilder("1");
+		for (int i = 0; i < 70; i++)
+		{
+			manager.addSecondary(numberManager, "S" + i, true);
+			sb.append("|S").append(i).append('=').append(i);
+		}
+		Compound c = manager.convert(sb.toString());
+		assertEquals("69", c.getSecondary("s69").getUnconverted());
+		try
+		{
+			manager.convert(sb.toString().replace("|S64=64", ""));
+			fail("Should not be able to convert instructions"
+				+ " missing a required association");
+		}
+		catch (IllegalArgumentException e)
+		{
+			assertTrue(e.getMessage().contains("S64"));
+		}
+	}
 }
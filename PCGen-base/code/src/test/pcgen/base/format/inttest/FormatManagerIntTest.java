@@ -15,12 +15,17 @@
  */
 package pcgen.base.format.inttest;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
 import junit.framework.TestCase;
 import pcgen.base.format.ArrayFormatManager;
 import pcgen.base.format.compound.Compound;
 import pcgen.base.format.compound.CompoundFormatManager;
 import pcgen.base.formatmanager.FormatUtilities;
 import pcgen.base.util.Indirect;
+import pcgen.base.util.Tuple;
 
 /**
  * Integration testing between FormatManager objects
@@ -406,4 +411,106 @@ public class FormatManagerIntTest extends TestCase
 		assertEquals("4,5|ALLOWED=false|LEVEL=Easy", i2.getUnconverted());
 	}
 
+	public void testConvertAllCompoundArray()
+	{
+		CompoundFormatManager<Number> compoundManager =
+				new CompoundFormatManager<>(FormatUtilities.NUMBER_MANAGER, '|');
+		compoundManager.addSecondary(FormatUtilities.BOOLEAN_MANAGER, "Allowed", false);
+		compoundManager.addSecondary(FormatUtilities.STRING_MANAGER, "Level", true);
+		ArrayFormatManager<Compound> manager =
+				new ArrayFormatManager<>(compoundManager, '\n', ',');
+		List<String> input = Arrays.asList("3,4|LEVEL=Hard",
+			"4,5|LEVEL=Easy|ALLOWED=False\n6|LEVEL=Hard", "");
+		List<Compound[]> list = manager.convertAll(input);
+		assertEquals(3, list.size());
+		assertEquals("3,4|LEVEL=Hard", manager.unconvert(list.get(0)));
+		Compound[] c = list.get(1);
+		assertEquals(3, c.length);
+		assertEquals("4", c[0].getPrimaryUnconverted());
+		assertEquals("false", c[1].getSecondary("ALLOWED").getUnconverted());
+		assertEquals("6", c[2].getPrimaryUnconverted());
+		assertEquals("Hard", c[2].getSecondary("Level").getUnconverted());
+		assertEquals(0, list.get(2).length);
+		List<Indirect<Compound[]>> indirect = manager.convertIndirectAll(input);
+		assertEquals("3,4|LEVEL=Hard", indirect.get(0).getUnconverted());
+		assertEquals(3, indirect.get(1).get().length);
+		assertEquals(0, indirect.get(2).get().length);
+	}
+
+	public void testConvertManyGroupsCompoundArray()
+	{
+		CompoundFormatManager<Number> compoundManager =
+				new CompoundFormatManager<>(FormatUtilities.NUMBER_MANAGER, '|');
+		compoundManager.addSecondary(FormatUtilities.BOOLEAN_MANAGER, "Allowed", false);
+		compoundManager.addSecondary(FormatUtilities.STRING_MANAGER, "Level", true);
+		ArrayFormatManager<Compound> manager =
+				new ArrayFormatManager<>(compoundManager, '\n', ',');
+		int groupCount = 100;
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < groupCount; i++)
+		{
+			if (i > 0)
+			{
+				sb.append('\n');
+			}
+			//Alternate between two signatures to exercise reuse
+			sb.append(2 * i).append(',').append(2 * i + 1)
+				.append((i % 2 == 0) ? "|LEVEL=Hard" : "|LEVEL=Easy|ALLOWED=True");
+		}
+		Compound[] c = manager.convert(sb.toString());
+		assertEquals(2 * groupCount, c.length);
+		for (int i = 0; i < c.length; i++)
+		{
+			assertEquals(Integer.toString(i), c[i].getPrimaryUnconverted());
+			String level = ((i / 2) % 2 == 0) ? "Hard" : "Easy";
+			assertEquals(level, c[i].getSecondary("Level").getUnconverted());
+		}
+		assertNull(c[0].getSecondary("Allowed"));
+		assertEquals("true", c[3].getSecondary("Allowed").getUnconverted());
+		Compound[] indirect = manager.convertIndirect(sb.toString()).get();
+		assertEquals(2 * groupCount, indirect.length);
+		for (int i = 0; i < indirect.length; i++)
+		{
+			assertEquals(Integer.toString(i), indirect[i].getPrimaryUnconverted());
+		}
+		assertEquals("Easy", indirect[199].getSecondary("Level").getUnconverted());
+	}
+
+	public void testUnconvertToCompoundArray() throws IOException
+	{
+		CompoundFormatManager<Number> compoundManager =
+				new CompoundFormatManager<>(FormatUtilities.NUMBER_MANAGER, '|');
+		compoundManager.addSecondary(FormatUtilities.BOOLEAN_MANAGER, "Allowed", false);
+		compoundManager.addSecondary(FormatUtilities.STRING_MANAGER, "Level", true);
+		ArrayFormatManager<Compound> manager =
+				new ArrayFormatManager<>(compoundManager, '\n', ',');
+		Compound[] c =
+				manager.convert("4,5|LEVEL=Easy|ALLOWED=False\n6|LEVEL=Hard\n7|LEVEL=Easy");
+		StringBuilder sb = new StringBuilder();
+		manager.unconvertTo(c, sb);
+		assertEquals("4,5|ALLOWED=false|LEVEL=Easy\n6|LEVEL=Hard\n7|LEVEL=Easy",
+			sb.toString());
+		assertEquals(manager.unconvert(c), sb.toString());
+		sb.setLength(0);
+		Compound[] c2 = manager.convert("1|LEVEL=Easy\n2|LEVEL=Hard\n3,4|LEVEL=Easy");
+		manager.unconvertTo(c2, sb);
+		assertEquals("1,3,4|LEVEL=Easy\n2|LEVEL=Hard", sb.toString());
+		assertEquals(manager.unconvert(c2), sb.toString());
+		sb.setLength(0);
+		for (Compound item : c2)
+		{
+			Tuple<String, String> separated = compoundManager.unconvertSeparated(item);
+			compoundManager.unconvertPrimaryTo(item, sb);
+			assertEquals(separated.getFirst(), sb.toString());
+			sb.setLength(0);
+			compoundManager.unconvertTrailingTo(item, sb);
+			assertEquals(separated.getSecond(), sb.toString());
+			sb.setLength(0);
+		}
+		assertTrue(compoundManager.hasSameTrailing(c2[0], c2[2]));
+		assertFalse(compoundManager.hasSameTrailing(c2[0], c2[1]));
+		compoundManager.unconvertTo(c[0], sb);
+		assertEquals("4|ALLOWED=false|LEVEL=Easy", sb.toString());
+		assertEquals(compoundManager.unconvert(c[0]), sb.toString());
+	}
 }
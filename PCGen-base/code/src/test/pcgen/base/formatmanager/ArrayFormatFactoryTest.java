@@ -19,6 +19,8 @@ package pcgen.base.formatmanager;
 import java.util.Arrays;
 
 import junit.framework.TestCase;
+import pcgen.base.format.BooleanArrayFormatManager;
+import pcgen.base.format.NumberArrayFormatManager;
 import pcgen.base.format.NumberManager;
 import pcgen.base.format.StringManager;
 import pcgen.base.util.FormatManager;
@@ -113,6 +115,16 @@ public class ArrayFormatFactoryTest extends TestCase
 		assertEquals(new StringManager(), manager.getComponentManager());
 	}
 
+	public void testSpecializedManagers()
+	{
+		assertTrue(factory.build("NUMBER", library) instanceof NumberArrayFormatManager);
+		assertTrue(
+			factory.build("BOOLEAN", library) instanceof BooleanArrayFormatManager);
+		FormatManager<?> manager = factory.build("STRING", library);
+		assertFalse(manager instanceof NumberArrayFormatManager);
+		assertFalse(manager instanceof BooleanArrayFormatManager);
+	}
+
 	/*
 	 * Note that this is currently failing due to an error check in ArrayFormatFactory.
 	 * This is not "strict" behavior, in that if an enhancement is made that fixes this
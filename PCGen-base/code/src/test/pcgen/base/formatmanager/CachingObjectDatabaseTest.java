@@ -0,0 +1,221 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formatmanager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+import pcgen.base.format.ArrayFormatManager;
+import pcgen.base.util.FormatManager;
+import pcgen.testsupport.LatencyObjectDatabase;
+
+/**
+ * Test the CachingObjectDatabase class
+ */
+public class CachingObjectDatabaseTest extends TestCase
+{
+
+	private LatencyObjectDatabase underlying;
+	private CachingObjectDatabase database;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		underlying = new LatencyObjectDatabase(0);
+		underlying.map.put(Integer.class, "1", 1);
+		underlying.map.put(Integer.class, "2", 2);
+		underlying.map.put(Integer.class, "3", 3);
+		underlying.map.put(String.class, "1", "One");
+		database = new CachingObjectDatabase(underlying, 2);
+	}
+
+	public void testConstructor()
+	{
+		try
+		{
+			new CachingObjectDatabase(null, 2);
+			fail("null database should fail");
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+		try
+		{
+			new CachingObjectDatabase(underlying, 0);
+			fail("zero size should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
+
+	public void testGet()
+	{
+		assertEquals(Integer.valueOf(1), database.get(Integer.class, "1"));
+		assertEquals(Integer.valueOf(1), database.get(Integer.class, "1"));
+		assertEquals(1, underlying.getRoundTrips());
+		assertEquals(1, database.getHitCount());
+		assertEquals(1, database.getMissCount());
+		//Caches are separate by Class
+		assertEquals("One", database.get(String.class, "1"));
+		assertEquals(2, underlying.getRoundTrips());
+		//Missing objects are not cached
+		assertNull(database.get(Integer.class, "4"));
+		assertNull(database.get(Integer.class, "4"));
+		assertEquals(4, underlying.getRoundTrips());
+		//Name is known from the get
+		assertEquals("1", database.getName(1));
+		assertEquals(2, database.getHitCount());
+	}
+
+	public void testEviction()
+	{
+		database.get(Integer.class, "1");
+		database.get(Integer.class, "2");
+		//Access 1 so 2 is the least recently used
+		database.get(Integer.class, "1");
+		database.get(Integer.class, "3");
+		assertEquals(3, underlying.getRoundTrips());
+		assertEquals(2, database.getEvictionCount());
+		database.get(Integer.class, "1");
+		assertEquals(3, underlying.getRoundTrips());
+		database.get(Integer.class, "2");
+		assertEquals(4, underlying.getRoundTrips());
+	}
+
+	public void testGetAll()
+	{
+		database.get(Integer.class, "2");
+		Integer[] output = new Integer[3];
+		database.getAll(Integer.class, new String[]{"1", "2", "4"}, output);
+		assertTrue(Arrays.equals(new Integer[]{1, 2, null}, output));
+		assertEquals(2, underlying.getRoundTrips());
+		assertEquals(1, database.getHitCount());
+		assertEquals(3, database.getMissCount());
+		database.getAll(Integer.class, new String[]{"2", "1"}, output);
+		assertEquals(Integer.valueOf(2), output[0]);
+		assertEquals(Integer.valueOf(1), output[1]);
+		assertEquals(2, underlying.getRoundTrips());
+	}
+
+	public void testInvalidate()
+	{
+		database.get(Integer.class, "1");
+		database.get(String.class, "1");
+		database.invalidate(Integer.class, "1");
+		underlying.map.put(Integer.class, "1", 11);
+		assertEquals(Integer.valueOf(11), database.get(Integer.class, "1"));
+		assertEquals("One", database.get(String.class, "1"));
+		assertEquals(3, underlying.getRoundTrips());
+		database.invalidateAll(Integer.class);
+		database.get(Integer.class, "1");
+		database.get(String.class, "1");
+		assertEquals(4, underlying.getRoundTrips());
+		database.invalidateAll();
+		database.get(Integer.class, "1");
+		database.get(String.class, "1");
+		assertEquals(6, underlying.getRoundTrips());
+	}
+
+	public void testGetAllUnwrittenSlot()
+	{
+		//An underlying database that does not write the slots of objects not found
+		LatencyObjectDatabase sparse = new LatencyObjectDatabase(0)
+		{
+			@Override
+			public <T> void getAll(Class<T> cl, String[] names, T[] output)
+			{
+				for (int i = 0; i < names.length; i++)
+				{
+					T result = get(cl, names[i]);
+					if (result != null)
+					{
+						output[i] = result;
+					}
+				}
+			}
+		};
+		sparse.map.put(Integer.class, "1", 1);
+		CachingObjectDatabase sparseCache = new CachingObjectDatabase(sparse, 4);
+		sparseCache.get(Integer.class, "1");
+		Integer[] output = new Integer[2];
+		sparseCache.getAll(Integer.class, new String[]{"1", "9"}, output);
+		assertTrue(Arrays.equals(new Integer[]{1, null}, output));
+		assertNull(sparseCache.get(Integer.class, "9"));
+	}
+
+	public void testInvalidateGetName()
+	{
+		Integer two = 2;
+		assertEquals("2", database.getName(two));
+		assertEquals("2", database.getName(two));
+		assertEquals(1, database.getHitCount());
+		assertEquals(1, database.getMissCount());
+		//Only cached through getName, not present in the object cache
+		database.invalidate(Integer.class, "2");
+		assertEquals("2", database.getName(two));
+		assertEquals(2, database.getMissCount());
+		database.invalidate(Number.class, "2");
+		assertEquals("2", database.getName(two));
+		assertEquals(3, database.getMissCount());
+		database.invalidate(String.class, "2");
+		assertEquals("2", database.getName(two));
+		assertEquals(3, database.getMissCount());
+	}
+
+	public void testInvalidateAllSubclass()
+	{
+		Integer two = 2;
+		database.getName(two);
+		database.getName("One");
+		assertEquals(2, database.getMissCount());
+		database.invalidateAll(Number.class);
+		database.getName(two);
+		assertEquals(3, database.getMissCount());
+		database.getName("One");
+		assertEquals(3, database.getMissCount());
+		assertEquals(1, database.getHitCount());
+	}
+
+	public void testGenericFormatFactory()
+	{
+		FormatManager<?> fm = new GenericFormatFactory<>(database, Integer.class,
+			"INT").build(null, null);
+		ArrayFormatManager<?> arrayManager =
+				new ArrayFormatManager<>(fm, '\n', ',');
+		assertTrue(Arrays.equals(new Integer[]{1, 2, 1},
+			(Object[]) arrayManager.convert("1,2,1")));
+		assertTrue(Arrays.equals(new Integer[]{2, 1},
+			(Object[]) arrayManager.convert("2,1")));
+		assertEquals(1, underlying.getRoundTrips());
+		assertEquals("1,2", unconvert(arrayManager, new Integer[]{1, 2}));
+		List<Object> converted = Arrays.asList(fm.convert("1"), fm.convert("2"));
+		assertEquals(Arrays.asList(1, 2), converted);
+		assertEquals(1, underlying.getRoundTrips());
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> String unconvert(ArrayFormatManager<T> fm, Object[] value)
+	{
+		return fm.unconvert((T[]) value);
+	}
+}
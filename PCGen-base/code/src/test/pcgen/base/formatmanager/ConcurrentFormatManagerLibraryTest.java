@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formatmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+import pcgen.base.format.NumberManager;
+import pcgen.base.format.StringManager;
+import pcgen.base.util.FormatManager;
+
+/**
+ * Test the ConcurrentFormatManagerLibrary class
+ */
+public class ConcurrentFormatManagerLibraryTest extends TestCase
+{
+
+	private ConcurrentFormatManagerLibrary library;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		library = new ConcurrentFormatManagerLibrary();
+		FormatUtilities.loadDefaultFormats(library);
+		FormatUtilities.loadDefaultFactories(library);
+	}
+
+	public void testGet()
+	{
+		assertSame(FormatUtilities.NUMBER_MANAGER, library.getFormatManager("NUMBER"));
+		assertSame(FormatUtilities.NUMBER_MANAGER, library.getFormatManager("number"));
+		assertTrue(library.hasFormatManager("ARRAY[STRING]"));
+		assertEquals("ARRAY[STRING]",
+			library.getFormatManager("Array[String]").getIdentifierType());
+		assertFalse(library.hasFormatManager("FOO"));
+		try
+		{
+			library.getFormatManager("FOO");
+			fail("unknown format should fail");
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+		try
+		{
+			library.getFormatManager("ARRAY[NUMBER");
+			fail("bad input value should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
+
+	public void testDuplicateRegistration()
+	{
+		//Equal registration is ignored
+		library.addFormatManager(new NumberManager());
+		try
+		{
+			library.addFormatManager(new DifferentManager("number"));
+			fail("duplicate registration should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+		assertSame(FormatUtilities.NUMBER_MANAGER, library.getFormatManager("NUMBER"));
+	}
+
+	public void testConcurrentRegistration() throws Exception
+	{
+		int threadCount = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		try
+		{
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < threadCount; i++)
+			{
+				FormatManager<String> fm = new DifferentManager("RACE");
+				results.add(executor.submit(() -> {
+					start.await();
+					try
+					{
+						library.addFormatManager(fm);
+						return true;
+					}
+					catch (IllegalArgumentException e)
+					{
+						return false;
+					}
+				}));
+			}
+			start.countDown();
+			int successCount = 0;
+			for (Future<Boolean> result : results)
+			{
+				if (result.get())
+				{
+					successCount++;
+				}
+			}
+			assertEquals(1, successCount);
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	public void testConcurrentLookup() throws Exception
+	{
+		int threadCount = 4;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount + 1);
+		try
+		{
+			List<Callable<Boolean>> tasks = new ArrayList<>();
+			for (int i = 0; i < threadCount; i++)
+			{
+				tasks.add(() -> {
+					for (int j = 0; j < 1000; j++)
+					{
+						if (!"ARRAY[NUMBER]".equals(
+							library.getFormatManager("ARRAY[NUMBER]").getIdentifierType()))
+						{
+							return false;
+						}
+					}
+					return true;
+				});
+			}
+			tasks.add(() -> {
+				for (int j = 0; j < 100; j++)
+				{
+					library.addFormatManager(new DifferentManager("EXTRA" + j));
+				}
+				return true;
+			});
+			for (Future<Boolean> result : executor.invokeAll(tasks))
+			{
+				assertTrue(result.get());
+			}
+			assertTrue(library.hasFormatManager("extra99"));
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * A StringManager with a configurable identifier, which is only equal to itself.
+	 */
+	private static final class DifferentManager extends StringManager
+	{
+		private final String identifier;
+
+		private DifferentManager(String identifier)
+		{
+			this.identifier = identifier;
+		}
+
+		@Override
+		public String getIdentifierType()
+		{
+			return identifier;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return System.identityHashCode(this);
+		}
+
+		@Override
+		public boolean equals(Object o)
+		{
+			return o == this;
+		}
+	}
+}
@@ -16,8 +16,15 @@
  */
 package pcgen.base.formatmanager;
 
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
 import junit.framework.TestCase;
+import pcgen.base.format.ArrayFormatManager;
 import pcgen.base.format.StringManager;
+import pcgen.base.util.Indirect;
+import pcgen.testsupport.LatencyObjectDatabase;
 import pcgen.testsupport.MockObjectDatabase;
 
 /**
@@ -110,6 +117,13 @@ public class GenericFormatManagerTest extends TestCase
 		assertEquals("1.4", manager.unconvert(Double.valueOf(1.4)));
 	}
 
+	public void testUnconvertTo() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		manager.unconvertTo(Integer.valueOf(-3), sb);
+		assertEquals("-3", sb.toString());
+	}
+
 	public void testConvertIndirect()
 	{
 		database.map.put(Object.class, "1", 1);
@@ -120,6 +134,42 @@ public class GenericFormatManagerTest extends TestCase
 		assertEquals(Double.valueOf(1.4), manager.convertIndirect("1.4").get());
 	}
 
+	public void testConvertAllBatched()
+	{
+		LatencyObjectDatabase latencyDB = new LatencyObjectDatabase(0);
+		latencyDB.map.put(Object.class, "1", 1);
+		latencyDB.map.put(Object.class, "2", 2);
+		GenericFormatManager<Object> batched =
+				new GenericFormatManager<>(latencyDB, Object.class, "KEYED");
+		List<Object> list = batched.convertAll(Arrays.asList("2", "1", "2"));
+		assertEquals(Arrays.asList(2, 1, 2), list);
+		assertEquals(1, latencyDB.getRoundTrips());
+		List<Indirect<Object>> indirect =
+				batched.convertIndirectAll(Arrays.asList("1", "2"));
+		assertEquals(Integer.valueOf(1), indirect.get(0).get());
+		assertEquals(Integer.valueOf(2), indirect.get(1).get());
+		assertEquals(2, latencyDB.getRoundTrips());
+		try
+		{
+			batched.convertAll(Arrays.asList("1", null));
+			fail("null value should fail");
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+		assertEquals(2, latencyDB.getRoundTrips());
+
+		ArrayFormatManager<Object> arrayManager =
+				new ArrayFormatManager<>(batched, '\n', ',');
+		Object[] array = arrayManager.convert("1,2,1");
+		assertTrue(Arrays.equals(new Object[]{1, 2, 1}, array));
+		assertEquals(3, latencyDB.getRoundTrips());
+		Object[] resolved = arrayManager.convertIndirect("2,1").get();
+		assertTrue(Arrays.equals(new Object[]{2, 1}, resolved));
+		assertEquals(4, latencyDB.getRoundTrips());
+	}
+
 	public void testGetIdentifier()
 	{
 		assertEquals("KEYED", manager.getIdentifierType());
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.formatmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import pcgen.base.format.ArrayFormatManager;
+import pcgen.base.util.Indirect;
+import pcgen.testsupport.LatencyObjectDatabase;
+
+/**
+ * Test the ResolutionBatch class
+ */
+public class ResolutionBatchTest extends TestCase
+{
+
+	private LatencyObjectDatabase underlying;
+	private ResolutionBatch batch;
+	private GenericFormatManager<Integer> intManager;
+	private GenericFormatManager<String> stringManager;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		underlying = new LatencyObjectDatabase(0);
+		batch = new ResolutionBatch(underlying);
+		intManager = new GenericFormatManager<>(batch, Integer.class, "INT");
+		stringManager = new GenericFormatManager<>(batch, String.class, "STR");
+	}
+
+	public void testResolve()
+	{
+		assertFalse(intManager.isDirect());
+		List<Indirect<Integer>> ints = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+		{
+			ints.add(intManager.convertIndirect(Integer.toString(i % 10)));
+		}
+		Indirect<String> str = stringManager.convertIndirect("A");
+		assertSame(ints.get(3), ints.get(13));
+		assertEquals(11, batch.getPendingCount());
+		assertEquals("3", ints.get(3).getUnconverted());
+		try
+		{
+			ints.get(3).get();
+			fail("unresolved Indirect should fail");
+		}
+		catch (IllegalStateException e)
+		{
+			//expected
+		}
+		assertEquals(0, underlying.getRoundTrips());
+		for (int i = 0; i < 10; i++)
+		{
+			underlying.map.put(Integer.class, Integer.toString(i), i);
+		}
+		underlying.map.put(String.class, "A", "Alpha");
+		assertTrue(batch.resolve());
+		assertEquals(2, underlying.getRoundTrips());
+		for (int i = 0; i < 100; i++)
+		{
+			assertEquals(Integer.valueOf(i % 10), ints.get(i).get());
+		}
+		assertEquals("Alpha", str.get());
+		//Nothing pending, so no further requests
+		assertTrue(batch.resolve());
+		assertEquals(2, underlying.getRoundTrips());
+	}
+
+	public void testResolveMissing()
+	{
+		Indirect<Integer> one = intManager.convertIndirect("1");
+		Indirect<Integer> two = intManager.convertIndirect("2");
+		underlying.map.put(Integer.class, "1", 1);
+		assertFalse(batch.resolve());
+		assertEquals(Integer.valueOf(1), one.get());
+		assertEquals(1, batch.getPendingCount());
+		underlying.map.put(Integer.class, "2", 2);
+		assertTrue(batch.resolve());
+		assertEquals(Integer.valueOf(2), two.get());
+	}
+
+	public void testResolveParallel()
+	{
+		ArrayFormatManager<Integer> arrayManager =
+				new ArrayFormatManager<>(intManager, '\n', ',');
+		Indirect<Integer[]> array = arrayManager.convertIndirect("1,2,3");
+		Indirect<String> str = stringManager.convertIndirect("A");
+		underlying.map.put(Integer.class, "1", 1);
+		underlying.map.put(Integer.class, "2", 2);
+		underlying.map.put(Integer.class, "3", 3);
+		underlying.map.put(String.class, "A", "Alpha");
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try
+		{
+			assertTrue(batch.resolve(pool));
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+		assertEquals(2, underlying.getRoundTrips());
+		assertEquals(3, array.get().length);
+		assertEquals(Integer.valueOf(2), array.get()[1]);
+		assertEquals("1,2,3", array.getUnconverted());
+		assertEquals("Alpha", str.get());
+	}
+}
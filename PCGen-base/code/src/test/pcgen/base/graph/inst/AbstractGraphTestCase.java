@@ -17,14 +17,17 @@
  */
 package pcgen.base.graph.inst;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import junit.framework.TestCase;
 import pcgen.base.graph.base.Edge;
 import pcgen.base.graph.base.Graph;
 import pcgen.base.graph.base.GraphChangeListener;
+import pcgen.base.graph.base.GraphChangeSetEvent;
 import pcgen.base.graph.testsupport.TestGraphChangeListener;
 
 /**
@@ -192,6 +195,60 @@ public abstract class AbstractGraphTestCase<T extends Edge<Integer>> extends
 		// TODO Need to check that clear triggered listener items
 	}
 
+	public void testAddEdges()
+	{
+		Integer node1 = new Integer(1);
+		Integer node2 = new Integer(2);
+		Integer node3 = new Integer(3);
+		T edge = getLegalEdge(node1, node2);
+		T edge2 = getLegalEdge(node2, node3);
+		T edge3 = getLegalEdge(node1, node3);
+		List<GraphChangeSetEvent<Integer, T>> changeSets = new ArrayList<>();
+		TestGraphChangeListener<Integer, T> aggregate =
+				new TestGraphChangeListener<Integer, T>()
+				{
+					@Override
+					public void graphChanged(GraphChangeSetEvent<Integer, T> event)
+					{
+						changeSets.add(event);
+					}
+				};
+		getStrategy().addGraphChangeListener(aggregate);
+		getStrategy().addGraphChangeListener(listener);
+		assertTrue(getStrategy().addNode(node1));
+		assertEquals(1, aggregate.nodeCount);
+		assertTrue(getStrategy().addEdges(Arrays.asList(edge, null, edge2, edge)));
+		assertEquals(3, getStrategy().getNodeCount());
+		assertEquals(2, getStrategy().getEdgeList().size());
+		assertTrue(getStrategy().containsEdge(edge));
+		assertTrue(getStrategy().containsEdge(edge2));
+		assertTrue(getStrategy().containsNode(node3));
+		//Aggregate listener receives one change set, and no individual events
+		assertEquals(1, changeSets.size());
+		assertEquals(1, aggregate.nodeCount);
+		assertEquals(0, aggregate.edgeCount);
+		GraphChangeSetEvent<Integer, T> changeSet = changeSets.get(0);
+		assertSame(getStrategy(), changeSet.getGraph());
+		assertEquals(Arrays.asList(node2, node3), changeSet.getAddedNodes());
+		assertEquals(Arrays.asList(edge, edge2), changeSet.getAddedEdges());
+		//Other listeners receive the individual events
+		assertEquals(3, listener.nodeCount);
+		assertEquals(2, listener.edgeCount);
+		assertEquals(node3, listener.lastAddNode);
+		assertEquals(edge2, listener.lastAddEdge);
+		//Nothing new, so no change
+		assertFalse(getStrategy().addEdges(Arrays.asList(edge, edge2)));
+		assertFalse(getStrategy().addEdges(Collections.emptyList()));
+		assertEquals(1, changeSets.size());
+		assertEquals(2, listener.edgeCount);
+		assertTrue(getStrategy().addEdges(Collections.singletonList(edge3)));
+		assertEquals(2, changeSets.size());
+		assertTrue(changeSets.get(1).getAddedNodes().isEmpty());
+		assertEquals(Collections.singletonList(edge3), changeSets.get(1).getAddedEdges());
+		assertEquals(3, listener.edgeCount);
+		assertTrue(getStrategy().getAdjacentEdges(node3).contains(edge3));
+	}
+
 	protected abstract T getLegalEdge(Integer node1, Integer node2);
 
 	protected abstract T getLegalHyperEdge(Integer[] integers);
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.inst;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import pcgen.base.graph.base.DirectionalEdge;
+import pcgen.base.graph.base.EdgeChangeEvent;
+import pcgen.base.graph.base.Graph;
+import pcgen.base.graph.base.GraphChangeListener;
+import pcgen.base.graph.base.NodeChangeEvent;
+
+/**
+ * Test the ConcurrentDirectionalGraph class
+ */
+public class ConcurrentDirectionalGraphTest extends
+		AbstractGraphTestCase<DirectionalEdge<Integer>>
+{
+
+	private static final int THREADS = 8;
+
+	private ConcurrentDirectionalGraph<Integer, DirectionalEdge<Integer>> strategy;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		strategy = new ConcurrentDirectionalGraph<>();
+	}
+
+	@Override
+	protected DirectionalEdge<Integer> getLegalHyperEdge(Integer[] gna2)
+	{
+		List<Integer> l = new ArrayList<>(Arrays.asList(gna2));
+		l.remove(0);
+		return new DefaultDirectionalHyperEdge<>(
+			Collections.singletonList(gna2[0]), l);
+	}
+
+	@Override
+	protected DirectionalEdge<Integer> getLegalEdge(Integer node1, Integer node2)
+	{
+		return new DefaultDirectionalGraphEdge<>(node1, node2);
+	}
+
+	@Override
+	public Graph<Integer, DirectionalEdge<Integer>> getStrategy()
+	{
+		return strategy;
+	}
+
+	public void testDirectional()
+	{
+		Integer node1 = new Integer(1);
+		Integer node2 = new Integer(2);
+		Integer node3 = new Integer(3);
+		DirectionalEdge<Integer> edge1 = getLegalEdge(node1, node2);
+		DirectionalEdge<Integer> edge2 = getLegalEdge(node2, node3);
+		DirectionalEdge<Integer> edge3 = getLegalEdge(node1, node3);
+		assertTrue(strategy.addEdge(edge1));
+		assertTrue(strategy.addEdge(edge2));
+		assertTrue(strategy.addEdge(edge3));
+		assertEquals(Collections.singletonList(edge2), strategy.getOutwardEdgeList(node2));
+		assertEquals(Collections.singletonList(edge1), strategy.getInwardEdgeList(node2));
+		assertEquals(2, strategy.getOutwardEdgeList(node1).size());
+		assertEquals(2, strategy.getInwardEdgeList(node3).size());
+		assertTrue(strategy.hasOutwardEdge(node1));
+		assertFalse(strategy.hasInwardEdge(node1));
+		assertTrue(strategy.hasInwardEdge(node3));
+		assertFalse(strategy.hasOutwardEdge(node3));
+		assertNull(strategy.getInwardEdgeList(4));
+		assertNull(strategy.getOutwardEdgeList(null));
+		assertFalse(strategy.hasInwardEdge(null));
+		assertFalse(strategy.hasOutwardEdge(4));
+	}
+
+	public void testGetInternalizedNode()
+	{
+		Integer node = new Integer(1);
+		//This must be NEW integer to test Instances not equals equality
+		Integer falseNode1 = new Integer(1);
+		assertNull(strategy.getInternalizedNode(null));
+		assertNull(strategy.getInternalizedNode(node));
+		assertTrue(strategy.addNode(node));
+		assertTrue(node == strategy.getInternalizedNode(falseNode1));
+	}
+
+	public void testRemoveDuringAddFails()
+	{
+		Integer node1 = new Integer(1);
+		strategy.addNode(node1);
+		List<RuntimeException> failures = new ArrayList<>();
+		strategy.addGraphChangeListener(new CountingListener()
+		{
+			@Override
+			public void nodeAdded(NodeChangeEvent<Integer> event)
+			{
+				try
+				{
+					strategy.removeNode(node1);
+				}
+				catch (IllegalStateException e)
+				{
+					failures.add(e);
+				}
+			}
+		});
+		assertTrue(strategy.addNode(2));
+		assertEquals(1, failures.size());
+		assertTrue(strategy.containsNode(node1));
+	}
+
+	public void testConcurrentAddEdge() throws Exception
+	{
+		int edgesPerThread = 2000;
+		CountingListener listener = new CountingListener();
+		strategy.addGraphChangeListener(listener);
+		List<DirectionalEdge<Integer>> allEdges = new ArrayList<>();
+		List<List<DirectionalEdge<Integer>>> work = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++)
+		{
+			List<DirectionalEdge<Integer>> threadEdges = new ArrayList<>();
+			for (int i = 0; i < edgesPerThread; i++)
+			{
+				//Sinks overlap across threads, so implicit Node addition races
+				DirectionalEdge<Integer> edge = getLegalEdge(
+					(t * edgesPerThread) + i, -1 - ((i + t) % 500));
+				threadEdges.add(edge);
+				allEdges.add(edge);
+			}
+			work.add(threadEdges);
+		}
+		runConcurrently(t -> {
+			for (DirectionalEdge<Integer> edge : work.get(t))
+			{
+				assertTrue(strategy.addEdge(edge));
+				//Atomic addEdge: endpoints must already be visible
+				assertTrue(strategy.containsNode(edge.getNodeAt(0)));
+				assertTrue(strategy.containsNode(edge.getNodeAt(1)));
+			}
+		});
+		assertEquals(allEdges.size(), strategy.getEdgeList().size());
+		assertEquals(allEdges.size() + 500, strategy.getNodeCount());
+		assertEquals(allEdges.size(), listener.edgesAdded.get());
+		assertEquals(allEdges.size() + 500, listener.nodesAdded.get());
+		assertEquals(0, listener.edgeBeforeNode.get());
+		for (DirectionalEdge<Integer> edge : allEdges)
+		{
+			assertTrue(strategy.containsEdge(edge));
+			assertTrue(strategy.getAdjacentEdges(edge.getNodeAt(0)).contains(edge));
+			assertTrue(strategy.getAdjacentEdges(edge.getNodeAt(1)).contains(edge));
+		}
+	}
+
+	public void testConcurrentDuplicateAdd() throws Exception
+	{
+		List<DirectionalEdge<Integer>> edges = new ArrayList<>();
+		for (int i = 0; i < 1000; i++)
+		{
+			edges.add(getLegalEdge(i, i + 1));
+		}
+		AtomicInteger successes = new AtomicInteger();
+		AtomicInteger nodeSuccesses = new AtomicInteger();
+		runConcurrently(t -> {
+			for (DirectionalEdge<Integer> edge : edges)
+			{
+				if (strategy.addEdge(edge))
+				{
+					successes.incrementAndGet();
+				}
+				if (strategy.addNode(edge.getNodeAt(0) + 5000))
+				{
+					nodeSuccesses.incrementAndGet();
+				}
+			}
+		});
+		//Each Edge and Node must be added exactly once
+		assertEquals(edges.size(), successes.get());
+		assertEquals(edges.size(), nodeSuccesses.get());
+		assertEquals(edges.size(), strategy.getEdgeList().size());
+		assertEquals(1001 + 1000, strategy.getNodeCount());
+	}
+
+	public void testConcurrentAddAndRemove() throws Exception
+	{
+		int count = 1000;
+		CountingListener listener = new CountingListener();
+		strategy.addGraphChangeListener(listener);
+		runConcurrently(t -> {
+			for (int i = 0; i < count; i++)
+			{
+				Integer source = (t * count) + i;
+				DirectionalEdge<Integer> edge = getLegalEdge(source, -1 - (i % 10));
+				assertTrue(strategy.addEdge(edge));
+				if ((i % 2) == 0)
+				{
+					assertTrue(strategy.removeEdge(edge));
+				}
+				if ((i % 4) == 0)
+				{
+					assertTrue(strategy.removeNode(source));
+				}
+			}
+		});
+		assertEquals(THREADS * count / 2, strategy.getEdgeList().size());
+		assertEquals(listener.edgesAdded.get() - listener.edgesRemoved.get(),
+			strategy.getEdgeList().size());
+		assertEquals(listener.nodesAdded.get() - listener.nodesRemoved.get(),
+			strategy.getNodeCount());
+		for (DirectionalEdge<Integer> edge : strategy.getEdgeList())
+		{
+			for (Integer node : edge.getAdjacentNodes())
+			{
+				assertTrue(strategy.containsNode(node));
+				assertTrue(strategy.getAdjacentEdges(node).contains(edge));
+			}
+		}
+	}
+
+	public void testConcurrentAddEdges() throws Exception
+	{
+		List<DirectionalEdge<Integer>> edges = new ArrayList<>();
+		for (int i = 0; i < 5000; i++)
+		{
+			edges.add(getLegalEdge(i, i + 1));
+		}
+		CountingListener listener = new CountingListener();
+		strategy.addGraphChangeListener(listener);
+		runConcurrently(t -> strategy.addEdges(edges));
+		assertEquals(edges.size(), strategy.getEdgeList().size());
+		assertEquals(edges.size() + 1, strategy.getNodeCount());
+		assertEquals(edges.size(), listener.edgesAdded.get());
+		assertEquals(edges.size() + 1, listener.nodesAdded.get());
+	}
+
+	private void runConcurrently(Work work) throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try
+		{
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++)
+			{
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					start.await();
+					work.run(thread);
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures)
+			{
+				//Rethrows any assertion failure from the worker
+				future.get(60, TimeUnit.SECONDS);
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	private interface Work
+	{
+		public void run(int thread) throws Exception;
+	}
+
+	private class CountingListener
+			implements GraphChangeListener<Integer, DirectionalEdge<Integer>>
+	{
+		private final Set<Integer> reported = ConcurrentHashMap.newKeySet();
+		private final AtomicInteger nodesAdded = new AtomicInteger();
+		private final AtomicInteger nodesRemoved = new AtomicInteger();
+		private final AtomicInteger edgesAdded = new AtomicInteger();
+		private final AtomicInteger edgesRemoved = new AtomicInteger();
+		private final AtomicInteger edgeBeforeNode = new AtomicInteger();
+
+		@Override
+		public void nodeAdded(NodeChangeEvent<Integer> event)
+		{
+			reported.add(event.getGraphNode());
+			nodesAdded.incrementAndGet();
+		}
+
+		@Override
+		public void nodeRemoved(NodeChangeEvent<Integer> event)
+		{
+			nodesRemoved.incrementAndGet();
+		}
+
+		@Override
+		public void edgeAdded(EdgeChangeEvent<Integer, DirectionalEdge<Integer>> event)
+		{
+			//Only the source Node is unique to the adding thread
+			if (!reported.contains(event.getGraphEdge().getNodeAt(0)))
+			{
+				edgeBeforeNode.incrementAndGet();
+			}
+			edgesAdded.incrementAndGet();
+		}
+
+		@Override
+		public void edgeRemoved(EdgeChangeEvent<Integer, DirectionalEdge<Integer>> event)
+		{
+			edgesRemoved.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.inst;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import pcgen.base.graph.base.DirectionalEdge;
+import pcgen.base.graph.testsupport.TestGraphChangeListener;
+
+/**
+ * Test the FrozenDirectionalGraph class
+ */
+public class FrozenDirectionalGraphTest extends TestCase
+{
+
+	private DirectionalSetMapGraph<Integer, DirectionalEdge<Integer>> source;
+
+	private Integer node1;
+	private Integer node2;
+	private Integer node3;
+	private Integer node4;
+	private DirectionalEdge<Integer> edge1;
+	private DirectionalEdge<Integer> edge2;
+	private DirectionalEdge<Integer> edge3;
+	private DirectionalEdge<Integer> edge4;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		source = new DirectionalSetMapGraph<>();
+		node1 = Integer.valueOf(1);
+		node2 = Integer.valueOf(2);
+		node3 = Integer.valueOf(3);
+		node4 = Integer.valueOf(4);
+		edge1 = new DefaultDirectionalGraphEdge<>(node1, node2);
+		edge2 = new DefaultDirectionalGraphEdge<>(node2, node3);
+		edge3 = new DefaultDirectionalGraphEdge<>(node3, node1);
+		edge4 = new DefaultDirectionalHyperEdge<>(
+			Collections.singletonList(node1), Arrays.asList(node3, node4));
+		source.addEdge(edge1);
+		source.addEdge(edge2);
+		source.addEdge(edge3);
+		source.addEdge(edge4);
+	}
+
+	public void testFreezeNull()
+	{
+		try
+		{
+			FrozenDirectionalGraph.freeze(null);
+			fail("Expected freeze of null Graph to fail");
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+		try
+		{
+			FrozenDirectionalGraph.freeze(source, null);
+			fail("Expected freeze with null Comparator to fail");
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+	}
+
+	public void testMutatorsUnsupported()
+	{
+		FrozenDirectionalGraph<Integer, DirectionalEdge<Integer>> frozen =
+				source.freeze();
+		Integer node5 = Integer.valueOf(5);
+		DirectionalEdge<Integer> edge5 = new DefaultDirectionalGraphEdge<>(node4, node5);
+		try
+		{
+			frozen.addNode(node5);
+			fail("Expected addNode to be unsupported");
+		}
+		catch (UnsupportedOperationException e)
+		{
+			//expected
+		}
+		try
+		{
+			frozen.addEdge(edge5);
+			fail("Expected addEdge to be unsupported");
+		}
+		catch (UnsupportedOperationException e)
+		{
+			//expected
+		}
+		try
+		{
+			frozen.addEdges(Collections.singletonList(edge5));
+			fail("Expected addEdges to be unsupported");
+		}
+		catch (UnsupportedOperationException e)
+		{
+			//expected
+		}
+		try
+		{
+			frozen.removeNode(node1);
+			fail("Expected removeNode to be unsupported");
+		}
+		catch (UnsupportedOperationException e)
+		{
+			//expected
+		}
+		try
+		{
+			frozen.removeEdge(edge1);
+			fail("Expected removeEdge to be unsupported");
+		}
+		catch (UnsupportedOperationException e)
+		{
+			//expected
+		}
+		try
+		{
+			frozen.clear();
+			fail("Expected clear to be unsupported");
+		}
+		catch (UnsupportedOperationException e)
+		{
+			//expected
+		}
+		assertEquals(4, frozen.getNodeCount());
+		assertEquals(4, frozen.getEdgeList().size());
+	}
+
+	public void testContains()
+	{
+		FrozenDirectionalGraph<Integer, DirectionalEdge<Integer>> frozen =
+				source.freeze();
+		assertTrue(frozen.containsNode(node1));
+		assertTrue(frozen.containsNode(Integer.valueOf(4)));
+		assertFalse(frozen.containsNode(Integer.valueOf(5)));
+		assertFalse(frozen.containsNode(null));
+		assertTrue(frozen.containsEdge(edge4));
+		assertTrue(frozen.containsEdge(edge1));
+		assertFalse(frozen.containsEdge(new DefaultDirectionalGraphEdge<>(node1, node2)));
+		assertFalse(frozen.containsEdge(null));
+		assertSame(node1, frozen.getInternalizedNode(new Integer(1)));
+		assertNull(frozen.getInternalizedNode(Integer.valueOf(5)));
+		assertFalse(frozen.isEmpty());
+		assertTrue(FrozenDirectionalGraph.freeze(
+			new DirectionalSetMapGraph<Integer, DirectionalEdge<Integer>>()).isEmpty());
+	}
+
+	public void testAdjacency()
+	{
+		FrozenDirectionalGraph<Integer, DirectionalEdge<Integer>> frozen =
+				source.freeze();
+		Set<DirectionalEdge<Integer>> adjacent = frozen.getAdjacentEdges(node1);
+		assertEquals(3, adjacent.size());
+		assertTrue(adjacent.contains(edge1));
+		assertTrue(adjacent.contains(edge3));
+		assertTrue(adjacent.contains(edge4));
+		assertNull(frozen.getAdjacentEdges(Integer.valueOf(5)));
+		assertTrue(frozen.hasAdjacentEdge(node4));
+		assertFalse(frozen.hasAdjacentEdge(Integer.valueOf(5)));
+
+		List<DirectionalEdge<Integer>> l = frozen.getInwardEdgeList(node3);
+		assertEquals(2, l.size());
+		assertTrue(l.contains(edge2));
+		assertTrue(l.contains(edge4));
+		l = frozen.getOutwardEdgeList(node1);
+		assertEquals(2, l.size());
+		assertTrue(l.contains(edge1));
+		assertTrue(l.contains(edge4));
+		assertTrue(frozen.getOutwardEdgeList(node4).isEmpty());
+		assertNull(frozen.getInwardEdgeList(Integer.valueOf(5)));
+		assertNull(frozen.getOutwardEdgeList(null));
+
+		assertTrue(frozen.hasInwardEdge(node4));
+		assertFalse(frozen.hasOutwardEdge(node4));
+		assertTrue(frozen.hasOutwardEdge(node3));
+		assertFalse(frozen.hasInwardEdge(Integer.valueOf(5)));
+		assertFalse(frozen.hasOutwardEdge(null));
+	}
+
+	public void testIsolatedNode()
+	{
+		Integer node5 = Integer.valueOf(5);
+		source.addNode(node5);
+		FrozenDirectionalGraph<Integer, DirectionalEdge<Integer>> frozen =
+				source.freeze();
+		assertTrue(frozen.containsNode(node5));
+		assertFalse(frozen.hasAdjacentEdge(node5));
+		assertTrue(frozen.getAdjacentEdges(node5).isEmpty());
+		assertFalse(frozen.hasInwardEdge(node5));
+		assertFalse(frozen.hasOutwardEdge(node5));
+	}
+
+	public void testNodeOrder()
+	{
+		FrozenDirectionalGraph<Integer, DirectionalEdge<Integer>> frozen =
+				FrozenDirectionalGraph.freeze(source, Comparator.reverseOrder());
+		assertEquals(Arrays.asList(node4, node3, node2, node1), frozen.getNodeList());
+		assertEquals(source, frozen);
+	}
+
+	public void testIndependence()
+	{
+		FrozenDirectionalGraph<Integer, DirectionalEdge<Integer>> frozen =
+				source.freeze();
+		source.removeNode(node4);
+		source.addEdge(new DefaultDirectionalGraphEdge<>(node2, node1));
+		assertTrue(frozen.containsNode(node4));
+		assertTrue(frozen.containsEdge(edge4));
+		assertFalse(frozen.containsEdge(new DefaultDirectionalGraphEdge<>(node2, node1)));
+		assertEquals(4, frozen.getNodeCount());
+		List<Integer> nodeList = frozen.getNodeList();
+		nodeList.clear();
+		assertEquals(4, frozen.getNodeList().size());
+		frozen.getEdgeList().clear();
+		assertEquals(4, frozen.getEdgeList().size());
+	}
+
+	public void testEquals()
+	{
+		FrozenDirectionalGraph<Integer, DirectionalEdge<Integer>> frozen =
+				source.freeze();
+		assertEquals(source, frozen);
+		assertEquals(frozen, source);
+		assertEquals(frozen, source.freeze());
+		assertEquals(frozen.hashCode(), source.freeze().hashCode());
+		assertFalse(frozen.equals(null));
+		assertFalse(frozen.equals(new Object()));
+		source.removeEdge(edge4);
+		assertFalse(source.equals(frozen));
+		assertFalse(frozen.equals(source));
+		source.addEdge(new DefaultDirectionalGraphEdge<>(node2, node1));
+		assertFalse(source.equals(frozen));
+		assertFalse(frozen.equals(source));
+	}
+
+	public void testListeners()
+	{
+		FrozenDirectionalGraph<Integer, DirectionalEdge<Integer>> frozen =
+				source.freeze();
+		frozen.addGraphChangeListener(new TestGraphChangeListener<>());
+		assertEquals(0, frozen.getGraphChangeListeners().length);
+	}
+
+	public void testConcurrentFreeze()
+	{
+		ConcurrentDirectionalGraph<Integer, DirectionalEdge<Integer>> concurrent =
+				new ConcurrentDirectionalGraph<>();
+		concurrent.addEdges(source.getEdgeList());
+		FrozenDirectionalGraph<Integer, DirectionalEdge<Integer>> frozen =
+				concurrent.freeze();
+		assertEquals(source, frozen);
+		concurrent.removeNode(node1);
+		assertTrue(frozen.containsNode(node1));
+		assertEquals(2, frozen.getOutwardEdgeList(node1).size());
+	}
+}
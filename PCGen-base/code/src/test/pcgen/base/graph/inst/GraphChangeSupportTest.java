@@ -18,6 +18,8 @@
 package pcgen.base.graph.inst;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import junit.framework.TestCase;
@@ -112,7 +114,140 @@ public class GraphChangeSupportTest extends TestCase
 		assertEquals(a, listener.nAdded.get(0));
 	}
 
-	private final class TransparentGCL implements GraphChangeListener<Object, Edge<Object>>
+	public void testNotificationOrder()
+	{
+		List<Object> order = new ArrayList<>();
+		TransparentGCL first = new OrderedGCL(order);
+		TransparentGCL second = new OrderedGCL(order);
+		TransparentGCL third = new OrderedGCL(order);
+		support.addGraphChangeListener(first);
+		support.addGraphChangeListener(second);
+		support.addGraphChangeListener(third);
+		support.fireGraphNodeChangeEvent(new Object(), NodeChangeEvent.NODE_ADDED);
+		assertEquals(Arrays.asList(third, second, first), order);
+		order.clear();
+		support.removeGraphChangeListener(second);
+		support.fireGraphNodeChangeEvent(new Object(), NodeChangeEvent.NODE_REMOVED);
+		assertEquals(Arrays.asList(third, first), order);
+	}
+
+	public void testDuplicateListener()
+	{
+		TransparentGCL listener = new TransparentGCL();
+		TransparentGCL other = new TransparentGCL();
+		support.addGraphChangeListener(listener);
+		support.addGraphChangeListener(other);
+		support.addGraphChangeListener(listener);
+		assertEquals(3, support.getGraphChangeListeners().length);
+		support.fireGraphNodeChangeEvent(new Object(), NodeChangeEvent.NODE_ADDED);
+		assertEquals(2, listener.nAdded.size());
+		//Removes the most recent addition
+		support.removeGraphChangeListener(listener);
+		GraphChangeListener<Object, Edge<Object>>[] remaining =
+				support.getGraphChangeListeners();
+		assertEquals(2, remaining.length);
+		assertSame(listener, remaining[0]);
+		assertSame(other, remaining[1]);
+	}
+
+	public void testRemoveByIdentity()
+	{
+		TransparentGCL listener = new EqualGCL();
+		TransparentGCL equal = new EqualGCL();
+		support.addGraphChangeListener(listener);
+		support.addGraphChangeListener(equal);
+		support.removeGraphChangeListener(listener);
+		GraphChangeListener<Object, Edge<Object>>[] remaining =
+				support.getGraphChangeListeners();
+		assertEquals(1, remaining.length);
+		assertSame(equal, remaining[0]);
+	}
+
+	public void testListenerArrayOwnership()
+	{
+		TransparentGCL listener = new TransparentGCL();
+		support.addGraphChangeListener(listener);
+		GraphChangeListener<Object, Edge<Object>>[] array =
+				support.getGraphChangeListeners();
+		array[0] = null;
+		assertSame(listener, support.getGraphChangeListeners()[0]);
+	}
+
+	public void testModifyDuringFire()
+	{
+		TransparentGCL late = new TransparentGCL();
+		TransparentGCL adding = new TransparentGCL()
+		{
+			@Override
+			public void nodeAdded(NodeChangeEvent<Object> event)
+			{
+				super.nodeAdded(event);
+				support.addGraphChangeListener(late);
+			}
+		};
+		support.addGraphChangeListener(adding);
+		support.fireGraphNodeChangeEvent(new Object(), NodeChangeEvent.NODE_ADDED);
+		assertEquals(1, adding.nAdded.size());
+		//Not delivered to a listener added during the fire
+		assertEquals(0, late.nAdded.size());
+		assertEquals(2, support.getGraphChangeListeners().length);
+	}
+
+	public void testFireGraphChangeSetEvent()
+	{
+		TransparentGCL listener = new TransparentGCL();
+		support.addGraphChangeListener(listener);
+		Object a = new Object();
+		Object b = new Object();
+		Edge<Object> edge = new DefaultGraphEdge<>(a, b);
+		support.fireGraphChangeSetEvent(Collections.emptyList(), Collections.emptyList());
+		assertEquals(0, listener.nAdded.size());
+		assertEquals(0, listener.eAdded.size());
+		support.fireGraphChangeSetEvent(Arrays.asList(a, b), Collections.singletonList(edge));
+		assertEquals(0, listener.eRemoved.size());
+		assertEquals(0, listener.nRemoved.size());
+		assertEquals(Arrays.asList(a, b), listener.nAdded);
+		assertEquals(Collections.singletonList(edge), listener.eAdded);
+	}
+
+	private class OrderedGCL extends TransparentGCL
+	{
+		private final List<Object> order;
+
+		private OrderedGCL(List<Object> order)
+		{
+			this.order = order;
+		}
+
+		@Override
+		public void nodeAdded(NodeChangeEvent<Object> event)
+		{
+			order.add(this);
+		}
+
+		@Override
+		public void nodeRemoved(NodeChangeEvent<Object> event)
+		{
+			order.add(this);
+		}
+	}
+
+	private class EqualGCL extends TransparentGCL
+	{
+		@Override
+		public boolean equals(Object o)
+		{
+			return o instanceof EqualGCL;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 0;
+		}
+	}
+
+	private class TransparentGCL implements GraphChangeListener<Object, Edge<Object>>
 	{
 		public List<Object> nAdded = new ArrayList<>();
 		public List<Object> nRemoved = new ArrayList<>();
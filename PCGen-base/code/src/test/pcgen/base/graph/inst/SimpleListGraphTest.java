@@ -17,7 +17,9 @@
  */
 package pcgen.base.graph.inst;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import pcgen.base.graph.base.Edge;
 import pcgen.base.graph.base.Graph;
@@ -60,4 +62,57 @@ public class SimpleListGraphTest extends AbstractGraphTestCase<Edge<Integer>>
 	{
 		return strategy;
 	}
+
+	public void testInsertionOrder()
+	{
+		Integer node1 = Integer.valueOf(1);
+		Integer node2 = Integer.valueOf(2);
+		Integer node3 = Integer.valueOf(3);
+		Integer node4 = Integer.valueOf(4);
+		Edge<Integer> edge1 = getLegalEdge(node3, node1);
+		Edge<Integer> edge2 = getLegalEdge(node2, node3);
+		Edge<Integer> edge3 = getLegalEdge(node4, node3);
+		assertTrue(strategy.addNode(node4));
+		assertTrue(strategy.addEdge(edge1));
+		assertTrue(strategy.addEdge(edge2));
+		assertTrue(strategy.addEdge(edge3));
+		assertEquals(Arrays.asList(node4, node3, node1, node2), strategy.getNodeList());
+		assertEquals(Arrays.asList(edge1, edge2, edge3), strategy.getEdgeList());
+		assertEquals(Arrays.asList(edge1, edge2, edge3),
+			new ArrayList<>(strategy.getAdjacentEdges(node3)));
+		assertTrue(strategy.removeEdge(edge2));
+		assertEquals(Arrays.asList(edge1, edge3),
+			new ArrayList<>(strategy.getAdjacentEdges(node3)));
+		assertTrue(strategy.getAdjacentEdges(node2).isEmpty());
+		assertFalse(strategy.hasAdjacentEdge(node2));
+		assertTrue(strategy.removeNode(node1));
+		assertEquals(Arrays.asList(node4, node3, node2), strategy.getNodeList());
+		assertEquals(Arrays.asList(edge3), strategy.getEdgeList());
+		assertTrue(strategy.addNode(node1));
+		assertEquals(Arrays.asList(node4, node3, node2, node1), strategy.getNodeList());
+	}
+
+	public void testBulkRemoval()
+	{
+		int size = 10000;
+		List<Edge<Integer>> edges = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+		{
+			edges.add(getLegalEdge(i, i + 1));
+		}
+		assertTrue(strategy.addEdges(edges));
+		assertEquals(size + 1, strategy.getNodeCount());
+		for (int i = 0; i <= size; i += 2)
+		{
+			assertTrue(strategy.removeNode(i));
+		}
+		assertEquals(size / 2, strategy.getNodeCount());
+		//Every edge was adjacent to an even node
+		assertTrue(strategy.getEdgeList().isEmpty());
+		for (int i = 1; i < size; i += 2)
+		{
+			assertTrue(strategy.containsNode(i));
+			assertFalse(strategy.hasAdjacentEdge(i));
+		}
+	}
 }
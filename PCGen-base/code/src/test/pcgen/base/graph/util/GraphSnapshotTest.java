@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.util;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+import pcgen.base.graph.base.Edge;
+import pcgen.base.graph.inst.DefaultDirectionalGraphEdge;
+import pcgen.base.graph.inst.DefaultGraphEdge;
+import pcgen.base.graph.inst.DefaultHyperEdge;
+import pcgen.base.graph.inst.SimpleListGraph;
+
+/**
+ * Test the GraphSnapshot class
+ */
+public class GraphSnapshotTest extends TestCase
+{
+
+	private SimpleListGraph<Integer, Edge<Integer>> graph;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		graph = new SimpleListGraph<>();
+	}
+
+	public void testNull()
+	{
+		try
+		{
+			GraphSnapshot.of(null);
+			fail();
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+	}
+
+	public void testEmpty()
+	{
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		assertEquals(0, snapshot.getNodeCount());
+		assertEquals(-1, snapshot.getIndex(1));
+	}
+
+	public void testNodes()
+	{
+		graph.addNode(3);
+		graph.addNode(1);
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		assertEquals(2, snapshot.getNodeCount());
+		assertEquals(Integer.valueOf(3), snapshot.getNode(snapshot.getIndex(3)));
+		assertEquals(Integer.valueOf(1), snapshot.getNode(snapshot.getIndex(1)));
+		assertEquals(-1, snapshot.getIndex(2));
+		assertEquals(0, snapshot.getSuccessorCount(0));
+		assertEquals(0, snapshot.getNeighborCount(1));
+	}
+
+	public void testDirectional()
+	{
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(1, 2));
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(1, 3));
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		int one = snapshot.getIndex(1);
+		int two = snapshot.getIndex(2);
+		int three = snapshot.getIndex(3);
+		assertEquals(2, snapshot.getSuccessorCount(one));
+		int[] successors = snapshot.getSuccessors(one);
+		Arrays.sort(successors);
+		int[] expected = new int[]{two, three};
+		Arrays.sort(expected);
+		assertTrue(Arrays.equals(expected, successors));
+		assertEquals(0, snapshot.getSuccessorCount(two));
+		assertEquals(1, snapshot.getNeighborCount(two));
+		assertEquals(one, snapshot.getNeighbor(two, 0));
+		assertEquals(one, snapshot.getNeighbors(three)[0]);
+	}
+
+	public void testNonDirectional()
+	{
+		graph.addEdge(new DefaultGraphEdge<>(1, 2));
+		graph.addEdge(new DefaultHyperEdge<>(Arrays.asList(2, 3, 4)));
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		int one = snapshot.getIndex(1);
+		int two = snapshot.getIndex(2);
+		assertEquals(1, snapshot.getSuccessorCount(one));
+		assertEquals(two, snapshot.getSuccessor(one, 0));
+		assertEquals(3, snapshot.getSuccessorCount(two));
+		assertEquals(3, snapshot.getNeighborCount(two));
+		assertEquals(2, snapshot.getNeighborCount(snapshot.getIndex(4)));
+	}
+
+	public void testIndependentOfGraph()
+	{
+		graph.addEdge(new DefaultGraphEdge<>(1, 2));
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		graph.addEdge(new DefaultGraphEdge<>(1, 3));
+		graph.removeNode(2);
+		assertEquals(2, snapshot.getNodeCount());
+		assertEquals(-1, snapshot.getIndex(3));
+		assertEquals(1, snapshot.getSuccessorCount(snapshot.getIndex(1)));
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import junit.framework.TestCase;
+import pcgen.base.graph.base.DirectionalEdge;
+import pcgen.base.graph.base.Edge;
+import pcgen.base.graph.inst.DefaultDirectionalGraphEdge;
+import pcgen.base.graph.inst.DirectionalSetMapGraph;
+import pcgen.base.graph.inst.SimpleListGraph;
+
+/**
+ * Test the GraphUtilities class
+ */
+public class GraphUtilitiesTest extends TestCase
+{
+
+	private DirectionalSetMapGraph<Integer, DirectionalEdge<Integer>> graphA;
+	private SimpleListGraph<Integer, DirectionalEdge<Integer>> graphB;
+	private DirectionalEdge<Integer> edge1;
+	private DirectionalEdge<Integer> edge2;
+	private DirectionalEdge<Integer> edge3;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		graphA = new DirectionalSetMapGraph<>();
+		graphB = new SimpleListGraph<>();
+		edge1 = new DefaultDirectionalGraphEdge<>(1, 2);
+		edge2 = new DefaultDirectionalGraphEdge<>(2, 3);
+		edge3 = new DefaultDirectionalGraphEdge<>(3, 4);
+	}
+
+	public void testEqualsEmpty()
+	{
+		assertTrue(GraphUtilities.equals(graphA, graphB));
+		assertTrue(GraphUtilities.equals(graphB, graphA));
+	}
+
+	public void testEquals()
+	{
+		graphA.addEdge(edge1);
+		graphA.addEdge(edge2);
+		graphA.addNode(5);
+		//Different insertion order
+		graphB.addNode(5);
+		graphB.addEdge(edge2);
+		assertFalse(GraphUtilities.equals(graphA, graphB));
+		assertFalse(GraphUtilities.equals(graphB, graphA));
+		graphB.addEdge(edge1);
+		assertTrue(GraphUtilities.equals(graphA, graphB));
+		assertTrue(GraphUtilities.equals(graphB, graphA));
+	}
+
+	public void testEqualsSameSizeDifferentContents()
+	{
+		graphA.addEdge(edge1);
+		graphA.addNode(3);
+		graphB.addEdge(edge1);
+		graphB.addNode(4);
+		assertFalse(GraphUtilities.equals(graphA, graphB));
+		assertFalse(GraphUtilities.equals(graphB, graphA));
+	}
+
+	public void testEqualsSameNodesDifferentEdges()
+	{
+		graphA.addEdge(edge1);
+		graphB.addEdge(new DefaultDirectionalGraphEdge<>(1, 2));
+		assertEquals(graphA.getNodeCount(), graphB.getNodeCount());
+		assertEquals(graphA.getEdgeList().size(), graphB.getEdgeList().size());
+		assertFalse(GraphUtilities.equals(graphA, graphB));
+		assertFalse(GraphUtilities.equals(graphB, graphA));
+	}
+
+	public void testDifferenceEmpty()
+	{
+		graphA.addEdge(edge1);
+		graphB.addEdge(edge1);
+		GraphDifference<Integer, DirectionalEdge<Integer>> diff =
+				GraphUtilities.difference(graphA, graphB);
+		assertTrue(diff.isEmpty());
+		assertTrue(diff.getAddedNodes().isEmpty());
+		assertTrue(diff.getRemovedNodes().isEmpty());
+		assertTrue(diff.getAddedEdges().isEmpty());
+		assertTrue(diff.getRemovedEdges().isEmpty());
+	}
+
+	public void testDifference()
+	{
+		graphA.addEdge(edge1);
+		graphA.addEdge(edge2);
+		graphA.addNode(7);
+		graphB.addEdge(edge2);
+		graphB.addEdge(edge3);
+		graphB.addNode(5);
+		graphB.addNode(6);
+		GraphDifference<Integer, DirectionalEdge<Integer>> diff =
+				GraphUtilities.difference(graphA, graphB);
+		assertFalse(diff.isEmpty());
+		assertEquals(Arrays.asList(4, 5, 6), diff.getAddedNodes());
+		assertEquals(2, diff.getRemovedNodes().size());
+		assertTrue(diff.getRemovedNodes().containsAll(Arrays.asList(1, 7)));
+		assertEquals(Collections.singletonList(edge3), diff.getAddedEdges());
+		assertEquals(Collections.singletonList(edge1), diff.getRemovedEdges());
+
+		GraphDifference<Integer, DirectionalEdge<Integer>> reverse =
+				GraphUtilities.difference(graphB, graphA);
+		assertEquals(diff.getAddedEdges(), reverse.getRemovedEdges());
+		assertEquals(diff.getRemovedEdges(), reverse.getAddedEdges());
+		assertEquals(Arrays.asList(4, 5, 6), reverse.getRemovedNodes());
+	}
+
+	public void testDifferenceUnmodifiable()
+	{
+		GraphDifference<Integer, Edge<Integer>> diff =
+				GraphUtilities.difference(new SimpleListGraph<Integer, Edge<Integer>>(),
+					new SimpleListGraph<Integer, Edge<Integer>>());
+		try
+		{
+			diff.getAddedNodes().add(1);
+			fail("Expected GraphDifference List to be unmodifiable");
+		}
+		catch (UnsupportedOperationException e)
+		{
+			//expected
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.graph.util;
+
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import pcgen.base.graph.base.DirectionalEdge;
+import pcgen.base.graph.inst.DefaultDirectionalGraphEdge;
+import pcgen.base.graph.inst.DirectionalSetMapGraph;
+import pcgen.testsupport.TestSupport;
+
+/**
+ * Test the ParallelGraphTraversal class
+ */
+public class ParallelGraphTraversalTest extends TestCase
+{
+
+	private DirectionalSetMapGraph<Integer, DirectionalEdge<Integer>> graph;
+
+	private ForkJoinPool pool;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		graph = new DirectionalSetMapGraph<>();
+		pool = new ForkJoinPool(4);
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		pool.shutdown();
+	}
+
+	public void testConstructor()
+	{
+		TestSupport.invokePrivateConstructor(ParallelGraphTraversal.class);
+	}
+
+	public void testBreadthFirstSearchBadRoot()
+	{
+		graph.addNode(1);
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		try
+		{
+			ParallelGraphTraversal.breadthFirstSearch(snapshot, 2, pool);
+			fail();
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
+
+	public void testBreadthFirstSearch()
+	{
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(1, 2));
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(2, 3));
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(1, 3));
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(3, 4));
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(5, 1));
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		int[] depth = ParallelGraphTraversal.breadthFirstSearch(snapshot, 1, pool);
+		assertEquals(0, depth[snapshot.getIndex(1)]);
+		assertEquals(1, depth[snapshot.getIndex(2)]);
+		assertEquals(1, depth[snapshot.getIndex(3)]);
+		assertEquals(2, depth[snapshot.getIndex(4)]);
+		assertEquals(ParallelGraphTraversal.UNREACHED, depth[snapshot.getIndex(5)]);
+	}
+
+	public void testBreadthFirstSearchLarge()
+	{
+		//A binary tree, large enough to force the frontier to be split
+		int size = 20000;
+		for (int i = 1; i < size; i++)
+		{
+			graph.addEdge(new DefaultDirectionalGraphEdge<>((i - 1) / 2, i));
+		}
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		int[] depth = ParallelGraphTraversal.breadthFirstSearch(snapshot, 0, pool);
+		for (int i = 0; i < size; i++)
+		{
+			int expected = 31 - Integer.numberOfLeadingZeros(i + 1);
+			assertEquals(expected, depth[snapshot.getIndex(i)]);
+		}
+	}
+
+	public void testConnectedComponents()
+	{
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(1, 2));
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(3, 2));
+		graph.addEdge(new DefaultDirectionalGraphEdge<>(4, 5));
+		graph.addNode(6);
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		int[] label = ParallelGraphTraversal.connectedComponents(snapshot, pool);
+		int one = label[snapshot.getIndex(1)];
+		assertEquals(one, label[snapshot.getIndex(2)]);
+		assertEquals(one, label[snapshot.getIndex(3)]);
+		int four = label[snapshot.getIndex(4)];
+		assertEquals(four, label[snapshot.getIndex(5)]);
+		int six = label[snapshot.getIndex(6)];
+		assertFalse(one == four);
+		assertFalse(one == six);
+		assertFalse(four == six);
+	}
+
+	public void testConnectedComponentsLarge()
+	{
+		//Ten chains, each with 2000 Nodes, linked in an order that spans tasks
+		int chains = 10;
+		int length = 2000;
+		for (int i = 0; i < length - 1; i++)
+		{
+			for (int c = 0; c < chains; c++)
+			{
+				graph.addEdge(new DefaultDirectionalGraphEdge<>(c + (i * chains),
+					c + ((i + 1) * chains)));
+			}
+		}
+		GraphSnapshot<Integer> snapshot = GraphSnapshot.of(graph);
+		int[] label = ParallelGraphTraversal.connectedComponents(snapshot);
+		for (int c = 0; c < chains; c++)
+		{
+			int expected = label[snapshot.getIndex(c)];
+			for (int i = 1; i < length; i++)
+			{
+				assertEquals(expected, label[snapshot.getIndex(c + (i * chains))]);
+			}
+			for (int other = c + 1; other < chains; other++)
+			{
+				assertFalse(expected == label[snapshot.getIndex(other)]);
+			}
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.lang;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the StringReplacer class
+ */
+public class StringReplacerTest extends TestCase
+{
+
+	public void testBadPairs()
+	{
+		try
+		{
+			StringReplacer.compile(Collections.singletonMap("", "a"));
+			fail("Expected IAE for empty find");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//Expected
+		}
+		try
+		{
+			StringReplacer.compile(Collections.singletonMap("a", null));
+			fail("Expected NPE for null replacement");
+		}
+		catch (NullPointerException e)
+		{
+			//Expected
+		}
+		try
+		{
+			StringReplacer.compile(Collections.singletonMap(null, "a"));
+			fail("Expected NPE for null find");
+		}
+		catch (NullPointerException e)
+		{
+			//Expected
+		}
+	}
+
+	public void testEmpty()
+	{
+		StringReplacer replacer = StringReplacer.compile(Collections.emptyMap());
+		assertEquals(0, replacer.getPairCount());
+		String input = "ABC";
+		assertSame(input, replacer.replaceAll(input));
+		assertEquals("", replacer.replaceAll(""));
+	}
+
+	public void testReplaceAll()
+	{
+		Map<String, String> pairs = new HashMap<>();
+		pairs.put("he", "HE");
+		pairs.put("she", "x");
+		pairs.put("his", "[his]");
+		pairs.put("hers", "");
+		StringReplacer replacer = StringReplacer.compile(pairs);
+		assertEquals(4, replacer.getPairCount());
+		String input = "no match";
+		assertSame(input, replacer.replaceAll(input));
+		assertEquals("x", replacer.replaceAll("she"));
+		assertEquals("uxrs", replacer.replaceAll("ushers"));
+		assertEquals("t!", replacer.replaceAll("thers!"));
+		assertEquals("HEHE", replacer.replaceAll("hehe"));
+		assertEquals("t[his] is HEr", replacer.replaceAll("this is her"));
+		assertEquals("xll", replacer.replaceAll("shell"));
+		StringBuilder sb = new StringBuilder("Out: ");
+		assertSame(sb, replacer.replaceAll(new StringBuilder("his"), sb));
+		assertEquals("Out: [his]", sb.toString());
+		sb.setLength(0);
+		replacer.replaceAll("plain", sb);
+		assertEquals("plain", sb.toString());
+	}
+
+	public void testMatchesReference()
+	{
+		Random random = new Random(11);
+		for (int trial = 0; trial < 300; trial++)
+		{
+			Map<String, String> pairs = new LinkedHashMap<>();
+			int pairCount = 1 + random.nextInt(6);
+			for (int i = 0; i < pairCount; i++)
+			{
+				pairs.put(randomString(random, 1 + random.nextInt(3)), "<" + i + ">");
+			}
+			StringReplacer replacer = StringReplacer.compile(pairs);
+			for (int j = 0; j < 10; j++)
+			{
+				String input = randomString(random, random.nextInt(15));
+				assertEquals(pairs + " " + input, replaceReference(input, pairs),
+					replacer.replaceAll(input));
+			}
+		}
+	}
+
+	public void testMatchesChainedReplaceAll()
+	{
+		Map<String, String> pairs = new LinkedHashMap<>();
+		for (int i = 0; i < 500; i++)
+		{
+			pairs.put("{" + i + "}", "v" + (i * 7));
+		}
+		StringReplacer replacer = StringReplacer.compile(pairs);
+		Random random = new Random(3);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 200; i++)
+		{
+			sb.append("text ").append('{').append(random.nextInt(600)).append("} ");
+		}
+		String input = sb.toString();
+		String expected = input;
+		for (Map.Entry<String, String> entry : pairs.entrySet())
+		{
+			expected = StringUtil.replaceAll(expected, entry.getKey(), entry.getValue());
+		}
+		assertEquals(expected, replacer.replaceAll(input));
+	}
+
+	private static String randomString(Random random, int length)
+	{
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < length; i++)
+		{
+			sb.append((char) ('a' + random.nextInt(3)));
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Replaces the leftmost-longest instance of any find String at each position, by
+	 * testing every find String at every position.
+	 */
+	private static String replaceReference(String input, Map<String, String> pairs)
+	{
+		StringBuilder sb = new StringBuilder();
+		int i = 0;
+		while (i < input.length())
+		{
+			String best = null;
+			for (String find : pairs.keySet())
+			{
+				if (input.startsWith(find, i)
+					&& ((best == null) || (find.length() > best.length())))
+				{
+					best = find;
+				}
+			}
+			if (best == null)
+			{
+				sb.append(input.charAt(i));
+				i++;
+			}
+			else
+			{
+				sb.append(pairs.get(best));
+				i += best.length();
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -17,10 +17,13 @@
  */
 package pcgen.base.lang;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Random;
+import java.util.regex.Pattern;
 
 import junit.framework.TestCase;
 import pcgen.testsupport.TestSupport;
@@ -107,6 +110,36 @@ public class StringUtilTest extends TestCase
 		assertEquals("ABCCDbEFG", StringUtil.replaceAll("ABDaDaDbEFG", "Da", "C"));
 	}
 
+	public void testReplaceAllEmptyFind()
+	{
+		try
+		{
+			StringUtil.replaceAll("ABD", "", "C");
+			fail("Expected IAE for empty find");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//Expected
+		}
+	}
+
+	public void testReplaceAllIntoBuilder()
+	{
+		StringBuilder sb = new StringBuilder("X:");
+		assertSame(sb, StringUtil.replaceAll(new StringBuilder("ABDaDaDbEFG"),
+			new StringBuilder("Da"), "C", sb));
+		assertEquals("X:ABCCDbEFG", sb.toString());
+		sb.setLength(0);
+		StringUtil.replaceAll("DDD", "DD", "x", sb);
+		assertEquals("xD", sb.toString());
+		sb.setLength(0);
+		StringUtil.replaceAll(new StringBuilder("ADBD"), "F", "C", sb);
+		assertEquals("ADBD", sb.toString());
+		sb.setLength(0);
+		StringUtil.replaceAll(new StringBuilder("ABD"), "BDE", "C", sb);
+		assertEquals("ABD", sb.toString());
+	}
+
 	public void testHasBalancedParens()
 	{
 		assertTrue(StringUtil.hasBalancedParens("No Parens!"));
@@ -126,6 +159,91 @@ public class StringUtilTest extends TestCase
 		assertFalse(StringUtil.hasBalancedParens(") will also cause a problem without a ( before it"));
 		assertFalse(StringUtil.hasBalancedParens("(and getting fancy) doesn't help)"));
 	}
+
+	public void testHasBalancedParensCharSequence()
+	{
+		assertTrue(StringUtil.hasBalancedParens(new StringBuilder("(a(b)c)")));
+		assertFalse(StringUtil.hasBalancedParens(new StringBuilder(")(")));
+		assertTrue(StringUtil.hasBalancedParens(""));
+	}
+
+	public void testHasValidSeparators()
+	{
+		assertTrue(StringUtil.hasValidSeparators("a", ','));
+		assertTrue(StringUtil.hasValidSeparators("a,b,c", ','));
+		assertTrue(StringUtil.hasValidSeparators(new StringBuilder("a|b"), '|'));
+		assertFalse(StringUtil.hasValidSeparators(",", ','));
+		assertFalse(StringUtil.hasValidSeparators(",a", ','));
+		assertFalse(StringUtil.hasValidSeparators("a,", ','));
+		assertFalse(StringUtil.hasValidSeparators("a,,b", ','));
+		assertFalse(StringUtil.hasValidSeparators("a,b,,", ','));
+	}
+
+	public void testSplitMatchesRegex()
+	{
+		Random random = new Random(7);
+		char[] chars = {'a', 'b', ',', '|'};
+		String[] buffer = new String[3];
+		int[] offsets = new int[6];
+		for (int trial = 0; trial < 500; trial++)
+		{
+			StringBuilder sb = new StringBuilder();
+			int length = random.nextInt(10);
+			for (int i = 0; i < length; i++)
+			{
+				sb.append(chars[random.nextInt(chars.length)]);
+			}
+			String input = sb.toString();
+			String[] expected = input.split(Pattern.quote(","));
+			assertTrue(input, Arrays.equals(expected, StringUtil.split(input, ',')));
+			Arrays.fill(buffer, null);
+			int count = StringUtil.split(sb, ',', buffer);
+			assertEquals(input, expected.length, count);
+			count = StringUtil.splitOffsets(sb, ',', offsets);
+			assertEquals(input, expected.length, count);
+			for (int i = 0; i < Math.min(count, buffer.length); i++)
+			{
+				assertEquals(input, expected[i], buffer[i]);
+				assertEquals(input, expected[i],
+					input.substring(offsets[2 * i], offsets[2 * i + 1]));
+			}
+		}
+	}
+
+	public void testSplitIntoBuffer()
+	{
+		String[] buffer = new String[4];
+		assertEquals(3, StringUtil.split("a|b|c", '|', buffer));
+		assertTrue(Arrays.equals(new String[]{"a", "b", "c", null}, buffer));
+		assertEquals(5, StringUtil.split("1|2|3||4", '|', buffer));
+		assertTrue(Arrays.equals(new String[]{"1", "2", "3", ""}, buffer));
+		assertEquals(1, StringUtil.split("", '|', buffer));
+		assertEquals("", buffer[0]);
+		assertEquals(0, StringUtil.split("||", '|', buffer));
+		int[] offsets = new int[4];
+		assertEquals(3, StringUtil.splitOffsets("ab|c|de", '|', offsets));
+		assertTrue(Arrays.equals(new int[]{0, 2, 3, 4}, offsets));
+	}
+
+	public void testJoinAppendable() throws IOException
+	{
+		StringBuilder sb = new StringBuilder("List: ");
+		assertSame(sb, StringUtil.join(Arrays.asList("a", 2, new StringBuilder("c")),
+			", ", sb));
+		assertEquals("List: a, 2, c", sb.toString());
+		sb.setLength(0);
+		StringUtil.join(Collections.emptyList(), ", ", sb);
+		assertEquals("", sb.toString());
+		try
+		{
+			StringUtil.join(Arrays.asList(1, null), ", ", sb);
+			fail("Expected NPE for null item");
+		}
+		catch (NullPointerException e)
+		{
+			//Expected
+		}
+	}
 	
 	public void testCaseSensitiveOrder()
 	{
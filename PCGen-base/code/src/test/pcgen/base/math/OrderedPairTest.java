@@ -16,6 +16,8 @@
  */
 package pcgen.base.math;
 
+import java.math.BigDecimal;
+
 import junit.framework.TestCase;
 
 /**
@@ -194,5 +196,52 @@ public class OrderedPairTest extends TestCase
 		assertTrue(op1b.equals(op1));
 		assertTrue(op1b.hashCode() == op1.hashCode());
 	}
-	
+
+	public void testValueOfPrecision()
+	{
+		OrderedPair op = OrderedPair.valueOf(" -12 , +3 ");
+		assertEquals(Integer.valueOf(-12), op.getPreciseX());
+		assertEquals(Integer.valueOf(3), op.getPreciseY());
+		op = OrderedPair.valueOf("1234567,12345678");
+		assertEquals(Integer.valueOf(1234567), op.getPreciseX());
+		assertEquals(new BigDecimal("12345678"), op.getPreciseY());
+		op = OrderedPair.valueOf("4.5,-1");
+		assertEquals(new BigDecimal("4.5"), op.getPreciseX());
+		assertEquals(Integer.valueOf(-1), op.getPreciseY());
+		assertEquals("4.5,-1", op.toString());
+	}
+
+	public void testValueOfInterned()
+	{
+		assertSame(OrderedPair.valueOf("4,6"), OrderedPair.valueOf("4, 6"));
+		assertSame(OrderedPair.valueOf(4, 6), OrderedPair.valueOf("4,6"));
+		assertNotSame(OrderedPair.valueOf(4000, 6), OrderedPair.valueOf(4000, 6));
+		assertEquals(OrderedPair.valueOf(4000, 6), OrderedPair.valueOf("4000,6"));
+	}
+
+	public void testPrimitiveEquals()
+	{
+		OrderedPair boxed = new OrderedPair(4000, -6);
+		OrderedPair primitive = OrderedPair.valueOf(4000, -6);
+		assertEquals(boxed, primitive);
+		assertEquals(primitive, boxed);
+		assertEquals(boxed.hashCode(), primitive.hashCode());
+		assertEquals(boxed.toString(), primitive.toString());
+		assertFalse(primitive.equals(OrderedPair.valueOf(4000, 6)));
+		assertFalse(primitive.equals(new OrderedPair(4000.0, -6.0)));
+
+		OrderedPair boxedDouble = new OrderedPair(1.5, -0.0);
+		OrderedPair primitiveDouble = OrderedPair.valueOf(1.5, -0.0);
+		assertEquals(boxedDouble, primitiveDouble);
+		assertEquals(primitiveDouble, boxedDouble);
+		assertEquals(primitiveDouble, OrderedPair.valueOf(1.5, -0.0));
+		assertEquals(boxedDouble.hashCode(), primitiveDouble.hashCode());
+		assertEquals(boxedDouble.toString(), primitiveDouble.toString());
+		assertEquals(Double.valueOf(1.5), primitiveDouble.getPreciseX());
+		//Same semantics as Double.equals
+		assertFalse(primitiveDouble.equals(OrderedPair.valueOf(1.5, 0.0)));
+		assertEquals(OrderedPair.valueOf(Double.NaN, 1),
+			new OrderedPair(Double.NaN, 1.0));
+		assertFalse(primitiveDouble.equals(OrderedPair.valueOf(1, 0)));
+	}
 }
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.text;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import junit.framework.TestCase;
+import pcgen.base.text.ParsingSeparator.GroupingMismatchException;
+import pcgen.base.util.CSVUtilities;
+
+/**
+ * Test the MappedLineSource class
+ */
+public class MappedLineSourceTest extends TestCase
+{
+
+	private Path file;
+
+	@Override
+	protected void setUp() throws Exception
+	{
+		super.setUp();
+		file = Files.createTempFile("MappedLineSourceTest", ".lst");
+	}
+
+	@Override
+	protected void tearDown() throws Exception
+	{
+		Files.delete(file);
+		super.tearDown();
+	}
+
+	private MappedLineSource open(String content) throws IOException
+	{
+		Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+		return MappedLineSource.open(file, StandardCharsets.UTF_8);
+	}
+
+	public void testLines() throws IOException
+	{
+		MappedLineSource source = open("a\r\nb\rc\n\n\u00e9t\u00e9\tx");
+		assertEquals(5, source.getLineCount());
+		assertEquals(Arrays.asList("a", "b", "c", "", "\u00e9t\u00e9\tx"),
+			source.getLines());
+		assertEquals("\u00e9t\u00e9\tx", source.getLine(4));
+		try
+		{
+			source.getLine(5);
+			fail("out of range line should fail");
+		}
+		catch (IndexOutOfBoundsException e)
+		{
+			//expected
+		}
+		assertEquals(Arrays.asList("a", "b"), open("a\nb\n").getLines());
+		assertEquals(Collections.emptyList(), open("").getLines());
+	}
+
+	public void testBadCharset() throws IOException
+	{
+		try
+		{
+			MappedLineSource.open(file, StandardCharsets.UTF_16);
+			fail("UTF-16 should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
+
+	public void testParallelOrder() throws IOException
+	{
+		StringBuilder content = new StringBuilder();
+		List<String> expected = new ArrayList<>();
+		for (int i = 0; i < 50000; i++)
+		{
+			String line = "LINE" + i + ",\"q," + i + "\"";
+			expected.add(line);
+			content.append(line).append('\n');
+		}
+		MappedLineSource source = open(content.toString());
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			assertEquals(expected, source.process(line -> line, pool));
+			List<List<String>> separated =
+					source.separate(CSVUtilities::generateCSVSeparator, pool);
+			assertEquals(50000, separated.size());
+			for (int i = 0; i < 50000; i++)
+			{
+				assertEquals(Arrays.asList("LINE" + i, "\"q," + i + "\""),
+					separated.get(i));
+			}
+			assertEquals(separated,
+				source.separate(CSVUtilities::generateCSVSeparator, null));
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+
+	public void testSeparateMismatch() throws IOException
+	{
+		MappedLineSource source = open("a,b\n\"c,d\n");
+		try
+		{
+			source.separate(CSVUtilities::generateCSVSeparator,
+				ForkJoinPool.commonPool());
+			fail("mismatched quote should fail");
+		}
+		catch (GroupingMismatchException e)
+		{
+			//expected
+		}
+	}
+}
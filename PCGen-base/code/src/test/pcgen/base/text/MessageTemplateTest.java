@@ -0,0 +1,239 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.text;
+
+import java.lang.ref.WeakReference;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the MessageTemplate class
+ */
+public class MessageTemplateTest extends TestCase
+{
+
+	private static final String[] PATTERNS = {"", "Hello", "Hello {0}", "{0}",
+		"Hello {3}", "Hello {2} {1}, {0,number}", "It''s '{0}' {0}", "'{'{0}'}' x",
+		"{0,number,#.##} and {1,number,integer}", "{0,number,percent}",
+		"{0,choice,0#none|1#one|1<{0,number,integer} items}",
+		"Hello {0,choice,0#{1}|0<{2}}", "{1,choice,-1#neg|0#zero|0<pos}{0}",
+		"{0,choice,0#a|1#{1,number,integer} b}", "{0} {0} {1}",
+		"{0, number }", "a '' b '{0}' {1}"};
+
+	private static final Object[][] ARGUMENTS = {null, {}, {"A"}, {1}, {0, "B", "C"},
+		{2.5, 1, "X", "Y"}, {-3, 0.0, null}, {null, "Z"}, {Double.NaN, 1.0, 7},
+		{1234567.891, -0.5, new Date(0L)}, {3, 2, 1, 0}};
+
+	public void testNulls()
+	{
+		try
+		{
+			MessageTemplate.compile(null);
+			fail("Expected NPE for null pattern");
+		}
+		catch (NullPointerException e)
+		{
+			//Expected
+		}
+		try
+		{
+			MessageTemplate.compile("Hello", null);
+			fail("Expected NPE for null Locale");
+		}
+		catch (NullPointerException e)
+		{
+			//Expected
+		}
+	}
+
+	public void testBadPattern()
+	{
+		try
+		{
+			MessageTemplate.compile("Hello {0");
+			fail("Expected IAE for unmatched brace");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//Expected
+		}
+		try
+		{
+			MessageTemplate.compile("Hello {a}");
+			fail("Expected IAE for bad argument number");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//Expected
+		}
+	}
+
+	public void testRequiredArgumentCount()
+	{
+		for (String pattern : PATTERNS)
+		{
+			MessageTemplate template = MessageTemplate.compile(pattern, Locale.US);
+			assertEquals(pattern,
+				MessageFormatUtilities
+					.getRequriedArgumentCount(new MessageFormat(pattern, Locale.US)),
+				template.getRequiredArgumentCount());
+		}
+		assertEquals(3, MessageTemplate.compile("Hello {0,choice,0#{1}|0<{2}}")
+			.getRequiredArgumentCount());
+	}
+
+	public void testAccessors()
+	{
+		MessageTemplate template = MessageTemplate.compile("Hello {0}", Locale.GERMANY);
+		assertEquals("Hello {0}", template.getPattern());
+		assertEquals("Hello {0}", template.toString());
+		assertEquals(Locale.GERMANY, template.getLocale());
+	}
+
+	public void testMatchesMessageFormat()
+	{
+		for (Locale locale : new Locale[]{Locale.US, Locale.GERMANY})
+		{
+			for (String pattern : PATTERNS)
+			{
+				MessageFormat format = new MessageFormat(pattern, locale);
+				MessageTemplate template = MessageTemplate.compile(pattern, locale);
+				for (Object[] arguments : ARGUMENTS)
+				{
+					assertEquals(pattern, formatOrError(format, arguments),
+						formatOrError(template, arguments));
+				}
+			}
+		}
+	}
+
+	private static String formatOrError(MessageFormat format, Object[] arguments)
+	{
+		try
+		{
+			return format.format(arguments);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return "IAE";
+		}
+	}
+
+	private static String formatOrError(MessageTemplate template, Object[] arguments)
+	{
+		try
+		{
+			return template.format(arguments);
+		}
+		catch (IllegalArgumentException e)
+		{
+			return "IAE";
+		}
+	}
+
+	public void testFormatIntoStringBuilder()
+	{
+		MessageTemplate template =
+				MessageTemplate.compile("{0} has {1,number,integer} items", Locale.US);
+		StringBuilder sb = new StringBuilder("Start: ");
+		assertSame(sb, template.format(sb, "Bag", 1200));
+		assertEquals("Start: Bag has 1,200 items", sb.toString());
+		sb.setLength(0);
+		template.format(sb, "Box", 3);
+		assertEquals("Box has 3 items", sb.toString());
+	}
+
+	public void testConcurrent() throws Exception
+	{
+		String pattern = "{0,number,#.###} / {1,choice,0#none|1#{2,number,integer}}";
+		MessageTemplate template = MessageTemplate.compile(pattern, Locale.US);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int t = 0; t < 4; t++)
+			{
+				final int offset = t;
+				Callable<Boolean> task = () -> {
+					MessageFormat format = new MessageFormat(pattern, Locale.US);
+					StringBuilder sb = new StringBuilder();
+					for (int i = 0; i < 2000; i++)
+					{
+						Object[] arguments =
+								{(i + offset) / 7.0, i % 2, i * 1000 + offset};
+						sb.setLength(0);
+						template.format(sb, arguments);
+						if (!format.format(arguments).equals(sb.toString()))
+						{
+							return false;
+						}
+					}
+					return true;
+				};
+				results.add(executor.submit(task));
+			}
+			for (Future<Boolean> result : results)
+			{
+				assertTrue(result.get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	public void testCollectableAfterThreadUse() throws Exception
+	{
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try
+		{
+			WeakReference<MessageTemplate> reference = useFromThread(executor);
+			for (int i = 0; (i < 50) && (reference.get() != null); i++)
+			{
+				System.gc();
+				Thread.sleep(10);
+			}
+			//The pool thread is still alive, but must not keep the template reachable
+			assertNull(reference.get());
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	private static WeakReference<MessageTemplate> useFromThread(
+		ExecutorService executor) throws Exception
+	{
+		MessageTemplate template = MessageTemplate
+			.compile("{0} {1,number,#.#} {2,date,short}", Locale.US);
+		assertEquals("1 2.5 1/1/70", executor.submit(
+			() -> template.format(1, 2.5, new Date(12L * 60 * 60 * 1000))).get());
+		return new WeakReference<>(template);
+	}
+}
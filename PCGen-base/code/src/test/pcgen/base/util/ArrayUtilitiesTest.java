@@ -15,8 +15,10 @@
  */
 package pcgen.base.util;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 import java.util.function.IntFunction;
 
 import org.junit.Test;
@@ -237,6 +239,87 @@ public class ArrayUtilitiesTest extends TestCase
 		assertTrue(removed.contains(four));
 		assertTrue(removed.contains(three));
 	}
+
+	@Test
+	public void testDifferenceDuplicates()
+	{
+		Integer[] first = new Integer[]{three, four, three, three, six, four};
+		Integer[] second = new Integer[]{four, three, five, four, four, three, five};
+		Tuple<List<Integer>, List<Integer>> tuple =
+				ArrayUtilities.calculateDifference(first, second);
+		assertEquals(Arrays.asList(three, six), tuple.getFirst());
+		assertEquals(Arrays.asList(five, four, five), tuple.getSecond());
+	}
+
+	@Test
+	public void testDifferenceMatchesListRemoval()
+	{
+		Random random = new Random(4);
+		for (int trial = 0; trial < 200; trial++)
+		{
+			Integer[] first = randomArray(random);
+			Integer[] second = randomArray(random);
+			List<Integer> expectedAdded = new ArrayList<>(Arrays.asList(second));
+			List<Integer> expectedRemoved = new ArrayList<>();
+			for (Integer item : first)
+			{
+				if (!expectedAdded.remove(item))
+				{
+					expectedRemoved.add(item);
+				}
+			}
+			Tuple<List<Integer>, List<Integer>> tuple =
+					ArrayUtilities.calculateDifference(first, second);
+			assertEquals(expectedRemoved, tuple.getFirst());
+			assertEquals(expectedAdded, tuple.getSecond());
+		}
+	}
+
+	private static Integer[] randomArray(Random random)
+	{
+		Integer[] array = new Integer[random.nextInt(12)];
+		for (int i = 0; i < array.length; i++)
+		{
+			array[i] = random.nextBoolean() ? null : random.nextInt(5);
+		}
+		return array;
+	}
+
+	@Test
+	public void testDifferenceIntoCollections()
+	{
+		Integer[] first = new Integer[]{three, four, six};
+		Integer[] second = new Integer[]{two, three, five};
+		List<Object> removed = new ArrayList<>();
+		List<Object> added = new ArrayList<>();
+		removed.add("existing");
+		ArrayUtilities.calculateDifference(first, second, removed, added);
+		assertEquals(Arrays.asList("existing", four, six), removed);
+		assertEquals(Arrays.asList(two, five), added);
+	}
+
+	@Test
+	public void testIdentityDuplicates()
+	{
+		/*
+		 * Specifically use new Integer for tests - IGNORE ANY CODE VALIDATION TOOLS.
+		 */
+		Integer otherthree = new Integer(3);
+		Integer[] first = new Integer[]{three, otherthree, three, four};
+		Integer[] second = new Integer[]{otherthree, three, otherthree, four};
+		List<Integer> removed = new ArrayList<>();
+		List<Integer> added = new ArrayList<>();
+		ArrayUtilities.calculateIdentityDifference(first, second, removed, added);
+		assertEquals(1, removed.size());
+		assertSame(three, removed.get(0));
+		assertEquals(1, added.size());
+		assertSame(otherthree, added.get(0));
+		Tuple<List<Integer>, List<Integer>> tuple =
+				ArrayUtilities.calculateIdentityDifference(first, second);
+		assertSame(three, tuple.getFirst().get(0));
+		assertSame(otherthree, tuple.getSecond().get(0));
+		assertTrue(tuple.getSecond() instanceof IdentityList);
+	}
 	
 	@Test
 	public void testUsingArray()
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.TestCase;
+import pcgen.base.text.ParsingSeparator;
+import pcgen.base.text.ParsingSeparator.GroupingMismatchException;
+
+/**
+ * Test the CSVReader class
+ */
+public class CSVReaderTest extends TestCase
+{
+
+	public void testFields() throws IOException
+	{
+		CSVReader reader = new CSVReader(new StringReader(
+			"a, b ,c\n\" x,y \",\"say \"\"hi\"\"\"\r\n\r,end,\rlast"));
+		assertTrue(reader.nextLine());
+		assertEquals(1, reader.getLineNumber());
+		assertTrue(Arrays.equals(new String[]{"a", "b", "c"}, reader.getFields()));
+		assertTrue(reader.nextLine());
+		assertEquals(2, reader.getFieldCount());
+		assertEquals("x,y", reader.getField(0));
+		assertEquals("say \"hi\"", reader.getFieldChars(1).toString());
+		StringBuilder sb = new StringBuilder();
+		reader.appendField(0, sb);
+		assertEquals("x,y", sb.toString());
+		assertTrue(reader.nextLine());
+		assertEquals(0, reader.getFieldCount());
+		assertTrue(reader.nextLine());
+		assertTrue(Arrays.equals(new String[]{"", "end", ""}, reader.getFields()));
+		assertTrue(reader.nextLine());
+		assertTrue(Arrays.equals(new String[]{"last"}, reader.getFields()));
+		assertFalse(reader.nextLine());
+		assertEquals(0, reader.getFieldCount());
+		try
+		{
+			reader.getField(0);
+			fail("out of range field should fail");
+		}
+		catch (IndexOutOfBoundsException e)
+		{
+			//expected
+		}
+	}
+
+	public void testUnbalancedQuote() throws IOException
+	{
+		CSVReader reader = new CSVReader(new StringReader("a,\"b\nc"));
+		try
+		{
+			reader.nextLine();
+			fail("unbalanced quote should fail");
+		}
+		catch (GroupingMismatchException e)
+		{
+			//expected
+		}
+		//Quotes do not span lines
+		assertTrue(reader.nextLine());
+		assertEquals("c", reader.getField(0));
+	}
+
+	public void testMatchesCSVUtilities() throws IOException
+	{
+		char[] alphabet = {'a', 'b', ' ', '\t', ',', '"'};
+		Random random = new Random(42);
+		StringBuilder content = new StringBuilder();
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < 2000; i++)
+		{
+			int length = random.nextInt(12);
+			StringBuilder line = new StringBuilder();
+			for (int j = 0; j < length; j++)
+			{
+				line.append(alphabet[random.nextInt(alphabet.length)]);
+			}
+			lines.add(line.toString());
+			content.append(line).append('\n');
+		}
+		//Small buffer so lines span buffer boundaries
+		CSVReader reader = new CSVReader(new StringReader(content.toString()), 7);
+		for (String line : lines)
+		{
+			List<String> expected = new ArrayList<>();
+			boolean expectedFailure = false;
+			try
+			{
+				ParsingSeparator ps = CSVUtilities.generateCSVSeparator(line);
+				while (ps.hasNext())
+				{
+					expected.add(CSVUtilities.unescape(ps.next()));
+				}
+			}
+			catch (GroupingMismatchException e)
+			{
+				expectedFailure = true;
+			}
+			try
+			{
+				assertTrue(reader.nextLine());
+				assertFalse("Expected failure on: " + line, expectedFailure);
+				assertEquals("Mismatch on: " + line, expected,
+					Arrays.asList(reader.getFields()));
+			}
+			catch (GroupingMismatchException e)
+			{
+				assertTrue("Unexpected failure on: " + line, expectedFailure);
+			}
+		}
+		assertFalse(reader.nextLine());
+	}
+
+	public void testOpen() throws IOException
+	{
+		Path file = Files.createTempFile("CSVReaderTest", ".csv");
+		try
+		{
+			Files.write(file,
+				"\u00e9t\u00e9,\"a,b\"\nx".getBytes(StandardCharsets.UTF_8));
+			try (CSVReader reader = CSVReader.open(file, StandardCharsets.UTF_8))
+			{
+				assertTrue(reader.nextLine());
+				assertTrue(Arrays.equals(new String[]{"\u00e9t\u00e9", "a,b"},
+					reader.getFields()));
+				assertTrue(reader.nextLine());
+				assertEquals("x", reader.getField(0));
+				assertFalse(reader.nextLine());
+			}
+		}
+		finally
+		{
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the CSVWriter class
+ */
+public class CSVWriterTest extends TestCase
+{
+
+	public void testEscapeMatchesCSVUtilities() throws IOException
+	{
+		String[] entries =
+				{"", "plain", "a,b", "\"", "say \"hi\"", "\"\"", ",\",", " x "};
+		for (String entry : entries)
+		{
+			StringBuilder sb = new StringBuilder();
+			CSVUtilities.escape(entry, sb);
+			assertEquals(CSVUtilities.escape(entry), sb.toString());
+		}
+	}
+
+	public void testRoundTrip() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		CSVWriter writer = new CSVWriter(sb);
+		writer.writeLine("a", "b,c", "say \"hi\"");
+		writer.writeField("x").writeField("").endLine();
+		assertEquals("a,\"b,c\",\"say \"\"hi\"\"\"\nx,\n", sb.toString());
+		CSVReader reader = new CSVReader(new StringReader(sb.toString()));
+		assertTrue(reader.nextLine());
+		assertTrue(Arrays.equals(new String[]{"a", "b,c", "say \"hi\""},
+			reader.getFields()));
+		assertTrue(reader.nextLine());
+		assertTrue(Arrays.equals(new String[]{"x", ""}, reader.getFields()));
+		assertFalse(reader.nextLine());
+	}
+
+	public void testLineSeparator() throws IOException
+	{
+		StringBuilder sb = new StringBuilder();
+		new CSVWriter(sb, "\r\n").writeLine("a", "b").writeLine("c");
+		assertEquals("a,b\r\nc\r\n", sb.toString());
+	}
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under the terms
+ * of the GNU Lesser General Public License as published by the Free Software Foundation;
+ * either version 2.1 of the License, or (at your option) any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT ANY
+ * WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS FOR A
+ * PARTICULAR PURPOSE. See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with
+ * this library; if not, write to the Free Software Foundation, Inc., 59 Temple Place,
+ * Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import junit.framework.TestCase;
+import pcgen.base.format.NumberManager;
+import pcgen.base.format.StringManager;
+
+/**
+ * Test the IndirectCache class
+ */
+public class IndirectCacheTest extends TestCase
+{
+
+	private final NumberManager numberManager = new NumberManager();
+	private final StringManager stringManager = new StringManager();
+
+	public void testConstructorBadSize()
+	{
+		try
+		{
+			new IndirectCache(0);
+			fail("Expected IndirectCache with zero size to fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+	}
+
+	public void testInternNull()
+	{
+		IndirectCache cache = new IndirectCache(4);
+		try
+		{
+			cache.intern(null, "A");
+			fail("Expected intern with null FormatManager to fail");
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+		try
+		{
+			cache.intern(stringManager, null);
+			fail("Expected intern with null value to fail");
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+	}
+
+	public void testIntern()
+	{
+		IndirectCache cache = new IndirectCache(4);
+		BasicIndirect<String> a = cache.intern(stringManager, "A");
+		assertEquals("A", a.get());
+		assertSame(a, cache.intern(stringManager, new String("A")));
+		assertSame(a, cache.intern(new StringManager(), "A"));
+		BasicIndirect<Number> one = cache.intern(numberManager, 1);
+		assertNotSame(one, cache.intern(numberManager, 1.0));
+		assertEquals(3, cache.size());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+		assertEquals(0.4, cache.getHitRate(), 0.0001);
+	}
+
+	public void testEviction()
+	{
+		IndirectCache cache = new IndirectCache(2);
+		assertEquals(2, cache.getMaxSize());
+		assertEquals(0.0, cache.getHitRate(), 0.0);
+		BasicIndirect<String> a = cache.intern(stringManager, "A");
+		BasicIndirect<String> b = cache.intern(stringManager, "B");
+		//Touch A so B is the least recently used
+		assertSame(a, cache.intern(stringManager, "A"));
+		cache.intern(stringManager, "C");
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		assertSame(a, cache.intern(stringManager, "A"));
+		BasicIndirect<String> newB = cache.intern(stringManager, "B");
+		assertNotSame(b, newB);
+		assertEquals(b, newB);
+		assertEquals(2, cache.getEvictionCount());
+	}
+
+	public void testClear()
+	{
+		IndirectCache cache = new IndirectCache(4);
+		BasicIndirect<String> a = cache.intern(stringManager, "A");
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertNotSame(a, cache.intern(stringManager, "A"));
+		assertEquals(2, cache.getMissCount());
+		assertEquals(0, cache.getEvictionCount());
+	}
+}
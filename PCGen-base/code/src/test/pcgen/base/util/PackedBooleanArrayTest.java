@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the PackedBooleanArray class
+ */
+public class PackedBooleanArrayTest extends TestCase
+{
+
+	public void testValueOf()
+	{
+		Boolean[] values = {true, false, false, true};
+		PackedBooleanArray packed = PackedBooleanArray.valueOf(values);
+		assertEquals(4, packed.size());
+		assertTrue(packed.get(0));
+		assertFalse(packed.get(2));
+		assertTrue(Arrays.equals(values, packed.toArray()));
+		assertEquals("[true, false, false, true]", packed.toString());
+		try
+		{
+			packed.get(4);
+			fail("index out of range should fail");
+		}
+		catch (ArrayIndexOutOfBoundsException e)
+		{
+			//expected
+		}
+		try
+		{
+			PackedBooleanArray.valueOf(new Boolean[]{true, null});
+			fail("null value should fail");
+		}
+		catch (NullPointerException e)
+		{
+			//expected
+		}
+	}
+
+	public void testEquals()
+	{
+		PackedBooleanArray packed =
+				PackedBooleanArray.valueOf(new Boolean[]{true, false});
+		PackedBooleanArray longer =
+				PackedBooleanArray.valueOf(new Boolean[]{true, false, false});
+		assertEquals(packed, PackedBooleanArray.valueOf(new Boolean[]{true, false}));
+		assertEquals(packed.hashCode(),
+			PackedBooleanArray.valueOf(new Boolean[]{true, false}).hashCode());
+		//Trailing false values are significant
+		assertFalse(packed.equals(longer));
+		assertFalse(packed.equals(new Object()));
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 (C) Tom Parker <thpr@users.sourceforge.net>
+ * 
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ * 
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this library; if not, write to the Free Software Foundation, Inc.,
+ * 59 Temple Place, Suite 330, Boston, MA 02111-1307 USA
+ */
+package pcgen.base.util;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the PackedNumberArray class
+ */
+public class PackedNumberArrayTest extends TestCase
+{
+
+	public void testIntegral()
+	{
+		Number[] values = {-3, 4, 500000};
+		PackedNumberArray packed = PackedNumberArray.valueOf(values);
+		assertTrue(packed.isIntegral());
+		assertEquals(3, packed.size());
+		assertEquals(Integer.valueOf(500000), packed.get(2));
+		assertEquals(-3.0, packed.getDouble(0));
+		assertTrue(Arrays.equals(values, packed.toArray()));
+		assertEquals("[-3, 4, 500000]", packed.toString());
+	}
+
+	public void testMixed()
+	{
+		Number[] values = {-3, 4.1, 5, 5.0};
+		PackedNumberArray packed = PackedNumberArray.valueOf(values);
+		assertFalse(packed.isIntegral());
+		assertEquals(4, packed.size());
+		//Integer and Double values are preserved
+		assertEquals(Integer.valueOf(5), packed.get(2));
+		assertEquals(Double.valueOf(5.0), packed.get(3));
+		assertEquals(4.1, packed.getDouble(1));
+		assertTrue(Arrays.equals(values, packed.toArray()));
+	}
+
+	public void testNotPackable()
+	{
+		Number[] values = {1, new BigDecimal("1.5")};
+		assertFalse(PackedNumberArray.isPackable(values));
+		try
+		{
+			PackedNumberArray.valueOf(values);
+			fail("BigDecimal should fail");
+		}
+		catch (IllegalArgumentException e)
+		{
+			//expected
+		}
+		try
+		{
+			PackedNumberArray.valueOf(new Number[]{1, null});
+			fail("null value should fail");
+		}
+		catch (IllegalArgumentException | NullPointerException e)
+		{
+			//expected
+		}
+	}
+
+	public void testEquals()
+	{
+		PackedNumberArray ints = PackedNumberArray.valueOf(new Number[]{1, 2});
+		PackedNumberArray mixed = PackedNumberArray.valueOf(new Number[]{1, 2.0});
+		PackedNumberArray doubles = PackedNumberArray.valueOf(new Number[]{1.0, 2.0});
+		assertEquals(ints, PackedNumberArray.valueOf(new Number[]{1, 2}));
+		assertEquals(ints.hashCode(),
+			PackedNumberArray.valueOf(new Number[]{1, 2}).hashCode());
+		assertEquals(mixed, PackedNumberArray.valueOf(new Number[]{1, 2.0}));
+		assertFalse(ints.equals(mixed));
+		assertFalse(mixed.equals(ints));
+		assertFalse(mixed.equals(doubles));
+		assertFalse(ints.equals(new Object()));
+	}
+}
@@ -0,0 +1,84 @@
+package pcgen.testsupport;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import pcgen.base.util.Indirect;
+
+/**
+ * A LatencyObjectDatabase is an in-memory stand-in for an ObjectDatabase backed by a
+ * remote store. Each request (single or bulk) is counted as a round trip and optionally
+ * delayed by a simulated latency.
+ */
+public class LatencyObjectDatabase extends MockObjectDatabase
+{
+	/**
+	 * The simulated latency (in milliseconds) of each round trip.
+	 */
+	private final long latencyMillis;
+
+	/**
+	 * The number of round trips made to this LatencyObjectDatabase. Atomic, since bulk
+	 * requests may be made from multiple threads.
+	 */
+	private final AtomicInteger roundTrips = new AtomicInteger();
+
+	public LatencyObjectDatabase(long latencyMillis)
+	{
+		this.latencyMillis = latencyMillis;
+	}
+
+	public int getRoundTrips()
+	{
+		return roundTrips.get();
+	}
+
+	private void roundTrip()
+	{
+		roundTrips.incrementAndGet();
+		if (latencyMillis > 0)
+		{
+			try
+			{
+				Thread.sleep(latencyMillis);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public <T> T get(Class<T> cl, String name)
+	{
+		roundTrip();
+		return super.get(cl, name);
+	}
+
+	@Override
+	public <T> Indirect<T> getIndirect(Class<T> cl, String name)
+	{
+		roundTrip();
+		return super.getIndirect(cl, name);
+	}
+
+	@Override
+	public <T> void getAll(Class<T> cl, String[] names, T[] output)
+	{
+		roundTrip();
+		for (int i = 0; i < names.length; i++)
+		{
+			output[i] = super.get(cl, names[i]);
+		}
+	}
+
+	@Override
+	public <T> void getIndirectAll(Class<T> cl, String[] names, Indirect<T>[] output)
+	{
+		roundTrip();
+		for (int i = 0; i < names.length; i++)
+		{
+			output[i] = super.getIndirect(cl, names[i]);
+		}
+	}
+}
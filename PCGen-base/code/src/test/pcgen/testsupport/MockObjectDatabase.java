@@ -25,7 +25,8 @@ public class MockObjectDatabase implements ObjectDatabase
 	@Override
 	public <T> Indirect<T> getIndirect(Class<T> cl, String name)
 	{
-		T underlying = get(cl, name);
+		@SuppressWarnings("unchecked")
+		T underlying = (T) map.get(cl, name);
 		if (underlying == null)
 		{
 			throw new IllegalArgumentException("Does not contain " + cl.getName() + " " + name);